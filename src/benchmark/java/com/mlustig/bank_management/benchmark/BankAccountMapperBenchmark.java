@@ -0,0 +1,32 @@
+package com.mlustig.bank_management.benchmark;
+
+import com.mlustig.bank_management.dao.BankAccount;
+import com.mlustig.bank_management.dto.BankAccountDto;
+import com.mlustig.bank_management.mappers.BankAccountMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BankAccountMapperBenchmark {
+
+    @Param({"10", "100000"})
+    public int transactions;
+
+    private BankAccount bankAccount;
+
+    @Setup
+    public void setUp() {
+        bankAccount = Fixtures.bankAccount(transactions);
+    }
+
+    @Benchmark
+    public BankAccountDto toDto() {
+        return BankAccountMapper.INSTANCE.toDto(bankAccount);
+    }
+}
@@ -0,0 +1,38 @@
+package com.mlustig.bank_management.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mlustig.bank_management.dto.BankAccountDto;
+import com.mlustig.bank_management.mappers.BankAccountMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BankAccountSerializationBenchmark {
+
+    @Param({"0", "10", "10000"})
+    public int transactions;
+
+    private ObjectMapper objectMapper;
+
+    private BankAccountDto bankAccountDto;
+
+    @Setup
+    public void setUp() {
+        // Same builder Spring Boot uses for the HTTP message converters.
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        bankAccountDto = BankAccountMapper.INSTANCE.toDto(Fixtures.bankAccount(transactions));
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bankAccountDto);
+    }
+}
@@ -0,0 +1,61 @@
+package com.mlustig.bank_management.benchmark;
+
+import com.mlustig.bank_management.concurrency.AccountLocks;
+import com.mlustig.bank_management.concurrency.GroupCommitBatcher;
+import com.mlustig.bank_management.concurrency.LedgerConcurrency;
+import com.mlustig.bank_management.concurrency.OptimisticRetry;
+import com.mlustig.bank_management.config.LedgerProperties;
+import com.mlustig.bank_management.config.LoggingProperties;
+import com.mlustig.bank_management.dto.BankAccountDto;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.facades.DataFacade;
+import com.mlustig.bank_management.logging.EventLog;
+import com.mlustig.bank_management.mappers.BankAccountMapper;
+import com.mlustig.bank_management.metrics.BankAccountMeterRegistry;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.projections.BankAccountSnapshot;
+import com.mlustig.bank_management.projections.BankAccountSummary;
+import com.mlustig.bank_management.services.BankAccountService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// makeDeposit without the database: validation, striped lock and mapping of the returned summary.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BankAccountServiceBenchmark {
+
+    private BankAccountService service;
+
+    @Setup
+    public void setUp() {
+        LedgerProperties properties = new LedgerProperties();
+        BankAccountMeterRegistry meterRegistry = new BankAccountMeterRegistry(new SimpleMeterRegistry());
+        meterRegistry.init();
+
+        BankAccountSummary updated = new BankAccountSnapshot(1L, Fixtures.ACCOUNT_ID, "Theodore", "Roosevelt",
+                Money.ofUnits(3600), Money.ofUnits(1500), true);
+        DataFacade dataFacade = new DataFacade(null, null, null, null, null, Fixtures.disabledCacheInvalidator()) {
+            @Override
+            public Optional<BankAccountSummary> applyTransaction(String accountId, Money amount, TransactionType type) {
+                return Optional.of(updated);
+            }
+        };
+
+        LedgerConcurrency ledgerConcurrency = new LedgerConcurrency(properties, new AccountLocks(properties, meterRegistry),
+                new OptimisticRetry(properties, meterRegistry));
+        service = new BankAccountService(dataFacade, BankAccountMapper.INSTANCE, ledgerConcurrency,
+                new GroupCommitBatcher(properties, dataFacade, null, meterRegistry), null, new EventLog(new LoggingProperties()));
+    }
+
+    @Benchmark
+    public Optional<BankAccountDto> makeDeposit() {
+        return service.makeDeposit(Fixtures.ACCOUNT_ID, Money.ofUnits(100));
+    }
+}
@@ -0,0 +1,52 @@
+package com.mlustig.bank_management.benchmark;
+
+import com.mlustig.bank_management.dao.BankAccount;
+import com.mlustig.bank_management.enums.BankAccountFields;
+import com.mlustig.bank_management.facades.DataFacade;
+import com.mlustig.bank_management.repositories.BankAccountRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.util.Pair;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Measures the copy-and-patch of the entity in updateBankAccount; the repository answers from memory.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataFacadeBenchmark {
+
+    private static final List<Pair<BankAccountFields, String>> ACTIVATE = List.of(Pair.of(BankAccountFields.ACTIVE, "true"));
+
+    private static final List<Pair<BankAccountFields, String>> PROFILE = List.of(
+            Pair.of(BankAccountFields.FIRST_NAME, "Franklin"),
+            Pair.of(BankAccountFields.LAST_NAME, "Benjamin"),
+            Pair.of(BankAccountFields.BALANCE, "4500.50"),
+            Pair.of(BankAccountFields.MINIMUM_BALANCE, "-1000"));
+
+    private DataFacade dataFacade;
+
+    @Setup
+    public void setUp() {
+        BankAccount bankAccount = Fixtures.bankAccount(0);
+        BankAccountRepository repository = Fixtures.stub(BankAccountRepository.class, Map.of(
+                "findBankAccountByAccountId", args -> Optional.of(bankAccount),
+                "save", args -> args[0]));
+        dataFacade = new DataFacade(repository, null, null, null, null, Fixtures.disabledCacheInvalidator());
+    }
+
+    @Benchmark
+    public Optional<BankAccount> updateSingleField() {
+        return dataFacade.updateBankAccount(Fixtures.ACCOUNT_ID, ACTIVATE);
+    }
+
+    @Benchmark
+    public Optional<BankAccount> updateAllFields() {
+        return dataFacade.updateBankAccount(Fixtures.ACCOUNT_ID, PROFILE);
+    }
+}
@@ -0,0 +1,23 @@
+package com.mlustig.bank_management.benchmark;
+
+import com.mlustig.bank_management.validators.EmailValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailValidatorBenchmark {
+
+    @Param({"theodore.roosevelt@gmail.com", "not-an-email"})
+    public String accountId;
+
+    @Benchmark
+    public boolean isValid() {
+        return EmailValidator.isValid(accountId);
+    }
+}
@@ -0,0 +1,68 @@
+package com.mlustig.bank_management.benchmark;
+
+import com.mlustig.bank_management.cache.AccountCacheInvalidator;
+import com.mlustig.bank_management.config.CacheProperties;
+import com.mlustig.bank_management.dao.BankAccount;
+import com.mlustig.bank_management.dao.Transaction;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.money.Money;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Shared fixtures for the JMH benchmarks. Collaborators are hand-rolled stubs rather than mocks so the measurements
+// do not include mocking framework overhead.
+final class Fixtures {
+
+    static final String ACCOUNT_ID = "theodore.roosevelt@gmail.com";
+
+    private Fixtures() {
+    }
+
+    static BankAccount bankAccount(int transactionCount) {
+        LocalDateTime start = LocalDateTime.of(2023, 1, 1, 0, 0);
+        List<Transaction> transactions = new ArrayList<>(transactionCount);
+        for (int i = 0; i < transactionCount; i++) {
+            transactions.add(Transaction.builder()
+                    .id((long) i)
+                    .bankAccountId(1L)
+                    .amount(Money.ofUnits(10 + i % 90))
+                    .type(i % 3 == 0 ? TransactionType.WITHDRAW : TransactionType.DEPOSIT)
+                    .createdAt(start.plusSeconds(i))
+                    .build());
+        }
+        return BankAccount.builder()
+                .id(1L)
+                .accountId(ACCOUNT_ID)
+                .firstName("Theodore")
+                .lastName("Roosevelt")
+                .balance(Money.ofUnits(3500))
+                .minimumBalance(Money.ofUnits(1500))
+                .active(true)
+                .version(0L)
+                .transactions(transactions)
+                .build();
+    }
+
+    static AccountCacheInvalidator disabledCacheInvalidator() {
+        CacheProperties properties = new CacheProperties();
+        properties.setEnabled(false);
+        return new AccountCacheInvalidator(properties, null, null);
+    }
+
+    // Answers the named methods and fails loudly on anything else, so a benchmark never silently measures a no-op.
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+            return answer.apply(args);
+        });
+    }
+}
@@ -0,0 +1,133 @@
+package com.mlustig.bank_management.benchmark;
+
+import com.mlustig.bank_management.concurrency.AccountLocks;
+import com.mlustig.bank_management.concurrency.VirtualThreads;
+import com.mlustig.bank_management.config.LedgerProperties;
+import com.mlustig.bank_management.metrics.BankAccountMeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares a Tomcat-sized platform thread pool with one virtual thread per request for the shape of a ledger call:
+ * a metered request timer, a striped account lock and a blocking database round trip bounded by the connection pool.
+ * <p>
+ * Usage: {@code ./gradlew threadingBenchmark -PbenchmarkArgs="<requests> <concurrency,...> <db-latency-ms> <pool-size>"}
+ */
+public class ThreadingBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+    private static final int ACCOUNTS = 10_000;
+
+    private final int requests;
+    private final long dbLatencyMillis;
+    private final Semaphore connectionPool;
+    private final AccountLocks accountLocks;
+    private final Timer requestTimer;
+
+    ThreadingBenchmark(int requests, long dbLatencyMillis, int poolSize) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BankAccountMeterRegistry meterRegistry = new BankAccountMeterRegistry(registry);
+        meterRegistry.init();
+        this.requests = requests;
+        this.dbLatencyMillis = dbLatencyMillis;
+        this.connectionPool = new Semaphore(poolSize, true);
+        this.accountLocks = new AccountLocks(new LedgerProperties(), meterRegistry);
+        this.requestTimer = Timer.builder("bank_account_endpoint_timer")
+                .tag("endpoint", "makeDeposit")
+                .register(registry);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int[] concurrencyLevels = args.length > 1
+                ? Arrays.stream(args[1].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[]{200, 1_000, 5_000, 10_000};
+        long dbLatencyMillis = args.length > 2 ? Long.parseLong(args[2]) : 5;
+        int poolSize = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+
+        if (!VirtualThreads.isSupported()) {
+            System.err.println("Virtual threads need a Java 21+ runtime, running on " + Runtime.version());
+            System.exit(1);
+        }
+
+        System.out.printf("requests=%d db-latency=%dms pool-size=%d platform-threads=%d%n",
+                requests, dbLatencyMillis, poolSize, PLATFORM_THREADS);
+        System.out.printf("%-9s %12s %14s %10s %10s %10s%n", "mode", "concurrency", "throughput/s", "p50 ms", "p99 ms", "max ms");
+        for (int concurrency : concurrencyLevels) {
+            ThreadingBenchmark benchmark = new ThreadingBenchmark(requests, dbLatencyMillis, poolSize);
+            benchmark.warmUp();
+            benchmark.run("platform", Executors.newFixedThreadPool(PLATFORM_THREADS), concurrency);
+            benchmark.run("virtual", VirtualThreads.newVirtualThreadPerTaskExecutor(), concurrency);
+        }
+    }
+
+    private void warmUp() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(PLATFORM_THREADS);
+        for (int i = 0; i < 2_000; i++) {
+            int request = i;
+            executor.execute(() -> handle(request));
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    // The caller keeps `concurrency` requests in flight, like that many connected clients.
+    private void run(String mode, ExecutorService executor, int concurrency) throws InterruptedException {
+        long[] latencies = new long[requests];
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicInteger completed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(requests);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int request = i;
+            long submitted = System.nanoTime();
+            executor.execute(() -> {
+                try {
+                    handle(request);
+                    completed.incrementAndGet();
+                } finally {
+                    latencies[request] = System.nanoTime() - submitted;
+                    inFlight.release();
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        Arrays.sort(latencies);
+        System.out.printf("%-9s %12d %14.0f %10.2f %10.2f %10.2f%n", mode, concurrency,
+                completed.get() / (elapsed / 1e9), millis(percentile(latencies, 0.50)),
+                millis(percentile(latencies, 0.99)), millis(latencies[latencies.length - 1]));
+    }
+
+    private void handle(int request) {
+        requestTimer.record(() -> accountLocks.withAccountLock("account-" + (request % ACCOUNTS) + "@gmail.com", () -> {
+            connectionPool.acquireUninterruptibly();
+            try {
+                Thread.sleep(dbLatencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                connectionPool.release();
+            }
+            return null;
+        }));
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,245 @@
+package com.mlustig.bank_management.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop HTTP load generator for /api/v1/bank-accounts. Requests are fired on a fixed schedule regardless of how
+ * quickly earlier ones complete, and latency is reported both from the scheduled send time (corrected for
+ * coordinated omission) and from the actual send time.
+ * <p>
+ * Usage: {@code ./gradlew loadTest -PloadTestArgs="--rate=2000 --duration=120s --mix=info=80,deposit=20"}.
+ * Options: base-url, rate (requests/s), duration, warmup, accounts, zipf-exponent, mix, setup, max-in-flight,
+ * timeout, report-dir.
+ */
+public class LoadTest {
+
+    private static final String API = "/api/v1/bank-accounts";
+    private static final String SUMMARY_FIELDS = "?fields=accountId,balance,minimumBalance,active";
+
+    private final LoadTestOptions options;
+    private final HttpClient client;
+    private final ZipfDistribution accountPopularity;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final SplittableRandom random = new SplittableRandom();
+
+    public LoadTest(LoadTestOptions options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout())
+                .build();
+        this.accountPopularity = new ZipfDistribution(options.accounts(), options.zipfExponent());
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        System.out.println("Load test: " + options);
+
+        LoadTest loadTest = new LoadTest(options);
+        if (options.setup()) {
+            loadTest.createAccounts();
+        }
+        if (!options.warmup().isZero()) {
+            System.out.println("Warming up for " + options.warmup());
+            Run warmup = loadTest.run(Phase.WARMUP, options.warmup().toNanos());
+            if (warmup.outstanding() > 0) {
+                System.out.println("Warning: " + warmup.outstanding() + " warmup requests still outstanding; "
+                        + "they complete during the measurement but are not recorded");
+            }
+        }
+        System.out.println("Measuring for " + options.duration());
+        Run measurement = loadTest.run(Phase.MEASUREMENT, options.duration().toNanos());
+        loadTest.report(measurement.elapsedNanos());
+        if (measurement.outstanding() > 0) {
+            System.out.println("FAILED: " + measurement.outstanding() + " requests were still outstanding when the "
+                    + "drain timed out, so the report covers an unfinished window");
+            System.exit(1);
+        }
+    }
+
+    // Creates the accounts the test draws from and makes sure they are active and funded. Existing accounts are kept.
+    void createAccounts() throws InterruptedException {
+        System.out.println("Creating " + options.accounts() + " accounts");
+        Semaphore inFlight = new Semaphore(64);
+        AtomicInteger failures = new AtomicInteger();
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+        for (int i = 0; i < options.accounts(); i++) {
+            String accountId = accountId(i);
+            inFlight.acquire();
+            String body = String.format("{\"accountId\":\"%s\",\"firstName\":\"Load\",\"lastName\":\"Test\","
+                    + "\"balance\":1000000,\"minimumBalance\":0,\"active\":true}", accountId);
+            pending.add(client.sendAsync(json(URI.create(options.baseUrl() + API), "POST", body), HttpResponse.BodyHandlers.discarding())
+                    .thenCompose(created -> client.sendAsync(request(Operation.ACTIVATE, accountId), HttpResponse.BodyHandlers.discarding()))
+                    .whenComplete((response, error) -> {
+                        if (error != null || response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                        inFlight.release();
+                    }));
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).exceptionally(error -> null).join();
+        if (failures.get() > 0) {
+            System.out.println("Warning: " + failures.get() + " accounts could not be created or activated");
+        }
+    }
+
+    // Returns the wall time the schedule took, including draining the requests still in flight at the end, and how
+    // many of them were still outstanding when the drain gave up.
+    Run run(Phase phase, long durationNanos) throws InterruptedException {
+        long intervalNanos = (long) (1_000_000_000L / options.rate());
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        long start = System.nanoTime();
+        long end = start + durationNanos;
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            fire(phase, intended, inFlight);
+        }
+
+        // Waiting for the tail: every permit comes back once the outstanding requests complete or time out.
+        boolean drained = inFlight.tryAcquire(options.maxInFlight(), options.timeout().toMillis() * 2, TimeUnit.MILLISECONDS);
+        return new Run(System.nanoTime() - start, drained ? 0 : options.maxInFlight() - inFlight.availablePermits());
+    }
+
+    // Each request is tagged with the phase it was scheduled in, so warmup requests completing late never reach the
+    // measurement histograms.
+    private void fire(Phase phase, long intended, Semaphore inFlight) {
+        Operation operation = options.mix().next(random.nextDouble());
+        OperationStats operationStats = stats.get(operation);
+        boolean measured = phase == Phase.MEASUREMENT;
+        // Beyond the in-flight cap the generator would need unbounded memory; the request is counted as dropped
+        // instead of silently delaying the schedule.
+        if (!inFlight.tryAcquire()) {
+            if (measured) {
+                operationStats.dropped.increment();
+            }
+            return;
+        }
+
+        String accountId = accountId(accountPopularity.sample(random.nextDouble()));
+        long sent = System.nanoTime();
+        client.sendAsync(request(operation, accountId), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (measured) {
+                        operationStats.record(intended, sent, System.nanoTime(), error == null ? response.statusCode() : -1);
+                    }
+                    inFlight.release();
+                });
+    }
+
+    private HttpRequest request(Operation operation, String accountId) {
+        return switch (operation) {
+            case GET_ACCOUNT_INFO -> HttpRequest.newBuilder(URI.create(options.baseUrl() + API + "/" + accountId + SUMMARY_FIELDS))
+                    .timeout(options.timeout())
+                    .GET()
+                    .build();
+            case DEPOSIT -> json(URI.create(options.baseUrl() + API + "/deposit"), "POST", transaction(accountId, 10));
+            case WITHDRAW -> json(URI.create(options.baseUrl() + API + "/withdraw"), "POST", transaction(accountId, 10));
+            case ACTIVATE -> HttpRequest.newBuilder(URI.create(options.baseUrl() + API + "/" + accountId + "/activate"))
+                    .timeout(options.timeout())
+                    .PUT(HttpRequest.BodyPublishers.noBody())
+                    .build();
+        };
+    }
+
+    private HttpRequest json(URI uri, String method, String body) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(options.timeout())
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String transaction(String accountId, int amount) {
+        return "{\"accountId\":\"" + accountId + "\",\"amount\":" + amount + "}";
+    }
+
+    private String accountId(int rank) {
+        return "load-test-" + rank + "@example.com";
+    }
+
+    private void report(long elapsedNanos) throws IOException {
+        Files.createDirectories(options.reportDir());
+        Histogram totalCorrected = new Histogram(3);
+        Histogram totalUncorrected = new Histogram(3);
+        long totalSucceeded = 0;
+
+        System.out.printf("%n%-10s %9s %9s %7s %7s %10s %10s %10s %10s %10s %12s%n", "operation", "ok", "rejected",
+                "failed", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "p99 raw ms");
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats operationStats = entry.getValue();
+            Histogram corrected = operationStats.correctedHistogram();
+            Histogram uncorrected = operationStats.uncorrectedHistogram();
+            if (corrected.getTotalCount() == 0 && operationStats.dropped.sum() == 0) {
+                continue;
+            }
+            totalCorrected.add(corrected);
+            totalUncorrected.add(uncorrected);
+            totalSucceeded += operationStats.succeeded.sum();
+            print(entry.getKey().getKey(), operationStats, corrected, uncorrected);
+            writeDistribution(entry.getKey().getKey(), corrected);
+        }
+        writeDistribution("all", totalCorrected);
+
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%ntarget %.0f req/s, completed %.0f req/s, successful %.0f req/s%n", options.rate(),
+                totalCorrected.getTotalCount() / seconds, totalSucceeded / seconds);
+        System.out.printf("all operations: p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms (uncorrected p99 %.2f ms)%n",
+                millis(totalCorrected, 50), millis(totalCorrected, 99), millis(totalCorrected, 99.9),
+                totalCorrected.getMaxValue() / 1000.0, millis(totalUncorrected, 99));
+        System.out.println("Percentile distributions written to " + options.reportDir().toAbsolutePath());
+    }
+
+    private void print(String name, OperationStats operationStats, Histogram corrected, Histogram uncorrected) {
+        System.out.printf("%-10s %9d %9d %7d %7d %10.2f %10.2f %10.2f %10.2f %10.2f %12.2f%n", name,
+                operationStats.succeeded.sum(), operationStats.rejected.sum(), operationStats.failed.sum(),
+                operationStats.dropped.sum(), millis(corrected, 50), millis(corrected, 90), millis(corrected, 99),
+                millis(corrected, 99.9), corrected.getMaxValue() / 1000.0, millis(uncorrected, 99));
+    }
+
+    // .hgrm files can be plotted with the HdrHistogram plotter to compare runs.
+    private void writeDistribution(String name, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(options.reportDir().resolve(name + ".hgrm")))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    enum Phase {
+        WARMUP, MEASUREMENT
+    }
+
+    record Run(long elapsedNanos, int outstanding) {
+    }
+}
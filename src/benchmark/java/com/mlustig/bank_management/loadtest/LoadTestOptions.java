@@ -0,0 +1,59 @@
+package com.mlustig.bank_management.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+public record LoadTestOptions(
+        URI baseUrl,
+        double rate,
+        Duration duration,
+        Duration warmup,
+        int accounts,
+        double zipfExponent,
+        OperationMix mix,
+        boolean setup,
+        int maxInFlight,
+        Duration timeout,
+        Path reportDir) {
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                URI.create(values.getOrDefault("base-url", "http://localhost:8080")),
+                Double.parseDouble(values.getOrDefault("rate", "500")),
+                Duration.parse("PT" + values.getOrDefault("duration", "60s")),
+                Duration.parse("PT" + values.getOrDefault("warmup", "10s")),
+                Integer.parseInt(values.getOrDefault("accounts", "1000")),
+                Double.parseDouble(values.getOrDefault("zipf-exponent", "1.0")),
+                OperationMix.parse(values.getOrDefault("mix", "info=70,deposit=15,withdraw=10,activate=5")),
+                Boolean.parseBoolean(values.getOrDefault("setup", "true")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "10000")),
+                Duration.parse("PT" + values.getOrDefault("timeout", "10s")),
+                Path.of(values.getOrDefault("report-dir", "build/reports/loadtest")));
+        if (options.rate() <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        return options;
+    }
+
+    @Override
+    public String toString() {
+        return "baseUrl=" + baseUrl + " rate=" + rate + "/s duration=" + duration + " warmup=" + warmup
+                + " accounts=" + accounts + " zipfExponent=" + zipfExponent + " mix=" + mix
+                + " maxInFlight=" + maxInFlight + " timeout=" + timeout;
+    }
+}
@@ -0,0 +1,27 @@
+package com.mlustig.bank_management.loadtest;
+
+import java.util.Arrays;
+
+public enum Operation {
+    GET_ACCOUNT_INFO("info"),
+    DEPOSIT("deposit"),
+    WITHDRAW("withdraw"),
+    ACTIVATE("activate");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static Operation fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation: " + key));
+    }
+}
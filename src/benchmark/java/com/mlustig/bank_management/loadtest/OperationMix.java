@@ -0,0 +1,70 @@
+package com.mlustig.bank_management.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+// Weighted choice between operations, parsed from "info=70,deposit=15,withdraw=10,activate=5".
+public final class OperationMix {
+
+    private final Operation[] operations;
+    private final double[] cumulative;
+
+    private OperationMix(Operation[] operations, double[] cumulative) {
+        this.operations = operations;
+        this.cumulative = cumulative;
+    }
+
+    public static OperationMix parse(String spec) {
+        List<Operation> operations = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed operation mix entry: " + entry);
+            }
+            double weight = Double.parseDouble(parts[1]);
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + parts[0]);
+            }
+            if (weight > 0) {
+                operations.add(Operation.fromKey(parts[0].trim()));
+                weights.add(weight);
+            }
+        }
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix is empty: " + spec);
+        }
+
+        double total = weights.stream().mapToDouble(Double::doubleValue).sum();
+        double[] cumulative = new double[weights.size()];
+        double running = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            running += weights.get(i) / total;
+            cumulative[i] = running;
+        }
+        cumulative[cumulative.length - 1] = 1.0;
+        return new OperationMix(operations.toArray(Operation[]::new), cumulative);
+    }
+
+    // u is uniform in [0, 1)
+    public Operation next(double u) {
+        for (int i = 0; i < cumulative.length; i++) {
+            if (u < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(",");
+        double previous = 0;
+        for (int i = 0; i < operations.length; i++) {
+            joiner.add(String.format("%s=%.1f%%", operations[i].getKey(), (cumulative[i] - previous) * 100));
+            previous = cumulative[i];
+        }
+        return joiner.toString();
+    }
+}
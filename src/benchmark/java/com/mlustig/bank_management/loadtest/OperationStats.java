@@ -0,0 +1,39 @@
+package com.mlustig.bank_management.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Latencies are kept in microseconds. "Corrected" latency is measured from the moment the open-loop schedule
+// intended to send the request, so time spent queued behind a stalled server is not silently omitted.
+final class OperationStats {
+
+    private final Recorder corrected = new Recorder(3);
+    private final Recorder uncorrected = new Recorder(3);
+
+    final LongAdder succeeded = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+    final LongAdder failed = new LongAdder();
+    final LongAdder dropped = new LongAdder();
+
+    void record(long intendedNanos, long sentNanos, long completedNanos, int status) {
+        corrected.recordValue(Math.max(0, (completedNanos - intendedNanos) / 1_000));
+        uncorrected.recordValue(Math.max(0, (completedNanos - sentNanos) / 1_000));
+        if (status >= 200 && status < 300) {
+            succeeded.increment();
+        } else if (status >= 400 && status < 500) {
+            rejected.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    Histogram correctedHistogram() {
+        return corrected.getIntervalHistogram();
+    }
+
+    Histogram uncorrectedHistogram() {
+        return uncorrected.getIntervalHistogram();
+    }
+}
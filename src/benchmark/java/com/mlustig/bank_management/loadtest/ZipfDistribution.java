@@ -0,0 +1,36 @@
+package com.mlustig.bank_management.loadtest;
+
+import java.util.Arrays;
+
+// Rank k (0-based) is drawn with probability proportional to 1 / (k + 1)^exponent. An exponent of 0 is uniform;
+// around 1 a handful of hot accounts take most of the traffic, which is what stresses the per-account locks.
+public final class ZipfDistribution {
+
+    private final double[] cdf;
+
+    public ZipfDistribution(int size, double exponent) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Exponent must not be negative");
+        }
+        cdf = new double[size];
+        double running = 0;
+        for (int k = 0; k < size; k++) {
+            running += 1.0 / Math.pow(k + 1, exponent);
+            cdf[k] = running;
+        }
+        for (int k = 0; k < size; k++) {
+            cdf[k] /= running;
+        }
+        cdf[size - 1] = 1.0;
+    }
+
+    // u is uniform in [0, 1)
+    public int sample(double u) {
+        int index = Arrays.binarySearch(cdf, u);
+        int rank = index >= 0 ? index + 1 : -index - 1;
+        return Math.min(rank, cdf.length - 1);
+    }
+}
@@ -0,0 +1,66 @@
+package com.mlustig.bank_management.cache;
+
+import com.mlustig.bank_management.config.CacheProperties;
+import lombok.Getter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.util.UUID;
+
+@Component
+public class AccountCacheInvalidator {
+
+    private final CacheProperties properties;
+    private final AccountSummaryCache cache;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock = Clock.systemUTC();
+
+    @Getter
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public AccountCacheInvalidator(CacheProperties properties, AccountSummaryCache cache, JdbcTemplate jdbcTemplate) {
+        this.properties = properties;
+        this.cache = cache;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // NOTIFY is transactional in Postgres: other replicas only hear about the change once it commits, and a rollback
+    // sends nothing. The local entry is dropped once the transaction completes so a concurrent read cannot
+    // re-cache the old row.
+    public void accountChanged(String accountId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, properties.getChannel(), payloadFor(accountId));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(accountId);
+                }
+            });
+        } else {
+            cache.evict(accountId);
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public String getChannel() {
+        return properties.getChannel();
+    }
+
+    public String payloadFor(String accountId) {
+        return InvalidationMessage.format(instanceId, clock.millis(), accountId);
+    }
+
+    public void evictLocally(String accountId) {
+        cache.evict(accountId);
+    }
+}
@@ -0,0 +1,137 @@
+package com.mlustig.bank_management.cache;
+
+import com.mlustig.bank_management.config.CacheProperties;
+import com.mlustig.bank_management.metrics.BankAccountMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+// LISTEN holds its session for as long as the listener runs, so it gets its own driver connection rather than
+// pinning one of the pool's: the pool keeps its full size and leak detection never sees it.
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "bank-management.cache", name = "enabled", matchIfMissing = true)
+public class AccountCacheListener {
+
+    private final CacheProperties properties;
+    private final AccountSummaryCache cache;
+    private final AccountCacheInvalidator invalidator;
+    private final BankAccountMeterRegistry meterRegistry;
+    private final DataSource notificationDataSource;
+    private final Clock clock = Clock.systemUTC();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public AccountCacheListener(CacheProperties properties, AccountSummaryCache cache, AccountCacheInvalidator invalidator,
+                                BankAccountMeterRegistry meterRegistry, DataSourceProperties dataSourceProperties) {
+        this.properties = properties;
+        this.cache = cache;
+        this.invalidator = invalidator;
+        this.meterRegistry = meterRegistry;
+        this.notificationDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(SimpleDriverDataSource.class)
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "account-cache-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join(properties.getPollTimeout().toMillis() * 2);
+    }
+
+    private void run() {
+        while (running) {
+            try (Connection connection = notificationDataSource.getConnection()) {
+                listen(connection);
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.error("AccountCacheListener.run() - lost the notification connection, reconnecting", e);
+                sleepBeforeReconnect();
+            }
+        }
+    }
+
+    private void listen(Connection connection) throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + properties.getChannel());
+        }
+        // Anything published while we were not listening is lost, so start from an empty cache.
+        cache.evictAll();
+        meterRegistry.getCacheResyncCounter().increment();
+
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        int timeout = (int) properties.getPollTimeout().toMillis();
+        try {
+            while (running) {
+                PGNotification[] notifications = pgConnection.getNotifications(timeout);
+                if (notifications == null) {
+                    continue;
+                }
+                for (PGNotification notification : notifications) {
+                    handle(notification.getParameter());
+                }
+            }
+        } finally {
+            unlisten(connection);
+        }
+    }
+
+    // Best effort: after a lost connection there is nothing left to unlisten from.
+    private void unlisten(Connection connection) {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("UNLISTEN " + properties.getChannel());
+        } catch (SQLException e) {
+            log.debug("AccountCacheListener.unlisten() - could not unlisten, the connection is gone", e);
+        }
+    }
+
+    private void handle(String payload) {
+        try {
+            InvalidationMessage message = InvalidationMessage.parse(payload);
+            if (invalidator.getInstanceId().equals(message.instanceId())) {
+                return;
+            }
+            cache.evict(message.accountId());
+            meterRegistry.getCacheRemoteInvalidationCounter().increment();
+            meterRegistry.getCacheInvalidationLagTimer()
+                    .record(Math.max(0, clock.millis() - message.sentAtMillis()), TimeUnit.MILLISECONDS);
+        } catch (IllegalArgumentException e) {
+            log.warn("AccountCacheListener.handle(payload) - ignoring malformed payload. payload: {}", payload);
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(properties.getReconnectBackoff().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.mlustig.bank_management.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mlustig.bank_management.config.CacheProperties;
+import com.mlustig.bank_management.projections.BankAccountSnapshot;
+import com.mlustig.bank_management.projections.BankAccountSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+@Component
+public class AccountSummaryCache {
+
+    private final boolean enabled;
+    private final Cache<String, BankAccountSnapshot> cache;
+
+    public AccountSummaryCache(CacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "bank_account_summary");
+    }
+
+    // Missing accounts are not cached, so a newly created account is visible on the next read.
+    public Optional<BankAccountSummary> get(String accountId, Function<String, Optional<BankAccountSummary>> loader) {
+        if (!enabled) {
+            return loader.apply(accountId);
+        }
+        return Optional.ofNullable(cache.get(accountId, key -> loader.apply(key).map(BankAccountSnapshot::of).orElse(null)));
+    }
+
+    public void evict(String accountId) {
+        cache.invalidate(accountId);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,16 @@
+package com.mlustig.bank_management.cache;
+
+public record InvalidationMessage(String instanceId, long sentAtMillis, String accountId) {
+
+    public static String format(String instanceId, long sentAtMillis, String accountId) {
+        return instanceId + "," + sentAtMillis + "," + accountId;
+    }
+
+    public static InvalidationMessage parse(String payload) {
+        String[] parts = payload.split(",", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed invalidation payload: " + payload);
+        }
+        return new InvalidationMessage(parts[0], Long.parseLong(parts[1]), parts[2]);
+    }
+}
@@ -0,0 +1,61 @@
+package com.mlustig.bank_management.concurrency;
+
+import com.mlustig.bank_management.config.LedgerProperties;
+import com.mlustig.bank_management.metrics.BankAccountMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+public class AccountLocks {
+
+    private final ReentrantLock[] stripes;
+    private final BankAccountMeterRegistry meterRegistry;
+
+    public AccountLocks(LedgerProperties properties, BankAccountMeterRegistry meterRegistry) {
+        this.stripes = new ReentrantLock[stripeCountFor(properties.getLockStripes())];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.meterRegistry = meterRegistry;
+        meterRegistry.registerLedgerLockGauges(this);
+    }
+
+    public <T> T withAccountLock(String accountId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeIndex(accountId)];
+        long waitStart = System.nanoTime();
+        lock.lock();
+        try {
+            meterRegistry.getLedgerLockWaitTimer().record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    public int getQueueLength() {
+        int queued = 0;
+        for (ReentrantLock stripe : stripes) {
+            queued += stripe.getQueueLength();
+        }
+        return queued;
+    }
+
+    int stripeIndex(String accountId) {
+        int hash = accountId.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    private static int stripeCountFor(int requested) {
+        if (requested < 1) {
+            throw new IllegalArgumentException("Lock stripe count must be positive");
+        }
+        return requested == 1 ? 1 : Integer.highestOneBit(requested - 1) << 1;
+    }
+}
@@ -0,0 +1,172 @@
+package com.mlustig.bank_management.concurrency;
+
+import com.mlustig.bank_management.config.LedgerProperties;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.facades.DataFacade;
+import com.mlustig.bank_management.metrics.BankAccountMeterRegistry;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.projections.BankAccountSummary;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for single deposits and withdrawals: concurrent requests are queued, a drainer thread collects them
+ * for at most one window (or until the batch is full) and applies the whole batch in one database transaction, so
+ * many callers share a single commit. Each caller's future is completed with its own result once the batch commits.
+ * If the batch transaction fails, its operations are replayed one by one so a single bad operation cannot fail the
+ * others.
+ */
+@Slf4j
+@Component
+public class GroupCommitBatcher {
+
+    private final LedgerProperties.GroupCommit properties;
+    private final DataFacade dataFacade;
+    private final TransactionTemplate transactionTemplate;
+    private final BankAccountMeterRegistry meterRegistry;
+    private final BlockingQueue<PendingOperation> queue;
+
+    private volatile boolean running;
+    private Thread drainer;
+
+    public GroupCommitBatcher(LedgerProperties properties, DataFacade dataFacade, TransactionTemplate transactionTemplate,
+                              BankAccountMeterRegistry meterRegistry) {
+        this.properties = properties.getGroupCommit();
+        this.dataFacade = dataFacade;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.queue = new ArrayBlockingQueue<>(this.properties.getQueueCapacity());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        drainer = new Thread(this::drain, "ledger-group-commit");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (drainer != null) {
+            drainer.interrupt();
+            drainer.join();
+        }
+        PendingOperation operation;
+        while ((operation = queue.poll()) != null) {
+            operation.future().completeExceptionally(new IllegalStateException("Group commit stage is shutting down"));
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public CompletableFuture<Optional<BankAccountSummary>> submit(String accountId, Money amount, TransactionType type) {
+        PendingOperation operation = new PendingOperation(accountId, amount, type, System.nanoTime(), new CompletableFuture<>());
+        if (!running || !queue.offer(operation)) {
+            // Saturated or stopped: fall back to a transaction of our own rather than blocking the caller.
+            meterRegistry.getGroupCommitBypassCounter().increment();
+            applyIndividually(operation);
+        } else if (!running && queue.remove(operation)) {
+            // stop() ran between the check and the offer and has already drained the queue, so nobody else would
+            // ever complete this operation. If the removal fails, the drainer or stop() took it and will.
+            meterRegistry.getGroupCommitBypassCounter().increment();
+            applyIndividually(operation);
+        }
+        return operation.future();
+    }
+
+    private void drain() {
+        List<PendingOperation> batch = new ArrayList<>(properties.getMaxBatchSize());
+        long windowNanos = properties.getWindow().toNanos();
+        while (running) {
+            try {
+                PendingOperation first = queue.take();
+                batch.add(first);
+                long deadline = first.enqueuedAt() + windowNanos;
+                while (batch.size() < properties.getMaxBatchSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    // Past the deadline we still take whatever is already queued, which keeps batches large under load.
+                    PendingOperation next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    void flush(List<PendingOperation> batch) {
+        long flushStart = System.nanoTime();
+        meterRegistry.getGroupCommitBatchSizeSummary().record(batch.size());
+        meterRegistry.getGroupCommitWindowTimer().record(flushStart - batch.get(0).enqueuedAt(), TimeUnit.NANOSECONDS);
+
+        // Row locks are taken in accountId order so concurrent batches cannot deadlock; the sort is stable, so
+        // operations on the same account keep their arrival order.
+        List<PendingOperation> ordered = new ArrayList<>(batch);
+        ordered.sort(Comparator.comparing(PendingOperation::accountId));
+
+        List<Optional<BankAccountSummary>> results;
+        try {
+            results = transactionTemplate.execute(status -> ordered.stream().map(this::apply).toList());
+        } catch (RuntimeException e) {
+            log.warn("GroupCommitBatcher.flush(batch) - batch failed, replaying operations individually. size: {}", batch.size(), e);
+            meterRegistry.getGroupCommitFallbackCounter().increment();
+            ordered.forEach(this::applyIndividually);
+            recordAddedLatency(batch, flushStart);
+            return;
+        }
+
+        for (int i = 0; i < ordered.size(); i++) {
+            ordered.get(i).future().complete(results.get(i));
+        }
+        recordAddedLatency(batch, flushStart);
+    }
+
+    private void applyIndividually(PendingOperation operation) {
+        try {
+            operation.future().complete(transactionTemplate.execute(status -> apply(operation)));
+        } catch (RuntimeException e) {
+            operation.future().completeExceptionally(e);
+        }
+    }
+
+    private Optional<BankAccountSummary> apply(PendingOperation operation) {
+        return dataFacade.applyTransaction(operation.accountId(), operation.amount(), operation.type());
+    }
+
+    // Time an operation spent queued waiting for its batch, i.e. the latency group commit adds.
+    private void recordAddedLatency(List<PendingOperation> batch, long flushStart) {
+        batch.forEach(operation -> meterRegistry.getGroupCommitAddedLatencyTimer()
+                .record(flushStart - operation.enqueuedAt(), TimeUnit.NANOSECONDS));
+    }
+
+    record PendingOperation(String accountId, Money amount, TransactionType type, long enqueuedAt,
+                            CompletableFuture<Optional<BankAccountSummary>> future) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.mlustig.bank_management.concurrency;
+
+import com.mlustig.bank_management.config.LedgerProperties;
+import com.mlustig.bank_management.enums.ConcurrencyMode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+@Component
+@RequiredArgsConstructor
+public class LedgerConcurrency {
+
+    private final LedgerProperties properties;
+    private final AccountLocks accountLocks;
+    private final OptimisticRetry optimisticRetry;
+
+    // For the guarded balance UPDATE. It checks the balance in the statement itself and cannot hit a version
+    // conflict, so it is not retried.
+    public <T> T mutate(String accountId, Supplier<T> mutation) {
+        return serialized(accountId, mutation);
+    }
+
+    // For read-modify-write paths on the versioned entity. Each attempt takes the account lock on its own, so the
+    // backoff between attempts never holds a stripe that other accounts are waiting on.
+    public <T> T mutateVersioned(String accountId, Supplier<T> mutation) {
+        return optimisticRetry.execute(() -> serialized(accountId, mutation));
+    }
+
+    private <T> T serialized(String accountId, Supplier<T> mutation) {
+        if (properties.getConcurrencyMode() == ConcurrencyMode.OPTIMISTIC) {
+            return mutation.get();
+        }
+        return accountLocks.withAccountLock(accountId, mutation);
+    }
+}
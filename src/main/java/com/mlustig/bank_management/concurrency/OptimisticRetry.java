@@ -0,0 +1,60 @@
+package com.mlustig.bank_management.concurrency;
+
+import com.mlustig.bank_management.config.LedgerProperties;
+import com.mlustig.bank_management.metrics.BankAccountMeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class OptimisticRetry {
+
+    private final LedgerProperties.Retry properties;
+    private final BankAccountMeterRegistry meterRegistry;
+
+    public OptimisticRetry(LedgerProperties properties, BankAccountMeterRegistry meterRegistry) {
+        this.properties = properties.getRetry();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                meterRegistry.getOptimisticLockConflictCounter().increment();
+                if (attempt >= properties.getMaxAttempts()) {
+                    meterRegistry.getOptimisticLockExhaustedCounter().increment();
+                    throw e;
+                }
+                log.debug("OptimisticRetry.execute(action) - version conflict, retrying. attempt: {}", attempt);
+                meterRegistry.getOptimisticLockRetryCounter().increment();
+                if (!backoff(attempt++)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // Full jitter: sleep a random time up to the exponential backoff ceiling.
+    private boolean backoff(int attempt) {
+        long initial = properties.getInitialBackoff().toMillis();
+        long ceiling = Math.min(properties.getMaxBackoff().toMillis(), initial << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
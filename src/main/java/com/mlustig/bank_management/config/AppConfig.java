@@ -1,13 +1,33 @@
 package com.mlustig.bank_management.config;
 
+import com.mlustig.bank_management.generators.IdSequenceInitializer;
 import com.mlustig.bank_management.mappers.BankAccountMapper;
+import com.mlustig.bank_management.mappers.TransactionMapper;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
+@EnableScheduling
+@EnableConfigurationProperties({LedgerProperties.class, HistoryProperties.class, CacheProperties.class,
+        IdempotencyProperties.class, SnapshotProperties.class, PartitionProperties.class,
+        ImportProperties.class, DbStatisticsProperties.class, LoggingProperties.class})
 public class AppConfig {
     @Bean
     public BankAccountMapper bankAccountMapper() {
         return BankAccountMapper.INSTANCE;
     }
+
+    @Bean
+    public TransactionMapper transactionMapper() {
+        return TransactionMapper.INSTANCE;
+    }
+
+    // Hibernate checks the sequence increments when the entity manager factory starts, so they are fixed up first.
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor idSequencesBeforeEntityManagerFactory() {
+        return new EntityManagerFactoryDependsOnPostProcessor(IdSequenceInitializer.class);
+    }
 }
@@ -0,0 +1,24 @@
+package com.mlustig.bank_management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bank-management.cache")
+public class CacheProperties {
+
+    private boolean enabled = true;
+
+    private long maximumSize = 100_000;
+
+    // Upper bound on staleness if an invalidation is ever lost.
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+    private String channel = "bank_account_changed";
+
+    private Duration pollTimeout = Duration.ofSeconds(1);
+
+    private Duration reconnectBackoff = Duration.ofSeconds(5);
+}
@@ -0,0 +1,16 @@
+package com.mlustig.bank_management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "bank-management.db-statistics")
+public class DbStatisticsProperties {
+
+    // Counts statements, rows, entity loads and JDBC time per HTTP request and records them as metrics. Off by
+    // default: it proxies every JDBC connection, statement and result set.
+    private boolean enabled = false;
+
+    // Also reports the counts on each response, as X-Db-* headers and a Server-Timing entry.
+    private boolean responseHeaders = false;
+}
@@ -0,0 +1,23 @@
+package com.mlustig.bank_management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bank-management.history")
+public class HistoryProperties {
+
+    private int defaultPageSize = 50;
+
+    private int maxPageSize = 500;
+
+    // Pages whose newest possible row is older than this are no longer written to and may be cached.
+    private Duration settleWindow = Duration.ofMinutes(5);
+
+    private Duration immutableMaxAge = Duration.ofDays(30);
+
+    // Rows fetched per round trip by the export cursor; memory per export stays at about this many rows.
+    private int exportFetchSize = 1000;
+}
@@ -0,0 +1,21 @@
+package com.mlustig.bank_management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bank-management.idempotency")
+public class IdempotencyProperties {
+
+    // How long a key is remembered; a retry after that is executed again.
+    private Duration expireAfter = Duration.ofHours(24);
+
+    // Entries kept in memory. Keys evicted from memory are still found in the database until they expire.
+    private long maximumSize = 100_000;
+
+    private int maximumKeyLength = 255;
+
+    private Duration purgeInterval = Duration.ofHours(1);
+}
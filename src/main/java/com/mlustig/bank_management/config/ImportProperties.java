@@ -0,0 +1,20 @@
+package com.mlustig.bank_management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "bank-management.import")
+public class ImportProperties {
+
+    // When set, the file is imported at startup and the application exits; see AccountImportRunner.
+    private String file;
+
+    // Records per COPY and per transaction. A batch the database rejects is retried record by record.
+    private int batchSize = 5000;
+
+    // Threads parsing and validating batches while the previous batch is being loaded.
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    private int maxReportedRejections = 1000;
+}
@@ -0,0 +1,44 @@
+package com.mlustig.bank_management.config;
+
+import com.mlustig.bank_management.enums.ConcurrencyMode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+@Data
+@ConfigurationProperties(prefix = "bank-management.ledger")
+public class LedgerProperties {
+
+    private int lockStripes = 64;
+
+    private ConcurrencyMode concurrencyMode = ConcurrencyMode.STRIPED;
+
+    private Retry retry = new Retry();
+
+    private GroupCommit groupCommit = new GroupCommit();
+
+    @Data
+    public static class Retry {
+
+        private int maxAttempts = 3;
+
+        private Duration initialBackoff = Duration.ofMillis(10);
+
+        private Duration maxBackoff = Duration.ofMillis(200);
+    }
+
+    @Data
+    public static class GroupCommit {
+
+        private boolean enabled = false;
+
+        private int maxBatchSize = 64;
+
+        // How long the first operation of a batch may wait for company before the batch is flushed.
+        private Duration window = Duration.of(500, ChronoUnit.MICROS);
+
+        private int queueCapacity = 10_000;
+    }
+}
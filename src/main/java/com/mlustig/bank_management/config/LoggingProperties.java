@@ -0,0 +1,28 @@
+package com.mlustig.bank_management.config;
+
+import com.mlustig.bank_management.logging.EventOutcome;
+import lombok.Data;
+import org.slf4j.event.Level;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "bank-management.logging")
+public class LoggingProperties {
+
+    // Capacity of the async appender queue, read by logback-spring.xml. A full queue drops events instead of
+    // blocking the request thread.
+    private int queueSize = 8192;
+
+    // Share of events kept per category, from 0 to 1. Categories not listed are always logged; rejections and
+    // failures are never sampled out.
+    private Map<String, Double> sampling = new HashMap<>();
+
+    private Map<EventOutcome, Level> outcomeLevels = new EnumMap<>(Map.of(
+            EventOutcome.SUCCESS, Level.INFO,
+            EventOutcome.REJECTED, Level.INFO,
+            EventOutcome.FAILED, Level.ERROR));
+}
@@ -0,0 +1,21 @@
+package com.mlustig.bank_management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bank-management.partitioning")
+public class PartitionProperties {
+
+    private boolean enabled = true;
+
+    // Monthly partitions kept ready beyond the current month, so inserts never wait for one to be created.
+    private int monthsAhead = 3;
+
+    // Months kept attached before the current one; older partitions are detached, not dropped. 0 keeps everything.
+    private int retentionMonths = 0;
+
+    private Duration interval = Duration.ofHours(6);
+}
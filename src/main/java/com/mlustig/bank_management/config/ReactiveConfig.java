@@ -0,0 +1,51 @@
+package com.mlustig.bank_management.config;
+
+import com.mlustig.bank_management.money.MoneyR2dbcConverters;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.config.AbstractR2dbcConfiguration;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import java.util.List;
+
+// The R2DBC auto-configuration is excluded in BankManagementApplication: the blocking profile has no R2DBC URL, and
+// an auto-configured ReactiveTransactionManager would make the JPA transaction manager back off. The reactive
+// profile wires the connection factory here and keeps its transaction manager private to the operator.
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(R2dbcProperties.class)
+@EnableR2dbcRepositories(basePackages = "com.mlustig.bank_management.repositories.reactive")
+public class ReactiveConfig extends AbstractR2dbcConfiguration {
+
+    private final R2dbcProperties properties;
+
+    public ReactiveConfig(R2dbcProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    @Override
+    public ConnectionFactory connectionFactory() {
+        return ConnectionFactoryBuilder.withUrl(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+    }
+
+    @Override
+    protected List<Object> getCustomConverters() {
+        return MoneyR2dbcConverters.all();
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
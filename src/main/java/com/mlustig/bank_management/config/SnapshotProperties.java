@@ -0,0 +1,21 @@
+package com.mlustig.bank_management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bank-management.snapshots")
+public class SnapshotProperties {
+
+    private boolean enabled = true;
+
+    private Duration interval = Duration.ofMinutes(15);
+
+    // A day is snapshotted only once it ended this long ago, so that transactions still committing are included.
+    private Duration settleWindow = Duration.ofMinutes(5);
+
+    // Upper bound on days built per run; a long backlog is worked off over several runs.
+    private int maxDaysPerRun = 31;
+}
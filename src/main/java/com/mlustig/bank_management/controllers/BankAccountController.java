@@ -1,89 +1,196 @@
 package com.mlustig.bank_management.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mlustig.bank_management.config.HistoryProperties;
+import com.mlustig.bank_management.dto.BalanceDto;
+import com.mlustig.bank_management.dto.AccountImportDto;
 import com.mlustig.bank_management.dto.BankAccountDto;
-import com.mlustig.bank_management.metrics.BankAccountMeterRegistry;
+import com.mlustig.bank_management.dto.BatchTransactionDto;
+import com.mlustig.bank_management.dto.HistoricalBalanceDto;
+import com.mlustig.bank_management.dto.LedgerResult;
+import com.mlustig.bank_management.dto.TransactionPageDto;
+import com.mlustig.bank_management.dto.TransferDto;
+import com.mlustig.bank_management.enums.ExportFormat;
+import com.mlustig.bank_management.enums.ImportFormat;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.exceptions.RejectionReporter;
+import com.mlustig.bank_management.metrics.Measured;
+import com.mlustig.bank_management.requests.BatchTransactionRequest;
 import com.mlustig.bank_management.requests.TransactionRequest;
+import com.mlustig.bank_management.requests.TransferRequest;
+import com.mlustig.bank_management.services.AccountImportService;
 import com.mlustig.bank_management.services.BankAccountService;
+import com.mlustig.bank_management.services.BatchTransactionService;
+import com.mlustig.bank_management.services.TransactionExportService;
+import com.mlustig.bank_management.services.TransactionHistoryService;
+import com.mlustig.bank_management.services.TransferService;
+import com.mlustig.bank_management.utils.AccountFieldset;
 import com.mlustig.bank_management.utils.ControllerHelper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.Set;
 
+@Profile("!reactive")
+@Measured(Measured.Layer.CONTROLLER)
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/api/v1/bank-accounts")
 public class BankAccountController {
 
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final BankAccountService bankAccountService;
 
-    private final BankAccountMeterRegistry meterRegistry;
+    private final BatchTransactionService batchTransactionService;
+
+    private final TransactionHistoryService transactionHistoryService;
+
+    private final TransactionExportService transactionExportService;
+
+    private final AccountImportService accountImportService;
+
+    private final TransferService transferService;
+
+    private final HistoryProperties historyProperties;
+
+    private final ObjectMapper objectMapper;
+
+    private final RejectionReporter rejectionReporter;
 
     @GetMapping("/{accountId}")
-    public ResponseEntity<BankAccountDto> getAccountInfo(@PathVariable("accountId") String accountId) {
-        return meterRegistry.getGetAccountInfoTimer().record(() -> {
-            meterRegistry.getGetAccountInfoCounter().increment();
-            Optional<BankAccountDto> accountInfo = bankAccountService.getAccountInfo(accountId);
-            return ResponseEntity.ok(accountInfo.get());
-        });
+    public ResponseEntity<Object> getAccountInfo(@PathVariable("accountId") String accountId,
+                                                 @RequestParam(name = "fields", required = false) Set<String> fields,
+                                                 @RequestParam(name = "include", required = false) Set<String> include) {
+        AccountFieldset fieldset = AccountFieldset.of(fields, include);
+        Optional<BankAccountDto> accountInfo = bankAccountService.getAccountInfo(accountId, fieldset.includesTransactions());
+        return ResponseEntity.ok(fieldset.render(accountInfo.get(), objectMapper));
+    }
+
+    @GetMapping("/{accountId}/balance")
+    public ResponseEntity<Object> getBalance(
+            @PathVariable("accountId") String accountId,
+            @RequestParam(name = "asOf", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        if (asOf != null) {
+            Optional<HistoricalBalanceDto> balance = bankAccountService.getBalance(accountId, asOf);
+            return ResponseEntity.ok(balance.get());
+        }
+        Optional<BalanceDto> balance = bankAccountService.getBalance(accountId);
+        return ResponseEntity.ok(balance.get());
+    }
+
+    @GetMapping("/{accountId}/transactions")
+    public ResponseEntity<TransactionPageDto> getTransactions(
+            @PathVariable("accountId") String accountId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "type", required = false) TransactionType type,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        TransactionPageDto page = transactionHistoryService.getTransactions(accountId, cursor, limit, type, from, to);
+        CacheControl cacheControl = page.immutable()
+                ? CacheControl.maxAge(historyProperties.getImmutableMaxAge()).cachePublic()
+                : CacheControl.noCache();
+        return ResponseEntity.ok().cacheControl(cacheControl).body(page);
+    }
+
+    // The body is written after this method returns; the streaming itself is timed on TransactionExportService.export.
+    @GetMapping("/{accountId}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @PathVariable("accountId") String accountId,
+            @RequestParam(name = "format", defaultValue = "csv") String format,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        Long bankAccountId = transactionExportService.findBankAccountId(accountId);
+        boolean gzip = ControllerHelper.acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = out -> transactionExportService.export(bankAccountId, exportFormat, gzip, out);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(accountId + "-transactions." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .cacheControl(CacheControl.noStore());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     @PostMapping
     public ResponseEntity<BankAccountDto> createAccount(@Valid @RequestBody BankAccountDto bankAccountDto) {
-        return meterRegistry.getCreateAccountTimer().record(() -> {
-            meterRegistry.getCreateAccountCounter().increment();
-            return bankAccountService.createAccount(bankAccountDto)
-                    .map(dto -> ResponseEntity.created(ControllerHelper.getLocation()).body(dto))
-                    .orElseThrow(() -> new IllegalArgumentException("Invalid bank account data"));
-        });
+        return bankAccountService.createAccount(bankAccountDto)
+                .map(dto -> ResponseEntity.created(ControllerHelper.getLocation()).body(dto))
+                .orElseThrow(() -> new IllegalArgumentException("Invalid bank account data"));
+    }
+
+    // The body is read as a stream; rejected records are reported in the response and do not stop the import.
+    @PostMapping("/import")
+    public ResponseEntity<AccountImportDto> importAccounts(@RequestParam(name = "format", defaultValue = "csv") String format,
+                                                           InputStream body) {
+        return ResponseEntity.ok(accountImportService.importAccounts(body, ImportFormat.fromParameter(format)));
     }
 
     @DeleteMapping("/{accountId}")
     public ResponseEntity<Void> deleteBankAccount(@PathVariable("accountId") String accountId) {
-        return meterRegistry.getDeleteBankAccountTimer().record(() -> {
-            meterRegistry.getDeleteBankAccountCounter().increment();
-            bankAccountService.deleteBankAccountByAccountId(accountId);
-            return ResponseEntity.noContent().build();
-        });
+        bankAccountService.deleteBankAccountByAccountId(accountId);
+        return ResponseEntity.noContent().build();
     }
 
     @PutMapping("/{accountId}/activate")
     public ResponseEntity<BankAccountDto> activateAccount(@PathVariable("accountId") String accountId) {
-        return meterRegistry.getActivateAccountTimer().record(() -> {
-            meterRegistry.getActivateAccountCounter().increment();
-            Optional<BankAccountDto> activatedAccount = bankAccountService.activateAccount(accountId);
-            return ResponseEntity.ok(activatedAccount.get());
-        });
+        Optional<BankAccountDto> activatedAccount = bankAccountService.activateAccount(accountId);
+        return ResponseEntity.ok(activatedAccount.get());
     }
 
     @PutMapping("/{accountId}/deactivate")
     public ResponseEntity<BankAccountDto> deactivateAccount(@PathVariable("accountId") String accountId) {
-        return meterRegistry.getDeactivateAccountTimer().record(() -> {
-            meterRegistry.getDeactivateAccountCounter().increment();
-            Optional<BankAccountDto> deactivatedAccount = bankAccountService.deactivateAccount(accountId);
-            return ResponseEntity.ok(deactivatedAccount.get());
-        });
+        Optional<BankAccountDto> deactivatedAccount = bankAccountService.deactivateAccount(accountId);
+        return ResponseEntity.ok(deactivatedAccount.get());
     }
 
     @PostMapping("/deposit")
-    public ResponseEntity<BankAccountDto> makeDeposit(@Valid @RequestBody TransactionRequest transaction) {
-        return meterRegistry.getMakeDepositTimer().record(() -> {
-            meterRegistry.getMakeDepositCounter().increment();
-            Optional<BankAccountDto> updatedAccount =
-                    bankAccountService.makeDeposit(transaction.accountId(), transaction.amount());
-            return ResponseEntity.ok(updatedAccount.get());
-        });
+    public ResponseEntity<Object> makeDeposit(@Valid @RequestBody TransactionRequest transaction,
+                                              @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                              HttpServletRequest request) {
+        return toResponse(bankAccountService.deposit(transaction.accountId(), transaction.amount(), idempotencyKey), request);
     }
 
     @PostMapping("/withdraw")
-    public ResponseEntity<BankAccountDto> makeWithdraw(@Valid @RequestBody TransactionRequest transaction) {
-        return meterRegistry.getMakeWithdrawTimer().record(() -> {
-            meterRegistry.getMakeWithdrawCounter().increment();
-            Optional<BankAccountDto> updatedAccount =
-                    bankAccountService.makeWithdraw(transaction.accountId(), transaction.amount());
-            return ResponseEntity.ok(updatedAccount.get());
-        });
+    public ResponseEntity<Object> makeWithdraw(@Valid @RequestBody TransactionRequest transaction,
+                                               @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                               HttpServletRequest request) {
+        return toResponse(bankAccountService.withdraw(transaction.accountId(), transaction.amount(), idempotencyKey), request);
+    }
+
+    // A decline gets the same status and body the exception handlers produce for it.
+    private ResponseEntity<Object> toResponse(LedgerResult result, HttpServletRequest request) {
+        return result.fold(ResponseEntity::ok, reason -> ResponseEntity.status(reason.getStatus())
+                .body(rejectionReporter.report(reason, request.getRequestURI())));
+    }
+
+    @PostMapping("/transfer")
+    public ResponseEntity<TransferDto> transfer(@Valid @RequestBody TransferRequest transfer) {
+        return ResponseEntity.ok(transferService.transfer(transfer.fromAccountId(), transfer.toAccountId(), transfer.amount()));
+    }
+
+    @PostMapping("/transactions/batch")
+    public ResponseEntity<BatchTransactionDto> applyBatch(@Valid @RequestBody BatchTransactionRequest request) {
+        return ResponseEntity.ok(batchTransactionService.applyBatch(request));
     }
-}
\ No newline at end of file
+}
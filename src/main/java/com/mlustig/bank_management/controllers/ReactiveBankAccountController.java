@@ -0,0 +1,78 @@
+package com.mlustig.bank_management.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mlustig.bank_management.dto.BalanceDto;
+import com.mlustig.bank_management.dto.BankAccountDto;
+import com.mlustig.bank_management.metrics.Measured;
+import com.mlustig.bank_management.requests.TransactionRequest;
+import com.mlustig.bank_management.services.ReactiveBankAccountService;
+import com.mlustig.bank_management.utils.AccountFieldset;
+import com.mlustig.bank_management.utils.ControllerHelper;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+// Non-blocking variant of BankAccountController, served by WebFlux when the "reactive" profile is active.
+@Profile("reactive")
+@Measured(Measured.Layer.CONTROLLER)
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/v1/bank-accounts")
+public class ReactiveBankAccountController {
+
+    private final ReactiveBankAccountService bankAccountService;
+
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/{accountId}")
+    public Mono<ResponseEntity<Object>> getAccountInfo(@PathVariable("accountId") String accountId,
+                                                       @RequestParam(name = "fields", required = false) Set<String> fields,
+                                                       @RequestParam(name = "include", required = false) Set<String> include) {
+        AccountFieldset fieldset = AccountFieldset.of(fields, include);
+        return bankAccountService.getAccountInfo(accountId, fieldset.includesTransactions())
+                .map(accountInfo -> ResponseEntity.ok(fieldset.render(accountInfo, objectMapper)));
+    }
+
+    @GetMapping("/{accountId}/balance")
+    public Mono<ResponseEntity<BalanceDto>> getBalance(@PathVariable("accountId") String accountId) {
+        return bankAccountService.getBalance(accountId).map(ResponseEntity::ok);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<BankAccountDto>> createAccount(@Valid @RequestBody BankAccountDto bankAccountDto) {
+        return bankAccountService.createAccount(bankAccountDto)
+                .map(dto -> ResponseEntity.created(ControllerHelper.getLocation()).body(dto))
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Invalid bank account data")));
+    }
+
+    @DeleteMapping("/{accountId}")
+    public Mono<ResponseEntity<Void>> deleteBankAccount(@PathVariable("accountId") String accountId) {
+        return bankAccountService.deleteBankAccountByAccountId(accountId)
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+
+    @PutMapping("/{accountId}/activate")
+    public Mono<ResponseEntity<BankAccountDto>> activateAccount(@PathVariable("accountId") String accountId) {
+        return bankAccountService.activateAccount(accountId).map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/{accountId}/deactivate")
+    public Mono<ResponseEntity<BankAccountDto>> deactivateAccount(@PathVariable("accountId") String accountId) {
+        return bankAccountService.deactivateAccount(accountId).map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/deposit")
+    public Mono<ResponseEntity<BankAccountDto>> makeDeposit(@Valid @RequestBody TransactionRequest transaction) {
+        return bankAccountService.makeDeposit(transaction.accountId(), transaction.amount()).map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/withdraw")
+    public Mono<ResponseEntity<BankAccountDto>> makeWithdraw(@Valid @RequestBody TransactionRequest transaction) {
+        return bankAccountService.makeWithdraw(transaction.accountId(), transaction.amount()).map(ResponseEntity::ok);
+    }
+}
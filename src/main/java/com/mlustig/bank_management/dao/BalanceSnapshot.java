@@ -0,0 +1,47 @@
+package com.mlustig.bank_management.dao;
+
+import com.mlustig.bank_management.money.Money;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// Closing balance of an account at the end of a day on which it had transactions. Days without activity have no
+// row, so the gap between a snapshot and any later point in time holds at most one day of transactions.
+@Builder
+@NoArgsConstructor(force = true)
+@AllArgsConstructor
+@Data
+@Entity
+@IdClass(BalanceSnapshot.Key.class)
+@Table(name = "balance_snapshot")
+public class BalanceSnapshot {
+
+    @Id
+    @NonNull
+    @Column(nullable = false)
+    private Long bankAccountId;
+
+    @Id
+    @NonNull
+    @Column(nullable = false)
+    private LocalDate snapshotDate;
+
+    @NonNull
+    @Column(nullable = false)
+    private Money balance;
+
+    @Column(nullable = false)
+    private int transactionCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private Long bankAccountId;
+
+        private LocalDate snapshotDate;
+    }
+}
@@ -1,10 +1,14 @@
 package com.mlustig.bank_management.dao;
 
+import com.mlustig.bank_management.money.Money;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
-import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,10 +23,10 @@ import java.util.List;
 public class BankAccount {
 
     @Id
-    @SequenceGenerator(
+    @GenericGenerator(
             name = "bank_account_id_sequence",
-            sequenceName = "bank_account_id_sequence",
-            allocationSize = 1
+            strategy = "com.mlustig.bank_management.generators.PooledSequenceGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "bank_account_id_sequence")
     )
     @GeneratedValue(
             strategy = GenerationType.SEQUENCE,
@@ -43,13 +47,19 @@ public class BankAccount {
     @Column(nullable = false)
     private String lastName;
 
-    private BigDecimal balance;
+    private Money balance;
 
-    private BigDecimal minimumBalance;
+    private Money minimumBalance;
 
     private boolean active;
 
-    @OneToMany(mappedBy = "bankAccountId", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @OrderBy("createdAt ASC, id ASC")
+    @OneToMany(mappedBy = "bankAccountId", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Transaction> transactions;
 
     @Builder.Default
@@ -0,0 +1,22 @@
+package com.mlustig.bank_management.dao;
+
+import com.mlustig.bank_management.money.Money;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+// R2DBC view of the bank_account table used by the reactive profile. BankAccount stays the JPA mapping.
+@Table("bank_account")
+public record BankAccountRow(
+        @Id Long id,
+        String accountId,
+        String firstName,
+        String lastName,
+        Money balance,
+        Money minimumBalance,
+        boolean active,
+        Long version,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
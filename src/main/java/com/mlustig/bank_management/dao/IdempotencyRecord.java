@@ -0,0 +1,50 @@
+package com.mlustig.bank_management.dao;
+
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.money.Money;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Builder
+@NoArgsConstructor(force = true)
+@AllArgsConstructor
+@Data
+@Entity
+@Table(name = "idempotency_record", indexes = @Index(
+        name = "idempotency_record_expires_at_idx",
+        columnList = "expires_at"))
+public class IdempotencyRecord {
+
+    @Id
+    @NonNull
+    @Column(nullable = false)
+    private String idempotencyKey;
+
+    @NonNull
+    @Column(nullable = false)
+    private String accountId;
+
+    @NonNull
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private TransactionType type;
+
+    @NonNull
+    @Column(nullable = false)
+    private Money amount;
+
+    // The JSON body returned to the first request, replayed verbatim for retries.
+    @NonNull
+    @Column(nullable = false, columnDefinition = "text")
+    private String response;
+
+    @NonNull
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @NonNull
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
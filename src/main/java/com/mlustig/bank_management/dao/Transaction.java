@@ -1,13 +1,17 @@
 package com.mlustig.bank_management.dao;
 
 import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.money.Money;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
-import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Builder
 @Accessors(chain = true)
@@ -15,14 +19,16 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Data
 @Entity
-@Table(name = "transaction")
+@Table(name = "transaction", indexes = {
+        @Index(name = "transaction_account_created_at_id_idx", columnList = "bank_account_id, created_at DESC, id DESC"),
+        @Index(name = "transaction_created_at_idx", columnList = "created_at")})
 public class Transaction {
 
     @Id
-    @SequenceGenerator(
+    @GenericGenerator(
             name = "transaction_id_sequence",
-            sequenceName = "transaction_id_sequence",
-            allocationSize = 1
+            strategy = "com.mlustig.bank_management.generators.PooledSequenceGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "transaction_id_sequence")
     )
     @GeneratedValue(
             strategy = GenerationType.SEQUENCE,
@@ -37,13 +43,16 @@ public class Transaction {
 
     @NonNull
     @Column(nullable = false)
-    private BigDecimal amount;
+    private Money amount;
 
     @NonNull
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
     private TransactionType type;
 
+    // Shared by the two legs of a transfer; null for deposits and withdrawals.
+    private UUID transferId;
+
     @Builder.Default
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now(Clock.systemDefaultZone());
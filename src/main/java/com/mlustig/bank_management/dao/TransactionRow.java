@@ -0,0 +1,18 @@
+package com.mlustig.bank_management.dao;
+
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.money.Money;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+// R2DBC view of the transaction table used by the reactive profile. Transaction stays the JPA mapping.
+@Table("transaction")
+public record TransactionRow(
+        @Id Long id,
+        Long bankAccountId,
+        Money amount,
+        TransactionType type,
+        LocalDateTime createdAt) {
+}
@@ -0,0 +1,11 @@
+package com.mlustig.bank_management.dto;
+
+import java.util.List;
+
+// rejections holds at most bank-management.import.max-reported-rejections entries; rejected is the full count.
+public record AccountImportDto(
+        int received,
+        int imported,
+        int rejected,
+        List<ImportRejectionDto> rejections) {
+}
@@ -0,0 +1,11 @@
+package com.mlustig.bank_management.dto;
+
+import com.mlustig.bank_management.money.Money;
+import lombok.NonNull;
+
+public record BalanceDto(
+        @NonNull String accountId,
+        @NonNull Money balance,
+        @NonNull Money minimumBalance,
+        boolean active) {
+}
@@ -1,17 +1,17 @@
 package com.mlustig.bank_management.dto;
 
-import jakarta.validation.constraints.Email;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.validators.AccountId;
 import lombok.NonNull;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 public record BankAccountDto(
-        @Email(message = "Invalid email format") @NonNull String accountId,
+        @AccountId @NonNull String accountId,
         @NonNull String firstName,
         @NonNull String lastName,
-        @NonNull BigDecimal balance,
-        @NonNull BigDecimal minimumBalance,
+        @NonNull Money balance,
+        @NonNull Money minimumBalance,
         boolean active,
         List<TransactionDto> transactions) {
 
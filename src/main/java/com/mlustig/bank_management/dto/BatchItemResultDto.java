@@ -0,0 +1,15 @@
+package com.mlustig.bank_management.dto;
+
+import com.mlustig.bank_management.enums.BatchItemStatus;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.money.Money;
+
+public record BatchItemResultDto(
+        int index,
+        String accountId,
+        TransactionType type,
+        Money amount,
+        BatchItemStatus status,
+        String message,
+        Money balance) {
+}
@@ -0,0 +1,11 @@
+package com.mlustig.bank_management.dto;
+
+import com.mlustig.bank_management.enums.BatchMode;
+
+import java.util.List;
+
+public record BatchTransactionDto(
+        BatchMode mode,
+        boolean committed,
+        List<BatchItemResultDto> results) {
+}
@@ -0,0 +1,12 @@
+package com.mlustig.bank_management.dto;
+
+import com.mlustig.bank_management.money.Money;
+import lombok.NonNull;
+
+import java.time.LocalDateTime;
+
+public record HistoricalBalanceDto(
+        @NonNull String accountId,
+        @NonNull Money balance,
+        @NonNull LocalDateTime asOf) {
+}
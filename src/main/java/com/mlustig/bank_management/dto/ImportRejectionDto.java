@@ -0,0 +1,7 @@
+package com.mlustig.bank_management.dto;
+
+public record ImportRejectionDto(
+        int line,
+        String accountId,
+        String reason) {
+}
@@ -0,0 +1,35 @@
+package com.mlustig.bank_management.dto;
+
+import com.mlustig.bank_management.enums.RejectionReason;
+
+import java.util.function.Function;
+
+// Outcome of a deposit or withdrawal. Declines are ordinary results here rather than exceptions, so a run of
+// declined withdrawals costs no more than the successful ones.
+public sealed interface LedgerResult {
+
+    record Applied(BankAccountDto account) implements LedgerResult {
+
+        @Override
+        public <T> T fold(Function<BankAccountDto, T> onApplied, Function<RejectionReason, T> onDeclined) {
+            return onApplied.apply(account);
+        }
+    }
+
+    record Declined(RejectionReason reason) implements LedgerResult {
+
+        @Override
+        public <T> T fold(Function<BankAccountDto, T> onApplied, Function<RejectionReason, T> onDeclined) {
+            return onDeclined.apply(reason);
+        }
+    }
+
+    // Exhaustive over both cases without casts, until pattern matching for switch is available.
+    <T> T fold(Function<BankAccountDto, T> onApplied, Function<RejectionReason, T> onDeclined);
+
+    default BankAccountDto orElseThrow() {
+        return fold(Function.identity(), reason -> {
+            throw reason.toException();
+        });
+    }
+}
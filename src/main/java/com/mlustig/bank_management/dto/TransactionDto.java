@@ -1,13 +1,13 @@
 package com.mlustig.bank_management.dto;
 
 import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.money.Money;
 import lombok.NonNull;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 public record TransactionDto(
-        @NonNull BigDecimal amount,
+        @NonNull Money amount,
         @NonNull TransactionType type,
         @NonNull LocalDateTime createdAt) {
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.mlustig.bank_management.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+public record TransactionPageDto(
+        List<TransactionDto> transactions,
+        String nextCursor,
+        @JsonIgnore boolean immutable) {
+}
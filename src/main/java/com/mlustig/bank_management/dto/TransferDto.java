@@ -0,0 +1,13 @@
+package com.mlustig.bank_management.dto;
+
+import com.mlustig.bank_management.money.Money;
+import lombok.NonNull;
+
+import java.util.UUID;
+
+public record TransferDto(
+        @NonNull UUID transferId,
+        @NonNull Money amount,
+        @NonNull BalanceDto from,
+        @NonNull BalanceDto to) {
+}
@@ -0,0 +1,5 @@
+package com.mlustig.bank_management.enums;
+
+public enum BatchItemStatus {
+    APPLIED, REJECTED, NOT_APPLIED
+}
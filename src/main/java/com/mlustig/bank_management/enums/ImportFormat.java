@@ -0,0 +1,23 @@
+package com.mlustig.bank_management.enums;
+
+import com.mlustig.bank_management.exceptions.UnsupportedImportFormatException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ImportFormat {
+    CSV("csv"),
+    JSONL("jsonl");
+
+    private final String extension;
+
+    public static ImportFormat fromParameter(String format) {
+        for (ImportFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new UnsupportedImportFormatException(format);
+    }
+}
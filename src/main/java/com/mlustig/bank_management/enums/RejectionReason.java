@@ -0,0 +1,41 @@
+package com.mlustig.bank_management.enums;
+
+import com.mlustig.bank_management.exceptions.AccountNotFoundException;
+import com.mlustig.bank_management.exceptions.EmailValidationException;
+import com.mlustig.bank_management.exceptions.InactiveAccountException;
+import com.mlustig.bank_management.exceptions.InsufficientFundsException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+// Expected reasons for declining a request, with the status and message clients have always received for them.
+@Getter
+@RequiredArgsConstructor
+public enum RejectionReason {
+    ACCOUNT_NOT_FOUND(HttpStatus.NOT_FOUND, "Invalid bank account"),
+    INACTIVE_ACCOUNT(HttpStatus.INTERNAL_SERVER_ERROR, "Inactive bank account"),
+    INSUFFICIENT_FUNDS(HttpStatus.BAD_REQUEST, "Insufficient funds exception"),
+    INVALID_ACCOUNT_ID(HttpStatus.BAD_REQUEST, "Wrong format exception");
+
+    private final HttpStatus status;
+    private final String message;
+
+    // Recovers the reason from an error body built for it; the bodies only carry what clients have always received.
+    public static Optional<RejectionReason> forError(int statusCode, String message) {
+        return Arrays.stream(values())
+                .filter(reason -> reason.status.value() == statusCode && reason.message.equals(message))
+                .findFirst();
+    }
+
+    public RuntimeException toException() {
+        return switch (this) {
+            case ACCOUNT_NOT_FOUND -> new AccountNotFoundException();
+            case INACTIVE_ACCOUNT -> new InactiveAccountException();
+            case INSUFFICIENT_FUNDS -> new InsufficientFundsException();
+            case INVALID_ACCOUNT_ID -> new EmailValidationException();
+        };
+    }
+}
@@ -1,5 +1,9 @@
 package com.mlustig.bank_management.enums;
 
 public enum TransactionType {
-    DEPOSIT, WITHDRAW
+    DEPOSIT, WITHDRAW, TRANSFER_OUT, TRANSFER_IN;
+
+    public boolean isDebit() {
+        return this == WITHDRAW || this == TRANSFER_OUT;
+    }
 }
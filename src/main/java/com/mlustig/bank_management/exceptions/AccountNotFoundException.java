@@ -0,0 +1,17 @@
+package com.mlustig.bank_management.exceptions;
+
+import com.mlustig.bank_management.enums.RejectionReason;
+import jakarta.persistence.EntityNotFoundException;
+
+// Stays an EntityNotFoundException so existing handlers and callers keep matching it. The JPA type has no
+// constructor that skips the stack trace, so filling it in is overridden instead.
+public class AccountNotFoundException extends EntityNotFoundException {
+    public AccountNotFoundException() {
+        super(RejectionReason.ACCOUNT_NOT_FOUND.getMessage());
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
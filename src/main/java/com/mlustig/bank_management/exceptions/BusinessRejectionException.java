@@ -0,0 +1,17 @@
+package com.mlustig.bank_management.exceptions;
+
+import com.mlustig.bank_management.enums.RejectionReason;
+import lombok.Getter;
+
+// Base for expected business outcomes. They are thrown on routine paths such as declined withdrawals, so no stack
+// trace is captured and suppression is off; the reason carries everything the handlers need.
+@Getter
+public abstract class BusinessRejectionException extends RuntimeException {
+
+    private final RejectionReason reason;
+
+    protected BusinessRejectionException(RejectionReason reason) {
+        super(reason.getMessage(), null, false, false);
+        this.reason = reason;
+    }
+}
@@ -1,8 +1,12 @@
 package com.mlustig.bank_management.exceptions;
 
+import com.mlustig.bank_management.enums.RejectionReason;
+import com.mlustig.bank_management.logging.EventLog;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -12,41 +16,50 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 @Slf4j
+@Profile("!reactive")
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class DefaultExceptionHandler {
 
+    private final EventLog eventLog;
+    private final RejectionReporter rejectionReporter;
+
+    @ExceptionHandler(AccountNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ApiError handleAccountNotFoundException(AccountNotFoundException e, HttpServletRequest request) {
+        return rejectionReporter.report(RejectionReason.ACCOUNT_NOT_FOUND, request.getRequestURI());
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ApiError handleEntityNotFoundException(EntityNotFoundException e, HttpServletRequest request) {
-        log.error("Unhandled exception occurred. ", e);
+        eventLog.rejected(log, e, request.getRequestURI());
         return createApiError(request, e.getMessage(), HttpStatus.NOT_FOUND.value());
     }
 
     @ExceptionHandler(InactiveAccountException.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ApiError handleInactiveAccountException(InactiveAccountException e, HttpServletRequest request) {
-        log.error("Unhandled exception occurred. ", e);
-        return createApiError(request, e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value());
+        return rejectionReporter.report(e.getReason(), request.getRequestURI());
     }
 
     @ExceptionHandler(DataIntegrityViolationException.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ApiError handleDataIntegrityViolationException(DataIntegrityViolationException e, HttpServletRequest request) {
-        log.error("Unhandled exception occurred. ", e);
+        eventLog.failed(log, e, request.getRequestURI());
         return createApiError(request, "Internal SQL error", HttpStatus.INTERNAL_SERVER_ERROR.value());
     }
 
     @ExceptionHandler(InsufficientFundsException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ApiError handleInsufficientFundsException(InsufficientFundsException e, HttpServletRequest request) {
-        log.error("Unhandled exception occurred. ", e);
-        return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
+        return rejectionReporter.report(e.getReason(), request.getRequestURI());
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ApiError handleMethodArgumentNotValidException(MethodArgumentNotValidException e, HttpServletRequest request) {
-        log.error("Unhandled exception occurred. ", e);
+        eventLog.rejected(log, e, request.getRequestURI());
         String fieldName = e.getMessage().contains("accountId") ? "accountId" : "amount";
         String errorMessage = "Request validation exception [" + "field: " + fieldName + "]";
         return createApiError(request, errorMessage, HttpStatus.BAD_REQUEST.value());
@@ -55,21 +68,69 @@ public class DefaultExceptionHandler {
     @ExceptionHandler(HttpMessageNotReadableException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ApiError handleHttpMessageNotReadableException(HttpMessageNotReadableException e, HttpServletRequest request) {
-        log.error("Unhandled exception occurred. ", e);
+        eventLog.rejected(log, e, request.getRequestURI());
         return createApiError(request, "Wrong field type exception", HttpStatus.BAD_REQUEST.value());
     }
 
+    @ExceptionHandler(SameAccountTransferException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleSameAccountTransferException(SameAccountTransferException e, HttpServletRequest request) {
+        eventLog.rejected(log, e, request.getRequestURI());
+        return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
+    }
+
     @ExceptionHandler(EmailValidationException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ApiError handleEmailValidationException(EmailValidationException e, HttpServletRequest request) {
-        log.error("Unhandled exception occurred. ", e);
+        return rejectionReporter.report(e.getReason(), request.getRequestURI());
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleInvalidCursorException(InvalidCursorException e, HttpServletRequest request) {
+        eventLog.rejected(log, e, request.getRequestURI());
         return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
     }
 
+    @ExceptionHandler(UnknownFieldException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleUnknownFieldException(UnknownFieldException e, HttpServletRequest request) {
+        eventLog.rejected(log, e, request.getRequestURI());
+        return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(UnsupportedExportFormatException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleUnsupportedExportFormatException(UnsupportedExportFormatException e, HttpServletRequest request) {
+        eventLog.rejected(log, e, request.getRequestURI());
+        return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(UnsupportedImportFormatException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleUnsupportedImportFormatException(UnsupportedImportFormatException e, HttpServletRequest request) {
+        eventLog.rejected(log, e, request.getRequestURI());
+        return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleInvalidIdempotencyKeyException(InvalidIdempotencyKeyException e, HttpServletRequest request) {
+        eventLog.rejected(log, e, request.getRequestURI());
+        return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public ApiError handleIdempotencyKeyReuseException(IdempotencyKeyReuseException e, HttpServletRequest request) {
+        eventLog.rejected(log, e, request.getRequestURI());
+        return createApiError(request, e.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY.value());
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ApiError handleExceptions(Exception e, HttpServletRequest request) {
-        log.error("Unhandled exception occurred", e);
+        eventLog.failed(log, e, request.getRequestURI());
         return createApiError(request, e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value());
     }
 
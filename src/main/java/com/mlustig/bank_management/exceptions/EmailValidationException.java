@@ -1,7 +1,9 @@
 package com.mlustig.bank_management.exceptions;
 
-public class EmailValidationException extends RuntimeException {
+import com.mlustig.bank_management.enums.RejectionReason;
+
+public class EmailValidationException extends BusinessRejectionException {
     public EmailValidationException() {
-        super("Wrong format exception");
+        super(RejectionReason.INVALID_ACCOUNT_ID);
     }
-}
\ No newline at end of file
+}
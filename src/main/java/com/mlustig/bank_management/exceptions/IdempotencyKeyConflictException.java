@@ -0,0 +1,9 @@
+package com.mlustig.bank_management.exceptions;
+
+// Raised inside the ledger transaction when another request already holds the key, so that the transaction rolls
+// back and the stored response is replayed instead.
+public class IdempotencyKeyConflictException extends RuntimeException {
+    public IdempotencyKeyConflictException(String idempotencyKey) {
+        super("Idempotency key already used: " + idempotencyKey);
+    }
+}
@@ -0,0 +1,7 @@
+package com.mlustig.bank_management.exceptions;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException() {
+        super("Idempotency key was already used for a different request");
+    }
+}
@@ -1,7 +1,9 @@
 package com.mlustig.bank_management.exceptions;
 
-public class InactiveAccountException extends RuntimeException {
+import com.mlustig.bank_management.enums.RejectionReason;
+
+public class InactiveAccountException extends BusinessRejectionException {
     public InactiveAccountException() {
-        super("Inactive bank account");
+        super(RejectionReason.INACTIVE_ACCOUNT);
     }
-}
\ No newline at end of file
+}
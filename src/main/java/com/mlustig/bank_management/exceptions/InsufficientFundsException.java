@@ -1,7 +1,9 @@
 package com.mlustig.bank_management.exceptions;
 
-public class InsufficientFundsException extends RuntimeException {
+import com.mlustig.bank_management.enums.RejectionReason;
+
+public class InsufficientFundsException extends BusinessRejectionException {
     public InsufficientFundsException() {
-        super("Insufficient funds exception");
+        super(RejectionReason.INSUFFICIENT_FUNDS);
     }
-}
\ No newline at end of file
+}
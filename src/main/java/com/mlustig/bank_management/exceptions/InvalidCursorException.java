@@ -0,0 +1,8 @@
+package com.mlustig.bank_management.exceptions;
+
+// Raised for any cursor a client sent back garbled or stale; the message says all there is, so no stack trace.
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException() {
+        super("Invalid cursor", null, false, false);
+    }
+}
@@ -0,0 +1,7 @@
+package com.mlustig.bank_management.exceptions;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(int maximumLength) {
+        super("Idempotency key must be between 1 and " + maximumLength + " characters");
+    }
+}
@@ -0,0 +1,99 @@
+package com.mlustig.bank_management.exceptions;
+
+import com.mlustig.bank_management.enums.RejectionReason;
+import com.mlustig.bank_management.logging.EventLog;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
+
+// WebFlux counterpart of DefaultExceptionHandler: same statuses and messages, resolved against the reactive request.
+@Slf4j
+@Profile("reactive")
+@RestControllerAdvice
+@RequiredArgsConstructor
+public class ReactiveExceptionHandler {
+
+    private final EventLog eventLog;
+    private final RejectionReporter rejectionReporter;
+
+    @ExceptionHandler(AccountNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ApiError handleAccountNotFoundException(AccountNotFoundException e, ServerHttpRequest request) {
+        return rejectionReporter.report(RejectionReason.ACCOUNT_NOT_FOUND, request.getPath().value());
+    }
+
+    @ExceptionHandler(EntityNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ApiError handleEntityNotFoundException(EntityNotFoundException e, ServerHttpRequest request) {
+        eventLog.rejected(log, e, request.getPath().value());
+        return createApiError(request, e.getMessage(), HttpStatus.NOT_FOUND.value());
+    }
+
+    @ExceptionHandler(InactiveAccountException.class)
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    public ApiError handleInactiveAccountException(InactiveAccountException e, ServerHttpRequest request) {
+        return rejectionReporter.report(e.getReason(), request.getPath().value());
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    public ApiError handleDataIntegrityViolationException(DataIntegrityViolationException e, ServerHttpRequest request) {
+        eventLog.failed(log, e, request.getPath().value());
+        return createApiError(request, "Internal SQL error", HttpStatus.INTERNAL_SERVER_ERROR.value());
+    }
+
+    @ExceptionHandler(InsufficientFundsException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleInsufficientFundsException(InsufficientFundsException e, ServerHttpRequest request) {
+        return rejectionReporter.report(e.getReason(), request.getPath().value());
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleWebExchangeBindException(WebExchangeBindException e, ServerHttpRequest request) {
+        eventLog.rejected(log, e, request.getPath().value());
+        String fieldName = e.getMessage().contains("accountId") ? "accountId" : "amount";
+        String errorMessage = "Request validation exception [" + "field: " + fieldName + "]";
+        return createApiError(request, errorMessage, HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleServerWebInputException(ServerWebInputException e, ServerHttpRequest request) {
+        eventLog.rejected(log, e, request.getPath().value());
+        return createApiError(request, "Wrong field type exception", HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(EmailValidationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleEmailValidationException(EmailValidationException e, ServerHttpRequest request) {
+        return rejectionReporter.report(e.getReason(), request.getPath().value());
+    }
+
+    @ExceptionHandler(UnknownFieldException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleUnknownFieldException(UnknownFieldException e, ServerHttpRequest request) {
+        eventLog.rejected(log, e, request.getPath().value());
+        return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(Exception.class)
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    public ApiError handleExceptions(Exception e, ServerHttpRequest request) {
+        eventLog.failed(log, e, request.getPath().value());
+        return createApiError(request, e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value());
+    }
+
+    private ApiError createApiError(ServerHttpRequest request, String message, int statusCode) {
+        return new ApiError(request.getPath().value(), message, statusCode);
+    }
+}
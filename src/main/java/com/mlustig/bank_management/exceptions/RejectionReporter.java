@@ -0,0 +1,25 @@
+package com.mlustig.bank_management.exceptions;
+
+import com.mlustig.bank_management.enums.RejectionReason;
+import com.mlustig.bank_management.logging.EventLog;
+import com.mlustig.bank_management.metrics.BankAccountMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+// Single place where an expected decline is counted, logged and turned into the error body, whether it reached the
+// web layer as a LedgerResult or as a BusinessRejectionException.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RejectionReporter {
+
+    private final EventLog eventLog;
+    private final BankAccountMeterRegistry meterRegistry;
+
+    public ApiError report(RejectionReason reason, String path) {
+        meterRegistry.getRejectionCounter(reason).increment();
+        eventLog.rejected(log, reason, path);
+        return new ApiError(path, reason.getMessage(), reason.getStatus().value());
+    }
+}
@@ -0,0 +1,7 @@
+package com.mlustig.bank_management.exceptions;
+
+public class SameAccountTransferException extends RuntimeException {
+    public SameAccountTransferException() {
+        super("Cannot transfer to the same bank account");
+    }
+}
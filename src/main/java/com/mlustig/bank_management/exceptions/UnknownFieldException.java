@@ -0,0 +1,7 @@
+package com.mlustig.bank_management.exceptions;
+
+public class UnknownFieldException extends RuntimeException {
+    public UnknownFieldException(String field) {
+        super("Unknown field: " + field);
+    }
+}
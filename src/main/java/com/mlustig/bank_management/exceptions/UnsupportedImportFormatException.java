@@ -0,0 +1,7 @@
+package com.mlustig.bank_management.exceptions;
+
+public class UnsupportedImportFormatException extends RuntimeException {
+    public UnsupportedImportFormatException(String format) {
+        super("Unsupported import format: " + format);
+    }
+}
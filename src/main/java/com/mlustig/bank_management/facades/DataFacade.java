@@ -1,26 +1,46 @@
 package com.mlustig.bank_management.facades;
 
+import com.mlustig.bank_management.cache.AccountCacheInvalidator;
+import com.mlustig.bank_management.cache.AccountSummaryCache;
+import com.mlustig.bank_management.dao.BalanceSnapshot;
 import com.mlustig.bank_management.dao.BankAccount;
+import com.mlustig.bank_management.dao.IdempotencyRecord;
 import com.mlustig.bank_management.dao.Transaction;
 import com.mlustig.bank_management.enums.BankAccountFields;
 import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.exceptions.IdempotencyKeyConflictException;
+import com.mlustig.bank_management.metrics.Measured;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.projections.BankAccountSummary;
+import com.mlustig.bank_management.repositories.BalanceSnapshotRepository;
 import com.mlustig.bank_management.repositories.BankAccountRepository;
+import com.mlustig.bank_management.repositories.IdempotencyRecordRepository;
 import com.mlustig.bank_management.repositories.TransactionRepository;
+import com.mlustig.bank_management.validators.AccountRules;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.util.Pair;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Component
+@Measured(Measured.Layer.FACADE)
 @Transactional
 @RequiredArgsConstructor
 public class DataFacade {
     private final BankAccountRepository bankAccountRepository;
     private final TransactionRepository transactionRepository;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final AccountSummaryCache accountSummaryCache;
+    private final AccountCacheInvalidator accountCacheInvalidator;
 
     public List<BankAccount> findAllBankAccounts() {
         return bankAccountRepository.findAll();
@@ -30,11 +50,65 @@ public class DataFacade {
         return bankAccountRepository.findBankAccountByAccountId(accountId);
     }
 
+    public Optional<BankAccountSummary> findBankAccountSummaryByAccountId(String accountId) {
+        return accountSummaryCache.get(accountId, bankAccountRepository::findSummaryByAccountId);
+    }
+
+    public Optional<BankAccount> findBankAccountWithTransactionsByAccountId(String accountId) {
+        return bankAccountRepository.findBankAccountWithTransactionsByAccountId(accountId);
+    }
+
+    public List<Transaction> findTransactions(Long bankAccountId, String type, LocalDateTime from, LocalDateTime to,
+                                              LocalDateTime cursorCreatedAt, Long cursorId, int limit) {
+        return transactionRepository.findPage(bankAccountId, type, from, to, cursorCreatedAt, cursorId, limit);
+    }
+
+    public Optional<Money> findBalanceAsOf(String accountId, LocalDateTime asOf) {
+        return bankAccountRepository.findSummaryByAccountId(accountId)
+                .map(account -> balanceAsOf(account.getId(), asOf));
+    }
+
+    // Starts from the nearest snapshot on either side of asOf. Only days with transactions are snapshotted, so the
+    // rows summed are those of asOf's own day plus any days the snapshot job has not reached yet.
+    private Money balanceAsOf(Long bankAccountId, LocalDateTime asOf) {
+        LocalDate day = asOf.toLocalDate();
+        Optional<BalanceSnapshot> before = balanceSnapshotRepository.findLatestBefore(bankAccountId, day);
+        if (before.isPresent()) {
+            LocalDateTime closedAt = before.get().getSnapshotDate().plusDays(1).atStartOfDay();
+            return before.get().getBalance()
+                    .plus(Money.valueOf(transactionRepository.sumSignedAmounts(bankAccountId, closedAt, asOf)));
+        }
+        Optional<BalanceSnapshot> after = balanceSnapshotRepository.findEarliestFrom(bankAccountId, day);
+        if (after.isPresent()) {
+            LocalDateTime closedAt = after.get().getSnapshotDate().plusDays(1).atStartOfDay();
+            return after.get().getBalance()
+                    .minus(Money.valueOf(transactionRepository.sumSignedAmounts(bankAccountId, asOf, closedAt)));
+        }
+        return Money.valueOf(bankAccountRepository.findBalanceRewoundTo(bankAccountId, asOf));
+    }
+
+    // The day after the last snapshot that has transactions, found through the created_at index.
+    public Optional<LocalDate> findNextSnapshotDay(LocalDate from) {
+        LocalDate start = balanceSnapshotRepository.findLastSnapshotDate()
+                .map(last -> last.plusDays(1))
+                .filter(next -> next.isAfter(from))
+                .orElse(from);
+        return transactionRepository.findFirstCreatedAtFrom(start.atStartOfDay()).map(LocalDateTime::toLocalDate);
+    }
+
+    public int buildBalanceSnapshots(LocalDate day) {
+        return balanceSnapshotRepository.buildDay(day, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+    }
+
     public Optional<BankAccount> saveBankAccount(BankAccount bankAccount) {
         return Optional.of(bankAccountRepository.save(bankAccount));
     }
 
-    public void saveTransaction(Long bankAccountId, BigDecimal amount, TransactionType type) {
+    public List<BankAccount> saveBankAccounts(List<BankAccount> bankAccounts) {
+        return bankAccountRepository.saveAll(bankAccounts);
+    }
+
+    public void saveTransaction(Long bankAccountId, Money amount, TransactionType type) {
         Transaction transaction = Transaction.builder()
                 .bankAccountId(bankAccountId)
                 .amount(amount)
@@ -43,9 +117,63 @@ public class DataFacade {
         transactionRepository.save(transaction);
     }
 
+    public List<Transaction> saveTransactions(List<Transaction> transactions) {
+        return transactionRepository.saveAll(transactions);
+    }
+
+    public Optional<BankAccountSummary> applyTransaction(String accountId, Money amount, TransactionType type) {
+        Optional<BankAccountSummary> updated = bankAccountRepository.applyBalanceDelta(accountId,
+                AccountRules.signedAmount(amount, type).toBigDecimal());
+        updated.ifPresent(account -> {
+            saveTransaction(account.getId(), amount, type);
+            accountCacheInvalidator.accountChanged(accountId);
+        });
+        return updated;
+    }
+
+    // The key is claimed before the ledger write, so a retry this instance has not cached finds the earlier record
+    // without touching the balance, and a concurrent retry blocks on the unique index until the first request ends.
+    // Losing the claim throws; a decline releases the key so the request can be retried.
+    public Optional<BankAccountSummary> applyIdempotentTransaction(IdempotencyRecord claim,
+                                                                   Function<BankAccountSummary, String> responseFor) {
+        claimIdempotencyKey(claim);
+        Optional<BankAccountSummary> updated = applyTransaction(claim.getAccountId(), claim.getAmount(), claim.getType());
+        updated.ifPresentOrElse(
+                account -> idempotencyRecordRepository.storeResponse(claim.getIdempotencyKey(), responseFor.apply(account)),
+                () -> idempotencyRecordRepository.release(claim.getIdempotencyKey()));
+        return updated;
+    }
+
+    private void claimIdempotencyKey(IdempotencyRecord record) {
+        int claimed = idempotencyRecordRepository.claim(record.getIdempotencyKey(), record.getAccountId(),
+                record.getType().name(), record.getAmount().toBigDecimal(), record.getResponse(), record.getCreatedAt(),
+                record.getExpiresAt());
+        if (claimed == 0) {
+            throw new IdempotencyKeyConflictException(record.getIdempotencyKey());
+        }
+    }
+
+    public Optional<BankAccountSummary> lockBankAccount(String accountId) {
+        return bankAccountRepository.lockBankAccountSummary(accountId);
+    }
+
+    public Optional<BankAccountSummary> applyBalanceDelta(String accountId, Money delta) {
+        Optional<BankAccountSummary> updated = bankAccountRepository.applyBalanceDelta(accountId, delta.toBigDecimal());
+        updated.ifPresent(account -> accountCacheInvalidator.accountChanged(accountId));
+        return updated;
+    }
+
     public Optional<BankAccount> updateBankAccount(String accountId, List<Pair<BankAccountFields, String>> data) {
+        return updateBankAccount(accountId, null, data);
+    }
+
+    public Optional<BankAccount> updateBankAccount(String accountId, Long expectedVersion, List<Pair<BankAccountFields, String>> data) {
         Optional<BankAccount> original = bankAccountRepository.findBankAccountByAccountId(accountId);
         return original.map(account -> {
+            if (expectedVersion != null && !expectedVersion.equals(account.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(BankAccount.class, account.getId());
+            }
+
             BankAccount.BankAccountBuilder builder = BankAccount.builder()
                     .id(account.getId())
                     .accountId(account.getAccountId())
@@ -54,6 +182,7 @@ public class DataFacade {
                     .balance(account.getBalance())
                     .minimumBalance(account.getMinimumBalance())
                     .active(account.isActive())
+                    .version(account.getVersion())
                     .createdAt(account.getCreatedAt());
 
             data.forEach(pair -> {
@@ -63,19 +192,22 @@ public class DataFacade {
                 switch (field) {
                     case FIRST_NAME -> builder.firstName(value);
                     case LAST_NAME -> builder.lastName(value);
-                    case BALANCE -> builder.balance(new BigDecimal(value));
-                    case MINIMUM_BALANCE -> builder.minimumBalance(new BigDecimal(value));
+                    case BALANCE -> builder.balance(Money.parse(value));
+                    case MINIMUM_BALANCE -> builder.minimumBalance(Money.parse(value));
                     case ACTIVE -> builder.active(Boolean.parseBoolean(value));
                     default -> throw new IllegalArgumentException("You are unauthorized to update this field.");
                 }
             });
 
             BankAccount updated = builder.build();
-            return bankAccountRepository.save(updated);
+            BankAccount saved = bankAccountRepository.save(updated);
+            accountCacheInvalidator.accountChanged(accountId);
+            return saved;
         });
     }
 
     public void deleteBankAccountByAccountId(String accountId) {
         bankAccountRepository.deleteByAccountId(accountId);
+        accountCacheInvalidator.accountChanged(accountId);
     }
 }
\ No newline at end of file
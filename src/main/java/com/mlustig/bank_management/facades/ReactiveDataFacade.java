@@ -0,0 +1,80 @@
+package com.mlustig.bank_management.facades;
+
+import com.mlustig.bank_management.cache.AccountCacheInvalidator;
+import com.mlustig.bank_management.dao.BankAccountRow;
+import com.mlustig.bank_management.dao.TransactionRow;
+import com.mlustig.bank_management.dto.BankAccountDto;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.metrics.Measured;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.repositories.reactive.ReactiveBankAccountRepository;
+import com.mlustig.bank_management.repositories.reactive.ReactiveTransactionRepository;
+import com.mlustig.bank_management.validators.AccountRules;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+@Component
+@Measured(Measured.Layer.FACADE)
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveDataFacade {
+
+    private final ReactiveBankAccountRepository bankAccountRepository;
+    private final ReactiveTransactionRepository transactionRepository;
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator reactiveTransactionalOperator;
+    private final AccountCacheInvalidator accountCacheInvalidator;
+
+    public Mono<BankAccountRow> findBankAccountByAccountId(String accountId) {
+        return bankAccountRepository.findByAccountId(accountId);
+    }
+
+    public Flux<TransactionRow> findTransactions(Long bankAccountId) {
+        return transactionRepository.findByBankAccountIdOrderByCreatedAtAscIdAsc(bankAccountId);
+    }
+
+    public Mono<BankAccountRow> saveBankAccount(BankAccountDto bankAccountDto) {
+        return bankAccountRepository.insert(bankAccountDto.accountId(), bankAccountDto.firstName(),
+                bankAccountDto.lastName(), bankAccountDto.balance().toBigDecimal(),
+                bankAccountDto.minimumBalance().toBigDecimal(), bankAccountDto.active());
+    }
+
+    public Mono<Void> deleteBankAccountByAccountId(String accountId) {
+        return changed(accountId, bankAccountRepository.deleteByAccountId(accountId)).then();
+    }
+
+    public Mono<BankAccountRow> updateActive(String accountId, boolean active) {
+        return changed(accountId, bankAccountRepository.updateActive(accountId, active));
+    }
+
+    public Mono<BankAccountRow> applyTransaction(String accountId, Money amount, TransactionType type) {
+        Mono<BankAccountRow> update = bankAccountRepository.applyBalanceDelta(accountId, AccountRules.signedAmount(amount, type).toBigDecimal())
+                .flatMap(account -> transactionRepository.insert(account.id(), amount.toBigDecimal(), type.name()).thenReturn(account));
+        return changed(accountId, update);
+    }
+
+    // Runs the write and its cache notification in one R2DBC transaction, mirroring DataFacade: replicas are told
+    // on commit and the local summary is dropped once the transaction has finished.
+    private <T> Mono<T> changed(String accountId, Mono<T> write) {
+        Mono<T> notified = write.flatMap(result -> notifyChanged(accountId).thenReturn(result));
+        return notified.as(reactiveTransactionalOperator::transactional)
+                .doFinally(signal -> accountCacheInvalidator.evictLocally(accountId));
+    }
+
+    private Mono<Void> notifyChanged(String accountId) {
+        if (!accountCacheInvalidator.isEnabled()) {
+            return Mono.empty();
+        }
+        return databaseClient.sql("SELECT pg_notify(:channel, :payload)")
+                .bind("channel", accountCacheInvalidator.getChannel())
+                .bind("payload", accountCacheInvalidator.payloadFor(accountId))
+                .then();
+    }
+}
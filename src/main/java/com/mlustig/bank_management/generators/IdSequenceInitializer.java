@@ -0,0 +1,53 @@
+package com.mlustig.bank_management.generators;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Brings existing id sequences in line with the configured block size before Hibernate starts. A sequence still at
+// INCREMENT BY 1 predates pooled-lo allocation and is raised to the block size. Any other mismatch means the setting
+// was changed against a live database, where instances on the old and the new size would hand out overlapping
+// blocks, so startup fails instead. Fresh databases get the configured increment from DDL generation.
+@Slf4j
+@Component
+public class IdSequenceInitializer {
+
+    static final List<String> SEQUENCES = List.of("bank_account_id_sequence", "transaction_id_sequence");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int blockSize;
+
+    public IdSequenceInitializer(JdbcTemplate jdbcTemplate,
+                                 @Value(PooledSequenceGenerator.BLOCK_SIZE_PROPERTY) int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blockSize = blockSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        initializeSequences();
+    }
+
+    public void initializeSequences() {
+        for (String sequence : SEQUENCES) {
+            List<Long> increments = jdbcTemplate.queryForList("""
+                    SELECT increment_by FROM pg_sequences
+                    WHERE schemaname = current_schema() AND sequencename = ?""", Long.class, sequence);
+            if (increments.isEmpty() || increments.get(0) == blockSize) {
+                continue;
+            }
+            if (increments.get(0) != 1) {
+                throw new IllegalStateException("Sequence " + sequence + " increments by " + increments.get(0)
+                        + " but " + PooledSequenceGenerator.BLOCK_SIZE_SETTING + " is " + blockSize
+                        + "; stop every instance and alter the sequence before changing the block size");
+            }
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + blockSize);
+            log.info("IdSequenceInitializer.initializeSequences() - raised sequence increment. sequence: {}, blockSize: {}",
+                    sequence, blockSize);
+        }
+    }
+}
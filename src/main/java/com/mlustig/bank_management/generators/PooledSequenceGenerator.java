@@ -0,0 +1,39 @@
+package com.mlustig.bank_management.generators;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Sequence generator that hands out ids in blocks using the pooled-lo optimizer, so only one
+ * {@code nextval} round trip is needed per block. The block size comes from the
+ * {@value #BLOCK_SIZE_SETTING} Hibernate setting and must match the sequence's {@code INCREMENT BY}, which
+ * {@link IdSequenceInitializer} checks on startup.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String BLOCK_SIZE_SETTING = "bank_management.id.block_size";
+    public static final int DEFAULT_BLOCK_SIZE = 50;
+    // The same setting as a Spring placeholder, for code that allocates from the sequences outside Hibernate.
+    public static final String BLOCK_SIZE_PROPERTY = "${spring.jpa.properties." + BLOCK_SIZE_SETTING + ":" + DEFAULT_BLOCK_SIZE + "}";
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        int blockSize = serviceRegistry.getService(ConfigurationService.class)
+                .getSetting(BLOCK_SIZE_SETTING, StandardConverters.INTEGER, DEFAULT_BLOCK_SIZE);
+        if (blockSize < 1) {
+            throw new MappingException("Id block size must be at least 1 but was " + blockSize);
+        }
+
+        parameters.put(INCREMENT_PARAM, String.valueOf(blockSize));
+        parameters.put(OptimizableGenerator.OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
@@ -0,0 +1,156 @@
+package com.mlustig.bank_management.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mlustig.bank_management.config.IdempotencyProperties;
+import com.mlustig.bank_management.dao.IdempotencyRecord;
+import com.mlustig.bank_management.dto.BankAccountDto;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.exceptions.IdempotencyKeyReuseException;
+import com.mlustig.bank_management.exceptions.InvalidIdempotencyKeyException;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.repositories.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// Remembers the outcome of keyed deposits and withdrawals. Memory is the fast path for retries; the database
+// record, claimed at the start of the ledger transaction, is the source of truth across restarts and replicas.
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private final IdempotencyProperties properties;
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, StoredResponse> cache;
+    private final Clock clock = Clock.systemDefaultZone();
+
+    public IdempotencyStore(IdempotencyProperties properties, IdempotencyRecordRepository repository,
+                            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new UntilExpiresAt())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotency_record");
+    }
+
+    public void validateKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > properties.getMaximumKeyLength()) {
+            throw new InvalidIdempotencyKeyException(properties.getMaximumKeyLength());
+        }
+    }
+
+    // Memory only. A miss goes to the ledger transaction, whose first step claims the key and so catches replays this
+    // instance has not seen before the balance is touched. First-time requests pay no extra read.
+    public Optional<BankAccountDto> findCached(String idempotencyKey, String accountId, TransactionType type, Money amount) {
+        return Optional.ofNullable(cache.getIfPresent(idempotencyKey))
+                .map(stored -> stored.replayFor(accountId, type, amount));
+    }
+
+    // Used after the claim was lost, when the winning record is committed and visible.
+    public BankAccountDto findStored(String idempotencyKey, String accountId, TransactionType type, Money amount) {
+        StoredResponse stored = repository.findById(idempotencyKey)
+                .filter(record -> record.getExpiresAt().isAfter(LocalDateTime.now(clock)))
+                .map(this::toStoredResponse)
+                .orElseThrow(() -> new IllegalStateException("Idempotency record not found. idempotencyKey: " + idempotencyKey));
+        cache.put(idempotencyKey, stored);
+        return stored.replayFor(accountId, type, amount);
+    }
+
+    // The response is a placeholder until the ledger write succeeds and stores the real one in the same
+    // transaction, so no other transaction ever reads it.
+    public IdempotencyRecord newClaim(String idempotencyKey, String accountId, TransactionType type, Money amount) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        return IdempotencyRecord.builder()
+                .idempotencyKey(idempotencyKey)
+                .accountId(accountId)
+                .type(type)
+                .amount(amount)
+                .response("")
+                .createdAt(now)
+                .expiresAt(now.plus(properties.getExpireAfter()))
+                .build();
+    }
+
+    public String serialize(BankAccountDto response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response", e);
+        }
+    }
+
+    public void remember(String idempotencyKey, String accountId, TransactionType type, Money amount,
+                         BankAccountDto response) {
+        cache.put(idempotencyKey, new StoredResponse(accountId, type, amount, response,
+                LocalDateTime.now(clock).plus(properties.getExpireAfter())));
+    }
+
+    // Drops the in-memory copies only; the database records keep answering retries.
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    @Transactional
+    @Scheduled(initialDelayString = "${bank-management.idempotency.purge-interval:PT1H}",
+            fixedDelayString = "${bank-management.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int purged = repository.deleteExpired(LocalDateTime.now(clock));
+        log.info("IdempotencyStore.purgeExpired() - purged expired idempotency records. count: {}", purged);
+    }
+
+    private StoredResponse toStoredResponse(IdempotencyRecord record) {
+        try {
+            return new StoredResponse(record.getAccountId(), record.getType(), record.getAmount(),
+                    objectMapper.readValue(record.getResponse(), BankAccountDto.class), record.getExpiresAt());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable idempotency record. idempotencyKey: " + record.getIdempotencyKey(), e);
+        }
+    }
+
+    private record StoredResponse(String accountId, TransactionType type, Money amount, BankAccountDto response,
+                                  LocalDateTime expiresAt) {
+
+        // A key belongs to exactly one request; replaying it for a different one would hide a client bug.
+        BankAccountDto replayFor(String accountId, TransactionType type, Money amount) {
+            if (!this.accountId.equals(accountId) || this.type != type || !this.amount.equals(amount)) {
+                throw new IdempotencyKeyReuseException();
+            }
+            return response;
+        }
+    }
+
+    private class UntilExpiresAt implements Expiry<String, StoredResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, StoredResponse value, long currentTime) {
+            return Math.max(0, Duration.between(LocalDateTime.now(clock), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, StoredResponse value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, StoredResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
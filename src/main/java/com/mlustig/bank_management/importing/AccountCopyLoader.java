@@ -0,0 +1,123 @@
+package com.mlustig.bank_management.importing;
+
+import com.mlustig.bank_management.dto.BankAccountDto;
+import com.mlustig.bank_management.generators.PooledSequenceGenerator;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Loads a batch of accounts with one COPY into a session-local staging table and one INSERT ... SELECT from it, so a
+// batch costs a handful of round trips however many rows it has. Ids are drawn from bank_account_id_sequence in
+// blocks, the same way the pooled-lo generator does, so they never collide with ids handed out by Hibernate. That
+// only holds while the sequence increments by the block size, which IdSequenceInitializer enforces on startup.
+@Component
+public class AccountCopyLoader {
+
+    private static final String STAGING_TABLE = """
+            CREATE TEMPORARY TABLE IF NOT EXISTS bank_account_import
+            (
+                id              BIGINT,
+                account_id      VARCHAR(255),
+                first_name      VARCHAR(255),
+                last_name       VARCHAR(255),
+                balance         NUMERIC,
+                minimum_balance NUMERIC,
+                active          BOOLEAN
+            ) ON COMMIT DELETE ROWS""";
+
+    private static final String COPY = """
+            COPY bank_account_import (id, account_id, first_name, last_name, balance, minimum_balance, active)
+            FROM STDIN WITH (FORMAT csv)""";
+
+    // Existing accounts and repeats within the batch are skipped; the caller reports them as duplicates.
+    private static final String INSERT = """
+            INSERT INTO bank_account (id, account_id, first_name, last_name, balance, minimum_balance, active, version,
+                                      created_at, updated_at)
+            SELECT id, account_id, first_name, last_name, balance, minimum_balance, active, 0, now(), now()
+            FROM bank_account_import
+            ORDER BY id
+            ON CONFLICT (account_id) DO NOTHING
+            RETURNING account_id""";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+
+    public AccountCopyLoader(DataSource dataSource, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                             @Value(PooledSequenceGenerator.BLOCK_SIZE_PROPERTY) int blockSize) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.blockSize = blockSize;
+    }
+
+    // Returns the account ids that were inserted. Runs in its own transaction.
+    public Set<String> load(List<AccountImportRow> rows) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute(STAGING_TABLE);
+            copy(toCsv(rows, allocateIds(rows.size())));
+            return new HashSet<>(jdbcTemplate.queryForList(INSERT, String.class));
+        });
+    }
+
+    private long[] allocateIds(int count) {
+        List<Long> blocks = jdbcTemplate.queryForList("SELECT nextval('bank_account_id_sequence') FROM generate_series(1, ?)",
+                Long.class, (count + blockSize - 1) / blockSize);
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = blocks.get(i / blockSize) + i % blockSize;
+        }
+        return ids;
+    }
+
+    private void copy(String csv) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY, new StringReader(csv));
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("COPY into bank_account_import failed", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static String toCsv(List<AccountImportRow> rows, long[] ids) {
+        StringBuilder csv = new StringBuilder(rows.size() * 96);
+        for (int i = 0; i < rows.size(); i++) {
+            BankAccountDto account = rows.get(i).account();
+            csv.append(ids[i]).append(',');
+            appendQuoted(csv, account.accountId()).append(',');
+            appendQuoted(csv, account.firstName()).append(',');
+            appendQuoted(csv, account.lastName()).append(',');
+            csv.append(account.balance()).append(',')
+                    .append(account.minimumBalance()).append(',')
+                    .append(account.active()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static StringBuilder appendQuoted(StringBuilder csv, String value) {
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                csv.append('"');
+            }
+            csv.append(c);
+        }
+        return csv.append('"');
+    }
+}
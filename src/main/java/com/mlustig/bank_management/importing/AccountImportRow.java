@@ -0,0 +1,7 @@
+package com.mlustig.bank_management.importing;
+
+import com.mlustig.bank_management.dto.BankAccountDto;
+
+// A record that passed validation, with the line it came from for reporting.
+public record AccountImportRow(int line, BankAccountDto account) {
+}
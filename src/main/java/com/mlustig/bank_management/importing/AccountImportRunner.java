@@ -0,0 +1,51 @@
+package com.mlustig.bank_management.importing;
+
+import com.mlustig.bank_management.config.ImportProperties;
+import com.mlustig.bank_management.dto.AccountImportDto;
+import com.mlustig.bank_management.enums.ImportFormat;
+import com.mlustig.bank_management.services.AccountImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Command line import, e.g.
+//   java -jar bank-management.jar --bank-management.import.file=accounts.csv --spring.main.web-application-type=none
+// The format follows the file extension (.csv or .jsonl). The application exits when the import is done.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "bank-management.import", name = "file")
+public class AccountImportRunner implements ApplicationRunner {
+
+    private final AccountImportService accountImportService;
+    private final ImportProperties properties;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        Path file = Path.of(properties.getFile());
+        String name = file.getFileName().toString();
+        ImportFormat format = ImportFormat.fromParameter(name.substring(name.lastIndexOf('.') + 1));
+
+        AccountImportDto result;
+        try (InputStream in = Files.newInputStream(file)) {
+            result = accountImportService.importAccounts(in, format);
+        }
+        result.rejections().forEach(rejection ->
+                log.warn("AccountImportRunner.run - rejected record. line: {}, accountId: {}, reason: {}",
+                        rejection.line(), rejection.accountId(), rejection.reason()));
+        log.info("AccountImportRunner.run - imported {}. received: {}, imported: {}, rejected: {}",
+                file, result.received(), result.imported(), result.rejected());
+        System.exit(SpringApplication.exit(context));
+    }
+}
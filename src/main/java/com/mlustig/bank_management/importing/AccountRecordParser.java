@@ -0,0 +1,106 @@
+package com.mlustig.bank_management.importing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mlustig.bank_management.dto.BankAccountDto;
+import com.mlustig.bank_management.money.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Turns one line of an import file into a BankAccountDto. CSV columns are matched by the header, using the JSON field
+// names, so files may order them freely. Any unreadable line throws IllegalArgumentException. Instances are
+// immutable and shared by the validation threads.
+public final class AccountRecordParser {
+
+    private static final List<String> CSV_COLUMNS = List.of("accountId", "firstName", "lastName", "balance", "minimumBalance", "active");
+
+    private final ObjectReader jsonReader;
+    private final int[] csvIndexes;
+
+    private AccountRecordParser(ObjectReader jsonReader, int[] csvIndexes) {
+        this.jsonReader = jsonReader;
+        this.csvIndexes = csvIndexes;
+    }
+
+    public static AccountRecordParser forJsonLines(ObjectMapper objectMapper) {
+        return new AccountRecordParser(objectMapper.readerFor(BankAccountDto.class), null);
+    }
+
+    public static AccountRecordParser forCsv(String header) {
+        List<String> names = splitCsv(header);
+        int[] indexes = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = names.indexOf(CSV_COLUMNS.get(i));
+            if (indexes[i] < 0) {
+                throw new IllegalArgumentException("Missing column: " + CSV_COLUMNS.get(i));
+            }
+        }
+        return new AccountRecordParser(null, indexes);
+    }
+
+    public BankAccountDto parse(String line) {
+        return jsonReader != null ? parseJson(line) : parseCsv(line);
+    }
+
+    private BankAccountDto parseJson(String line) {
+        try {
+            return jsonReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getOriginalMessage(), e);
+        }
+    }
+
+    private BankAccountDto parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        String[] values = new String[csvIndexes.length];
+        for (int i = 0; i < csvIndexes.length; i++) {
+            if (csvIndexes[i] >= fields.size() || fields.get(csvIndexes[i]).isEmpty()) {
+                throw new IllegalArgumentException("Missing field: " + CSV_COLUMNS.get(i));
+            }
+            values[i] = fields.get(csvIndexes[i]);
+        }
+        return new BankAccountDto(values[0], values[1], values[2], Money.parse(values[3]), Money.parse(values[4]),
+                parseBoolean(values[5]), List.of());
+    }
+
+    private static boolean parseBoolean(String value) {
+        if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+            return Boolean.parseBoolean(value);
+        }
+        throw new IllegalArgumentException("Invalid boolean: " + value);
+    }
+
+    // RFC 4180 fields: optionally quoted, with "" standing for a quote inside a quoted field.
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(CSV_COLUMNS.size());
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
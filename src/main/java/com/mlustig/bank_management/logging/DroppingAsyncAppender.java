@@ -0,0 +1,32 @@
+package com.mlustig.bank_management.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// AsyncAppender that keeps count of the events it throws away, either because the queue is full (with neverBlock)
+// or because it is past the discarding threshold and the event is INFO or below. Logback creates the appender
+// before the application context, so the count is static and exported by BankAccountMeterRegistry.
+public class DroppingAsyncAppender extends AsyncAppender {
+
+    private static final AtomicLong DROPPED = new AtomicLong();
+
+    public static AtomicLong droppedEvents() {
+        return DROPPED;
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isStarted() && willDrop(event)) {
+            DROPPED.incrementAndGet();
+        }
+        super.append(event);
+    }
+
+    // Mirrors AsyncAppenderBase.append; the queue can change in between, so the count is approximate under contention.
+    private boolean willDrop(ILoggingEvent event) {
+        int remaining = getRemainingCapacity();
+        return (remaining < getDiscardingThreshold() && isDiscardable(event)) || (isNeverBlock() && remaining == 0);
+    }
+}
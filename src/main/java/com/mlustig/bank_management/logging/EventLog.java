@@ -0,0 +1,58 @@
+package com.mlustig.bank_management.logging;
+
+import com.mlustig.bank_management.config.LoggingProperties;
+import com.mlustig.bank_management.enums.RejectionReason;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.slf4j.spi.NOPLoggingEventBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Structured service events built with SLF4J's fluent API: key-values become JSON fields, and an event that is
+// sampled out or below the logger's level costs a map lookup and nothing is formatted.
+@Component
+@RequiredArgsConstructor
+public class EventLog {
+
+    private final LoggingProperties properties;
+
+    public LoggingEventBuilder event(Logger logger, String category) {
+        Double rate = properties.getSampling().get(category);
+        if (rate != null && ThreadLocalRandom.current().nextDouble() >= rate) {
+            return NOPLoggingEventBuilder.singleton();
+        }
+        return at(logger, EventOutcome.SUCCESS).addKeyValue("category", category);
+    }
+
+    // Expected business outcome: logged at the REJECTED level, without a stack trace.
+    public void rejected(Logger logger, Exception e, String path) {
+        at(logger, EventOutcome.REJECTED)
+                .addKeyValue("exception", e.getClass().getSimpleName())
+                .addKeyValue("path", path)
+                .log(e.getMessage());
+    }
+
+    // Same, for declines that were returned as results and never became exceptions.
+    public void rejected(Logger logger, RejectionReason reason, String path) {
+        at(logger, EventOutcome.REJECTED)
+                .addKeyValue("reason", reason)
+                .addKeyValue("path", path)
+                .log(reason.getMessage());
+    }
+
+    public void failed(Logger logger, Exception e, String path) {
+        at(logger, EventOutcome.FAILED)
+                .addKeyValue("exception", e.getClass().getSimpleName())
+                .addKeyValue("path", path)
+                .setCause(e)
+                .log("Unhandled exception occurred");
+    }
+
+    private LoggingEventBuilder at(Logger logger, EventOutcome outcome) {
+        Level level = properties.getOutcomeLevels().getOrDefault(outcome, Level.INFO);
+        return logger.atLevel(level).addKeyValue("outcome", outcome);
+    }
+}
@@ -0,0 +1,9 @@
+package com.mlustig.bank_management.logging;
+
+// How a request ended, as far as logging is concerned. REJECTED covers expected business results such as
+// insufficient funds or an unknown account; FAILED is everything the service did not anticipate.
+public enum EventOutcome {
+    SUCCESS,
+    REJECTED,
+    FAILED
+}
@@ -1,9 +1,14 @@
 package com.mlustig.bank_management.mappers;
 
 import com.mlustig.bank_management.dao.BankAccount;
+import com.mlustig.bank_management.dao.BankAccountRow;
 import com.mlustig.bank_management.dao.Transaction;
+import com.mlustig.bank_management.dao.TransactionRow;
+import com.mlustig.bank_management.dto.BalanceDto;
 import com.mlustig.bank_management.dto.BankAccountDto;
 import com.mlustig.bank_management.dto.TransactionDto;
+import com.mlustig.bank_management.projections.BankAccountSummary;
+import org.hibernate.Hibernate;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
@@ -19,13 +24,35 @@ public interface BankAccountMapper {
 
     BankAccountDto toDto(BankAccount bankAccount);
 
+    @Mapping(target = "transactions", expression = "java(java.util.Collections.emptyList())")
+    BankAccountDto toDto(BankAccountSummary bankAccountSummary);
+
+    BalanceDto toBalanceDto(BankAccountSummary bankAccountSummary);
+
+    @Mapping(target = "transactions", expression = "java(java.util.Collections.emptyList())")
+    BankAccountDto toDto(BankAccountRow bankAccountRow);
+
+    BankAccountDto toDto(BankAccountRow bankAccountRow, List<TransactionRow> transactions);
+
+    BalanceDto toBalanceDto(BankAccountRow bankAccountRow);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "transactions", ignore = true)
+    @Mapping(target = "version", ignore = true)
     BankAccount toDao(BankAccountDto bankAccountDto);
 
     default List<TransactionDto> mapTransactions(List<Transaction> transactions) {
+        return Optional.ofNullable(transactions)
+                .filter(Hibernate::isInitialized)
+                .map(transactionsList -> transactionsList.stream()
+                        .map(TransactionMapper.INSTANCE::toDto)
+                        .collect(Collectors.toList()))
+                .orElse(Collections.emptyList());
+    }
+
+    default List<TransactionDto> mapTransactionRows(List<TransactionRow> transactions) {
         return Optional.ofNullable(transactions)
                 .map(transactionsList -> transactionsList.stream()
                         .map(TransactionMapper.INSTANCE::toDto)
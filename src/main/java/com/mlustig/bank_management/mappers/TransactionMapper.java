@@ -1,6 +1,7 @@
 package com.mlustig.bank_management.mappers;
 
 import com.mlustig.bank_management.dao.Transaction;
+import com.mlustig.bank_management.dao.TransactionRow;
 import com.mlustig.bank_management.dto.TransactionDto;
 import org.mapstruct.Mapper;
 import org.mapstruct.factory.Mappers;
@@ -10,4 +11,6 @@ public interface TransactionMapper {
     TransactionMapper INSTANCE = Mappers.getMapper(TransactionMapper.class);
 
     TransactionDto toDto(Transaction transaction);
+
+    TransactionDto toDto(TransactionRow transactionRow);
 }
\ No newline at end of file
@@ -1,6 +1,12 @@
 package com.mlustig.bank_management.metrics;
 
+import com.mlustig.bank_management.concurrency.AccountLocks;
+import com.mlustig.bank_management.enums.RejectionReason;
+import com.mlustig.bank_management.logging.DroppingAsyncAppender;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
@@ -8,6 +14,10 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
 @Getter
 @Component
 @RequiredArgsConstructor
@@ -15,68 +25,90 @@ public class BankAccountMeterRegistry {
 
     private final MeterRegistry meterRegistry;
 
-    private Counter getAccountInfoCounter;
-    private Counter createAccountCounter;
-    private Counter deleteBankAccountCounter;
-    private Counter activateAccountCounter;
-    private Counter deactivateAccountCounter;
-    private Counter makeDepositCounter;
-    private Counter makeWithdrawCounter;
-    private Timer getAccountInfoTimer;
-    private Timer createAccountTimer;
-    private Timer deleteBankAccountTimer;
-    private Timer activateAccountTimer;
-    private Timer deactivateAccountTimer;
-    private Timer makeDepositTimer;
-    private Timer makeWithdrawTimer;
+    private Counter optimisticLockConflictCounter;
+    private Counter optimisticLockRetryCounter;
+    private Counter optimisticLockExhaustedCounter;
+    private Counter cacheRemoteInvalidationCounter;
+    private Counter cacheResyncCounter;
+    private Counter groupCommitFallbackCounter;
+    private Counter groupCommitBypassCounter;
+    private Timer ledgerLockWaitTimer;
+    private Timer transferLockWaitTimer;
+    private Timer cacheInvalidationLagTimer;
+    private Timer groupCommitWindowTimer;
+    private Timer groupCommitAddedLatencyTimer;
+    private DistributionSummary groupCommitBatchSizeSummary;
+    private final Map<RejectionReason, Counter> rejectionCounters = new EnumMap<>(RejectionReason.class);
 
     @PostConstruct
     public void init() {
-
-        getAccountInfoCounter = Counter.builder("bank_account_controller_get_account_info_counter")
-                .description("Number of times getAccountInfo method has been called")
+        optimisticLockConflictCounter = Counter.builder("bank_account_optimistic_lock_conflict_counter")
+                .description("Number of ledger mutations that hit an optimistic locking conflict")
                 .register(meterRegistry);
-        createAccountCounter = Counter.builder("bank_account_controller_create_account_counter")
-                .description("Number of times createAccount method has been called")
+        optimisticLockRetryCounter = Counter.builder("bank_account_optimistic_lock_retry_counter")
+                .description("Number of ledger mutations retried after an optimistic locking conflict")
                 .register(meterRegistry);
-        deleteBankAccountCounter = Counter.builder("bank_account_controller_delete_bank_account_counter")
-                .description("Number of times deleteBankAccount method has been called")
+        optimisticLockExhaustedCounter = Counter.builder("bank_account_optimistic_lock_exhausted_counter")
+                .description("Number of ledger mutations that gave up after the last retry attempt")
                 .register(meterRegistry);
-        activateAccountCounter = Counter.builder("bank_account_controller_activate_account_counter")
-                .description("Number of times activateAccount method has been called")
+        cacheRemoteInvalidationCounter = Counter.builder("bank_account_cache_remote_invalidation_counter")
+                .description("Number of cache entries evicted because another instance changed the account")
                 .register(meterRegistry);
-        deactivateAccountCounter = Counter.builder("bank_account_controller_deactivate_account_counter")
-                .description("Number of times deactivateAccount method has been called")
+        cacheResyncCounter = Counter.builder("bank_account_cache_resync_counter")
+                .description("Number of times the cache was cleared after (re)subscribing to invalidations")
                 .register(meterRegistry);
-        makeDepositCounter = Counter.builder("bank_account_controller_make_deposit_counter")
-                .description("Number of times makeDeposit method has been called")
+        groupCommitFallbackCounter = Counter.builder("bank_account_group_commit_fallback_counter")
+                .description("Number of group commit batches that failed and were replayed operation by operation")
                 .register(meterRegistry);
-        makeWithdrawCounter = Counter.builder("bank_account_controller_make_withdraw_counter")
-                .description("Number of times makeWithdraw method has been called")
+        groupCommitBypassCounter = Counter.builder("bank_account_group_commit_bypass_counter")
+                .description("Number of operations applied on their own because the group commit queue was full")
                 .register(meterRegistry);
-
-        getAccountInfoTimer = Timer.builder("bank_account_controller_get_account_info_timer")
-                .description("Execution time of getAccountInfo method")
+        FunctionCounter.builder("bank_account_log_dropped_events_counter", DroppingAsyncAppender.droppedEvents(), AtomicLong::doubleValue)
+                .description("Number of log events discarded by the async appender, either because its queue was full or because it was past the discarding threshold and the event was INFO or below")
                 .register(meterRegistry);
-        createAccountTimer = Timer.builder("bank_account_controller_create_account_timer")
-                .description("Execution time of createAccount method")
+        for (RejectionReason reason : RejectionReason.values()) {
+            rejectionCounters.put(reason, Counter.builder("bank_account_rejection_counter")
+                    .description("Number of requests declined for an expected business reason")
+                    .tag("reason", reason.name())
+                    .register(meterRegistry));
+        }
+
+        ledgerLockWaitTimer = Timer.builder("bank_account_ledger_lock_wait_timer")
+                .description("Time spent waiting for the per-account ledger lock")
+                .publishPercentileHistogram()
                 .register(meterRegistry);
-        deleteBankAccountTimer = Timer.builder("bank_account_controller_delete_bank_account_timer")
-                .description("Execution time of deleteBankAccount method")
+        transferLockWaitTimer = Timer.builder("bank_account_transfer_lock_wait_timer")
+                .description("Time spent acquiring the row locks of both transfer accounts")
+                .publishPercentileHistogram()
                 .register(meterRegistry);
-        activateAccountTimer = Timer.builder("bank_account_controller_activate_account_timer")
-                .description("Execution time of activateAccount method")
+        cacheInvalidationLagTimer = Timer.builder("bank_account_cache_invalidation_lag_timer")
+                .description("Delay between a change on another instance and the local eviction")
+                .publishPercentileHistogram()
                 .register(meterRegistry);
-        deactivateAccountTimer = Timer.builder("bank_account_controller_deactivate_account_timer")
-                .description("Execution time of deactivateAccount method")
+        groupCommitWindowTimer = Timer.builder("bank_account_group_commit_window_timer")
+                .description("Time between the first operation of a group commit batch and its flush")
+                .publishPercentileHistogram()
                 .register(meterRegistry);
-        makeDepositTimer = Timer.builder("bank_account_controller_make_deposit_timer")
-                .description("Execution time of makeDeposit method")
+        groupCommitAddedLatencyTimer = Timer.builder("bank_account_group_commit_added_latency_timer")
+                .description("Time an operation waited in the group commit queue before its batch was flushed")
+                .publishPercentileHistogram()
                 .register(meterRegistry);
-        makeWithdrawTimer = Timer.builder("bank_account_controller_make_withdraw_timer")
-                .description("Execution time of makeWithdraw method")
+        groupCommitBatchSizeSummary = DistributionSummary.builder("bank_account_group_commit_batch_size")
+                .description("Number of operations committed together by group commit")
+                .publishPercentileHistogram()
                 .register(meterRegistry);
+    }
 
+    public Counter getRejectionCounter(RejectionReason reason) {
+        return rejectionCounters.get(reason);
+    }
 
+    public void registerLedgerLockGauges(AccountLocks accountLocks) {
+        Gauge.builder("bank_account_ledger_lock_stripes", accountLocks, AccountLocks::getStripeCount)
+                .description("Number of lock stripes used to serialize ledger mutations")
+                .register(meterRegistry);
+        Gauge.builder("bank_account_ledger_lock_queue_length", accountLocks, AccountLocks::getQueueLength)
+                .description("Number of threads waiting for a ledger lock stripe")
+                .register(meterRegistry);
     }
 }
@@ -0,0 +1,111 @@
+package com.mlustig.bank_management.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Hands out connections whose statements report to the RequestDbStatistics of the calling thread. Every execute*
+// call counts as one round trip, a JDBC batch included, and its duration is added to the JDBC time; rows are
+// counted as the result sets are read. Hibernate, JdbcTemplate and the importer all go through here, so the counts
+// cover every query a request makes. COPY runs on the driver connection and is not counted.
+public class CountingDataSource extends DelegatingDataSource {
+
+    public CountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    private static <T> T wrap(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    // equals and hashCode stay on the proxy, so pools and caches keyed by the wrapper keep working.
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        if (method.getName().equals("equals")) {
+            return proxy == args[0];
+        }
+        if (method.getName().equals("hashCode")) {
+            return System.identityHashCode(proxy);
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private record ConnectionHandler(Connection target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = CountingDataSource.invoke(proxy, target, method, args);
+            if (result instanceof CallableStatement statement) {
+                return wrap(CallableStatement.class, new StatementHandler(statement));
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrap(PreparedStatement.class, new StatementHandler(statement));
+            }
+            if (result instanceof Statement statement) {
+                return wrap(Statement.class, new StatementHandler(statement));
+            }
+            return result;
+        }
+    }
+
+    private record StatementHandler(Statement target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            RequestDbStatistics statistics = RequestDbStatistics.current();
+            if (statistics == null) {
+                return CountingDataSource.invoke(proxy, target, method, args);
+            }
+            Object result;
+            if (method.getName().startsWith("execute")) {
+                long start = System.nanoTime();
+                try {
+                    result = CountingDataSource.invoke(proxy, target, method, args);
+                } finally {
+                    statistics.statementExecuted(System.nanoTime() - start);
+                }
+            } else {
+                result = CountingDataSource.invoke(proxy, target, method, args);
+            }
+            if (result instanceof ResultSet resultSet) {
+                return wrap(ResultSet.class, new ResultSetHandler(resultSet, statistics));
+            }
+            return result;
+        }
+    }
+
+    private record ResultSetHandler(ResultSet target, RequestDbStatistics statistics) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = CountingDataSource.invoke(proxy, target, method, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                statistics.rowFetched();
+            }
+            return result;
+        }
+    }
+}
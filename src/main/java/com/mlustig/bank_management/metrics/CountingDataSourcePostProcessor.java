@@ -0,0 +1,22 @@
+package com.mlustig.bank_management.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Wraps the pooled DataSource after it is created. Boot's pool metrics and health checks unwrap DelegatingDataSource,
+// so they still see the Hikari pool underneath.
+@Component
+@ConditionalOnProperty(prefix = "bank-management.db-statistics", name = "enabled")
+public class CountingDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+            return new CountingDataSource(dataSource);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,31 @@
+package com.mlustig.bank_management.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.type.Type;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Session factory wide interceptor counting the entities Hibernate materializes for the current request, eagerly
+// fetched associations included. Stateless, so one instance serves every session.
+@Component
+@ConditionalOnProperty(prefix = "bank-management.db-statistics", name = "enabled")
+public class EntityLoadCounter implements Interceptor, HibernatePropertiesCustomizer {
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        RequestDbStatistics statistics = RequestDbStatistics.current();
+        if (statistics != null) {
+            statistics.entityLoaded();
+        }
+        return false;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.INTERCEPTOR, this);
+    }
+}
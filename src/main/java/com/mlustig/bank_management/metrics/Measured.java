@@ -0,0 +1,33 @@
+package com.mlustig.bank_management.metrics;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+// Times every public method of the annotated bean, see MeasuredInterceptor. Only calls that go through the Spring
+// proxy are recorded, so a bean calling its own methods is measured once, at the outer call.
+@Documented
+@Target(TYPE)
+@Retention(RUNTIME)
+public @interface Measured {
+
+    Layer value();
+
+    @Getter
+    @RequiredArgsConstructor
+    enum Layer {
+
+        CONTROLLER("bank_account_endpoint_timer", "Execution time of controller endpoints"),
+        SERVICE("bank_account_service_timer", "Execution time of service methods"),
+        FACADE("bank_account_facade_timer", "Execution time of data facade methods");
+
+        private final String metricName;
+        private final String description;
+    }
+}
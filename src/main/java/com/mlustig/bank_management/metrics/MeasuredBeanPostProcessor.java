@@ -0,0 +1,22 @@
+package com.mlustig.bank_management.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+// Wraps beans annotated with @Measured in a proxy running MeasuredInterceptor. Plain Spring AOP, so no AspectJ
+// weaver is needed. Beans that are already proxied, e.g. for @Transactional, get the interceptor added in front of
+// their existing advisors, so the measured time includes the commit.
+@Component
+public class MeasuredBeanPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    public MeasuredBeanPostProcessor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Measured.class, true),
+                new MeasuredInterceptor(meterRegistryProvider));
+        this.beforeExistingAdvisors = true;
+        setProxyTargetClass(true);
+    }
+}
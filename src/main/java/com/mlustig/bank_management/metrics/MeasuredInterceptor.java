@@ -0,0 +1,160 @@
+package com.mlustig.bank_management.metrics;
+
+import com.mlustig.bank_management.dto.LedgerResult;
+import com.mlustig.bank_management.enums.RejectionReason;
+import com.mlustig.bank_management.exceptions.AccountNotFoundException;
+import com.mlustig.bank_management.exceptions.ApiError;
+import com.mlustig.bank_management.exceptions.BusinessRejectionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Records one timer per layer, tagged with the endpoint (or class and method), the outcome and the exception type,
+// so latency percentiles can be broken down per failure class. Percentile histograms are always published; the SLO
+// buckets come from management.metrics.distribution.slo. Reactive results are timed until they terminate or are
+// cancelled, since the method itself only assembles the pipeline. Timers are looked up once per method and outcome
+// rather than through the registry on every call.
+public class MeasuredInterceptor implements MethodInterceptor {
+
+    static final String SUCCESS = "SUCCESS";
+    static final String FAILURE = "FAILURE";
+    static final String CANCELLED = "CANCELLED";
+    static final String REJECTED = "REJECTED";
+    static final String NO_EXCEPTION = "none";
+
+    // Resolved on first use: the post-processor is created before the registry has been customized.
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final Map<Method, Operation> operations = new ConcurrentHashMap<>();
+    private volatile MeterRegistry meterRegistry;
+
+    public MeasuredInterceptor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        Operation operation = operations.computeIfAbsent(invocation.getMethod(), method -> operation(invocation));
+        MeterRegistry registry = meterRegistry();
+        Timer.Sample sample = Timer.start(registry);
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            operation.stop(sample, registry, Outcome.failed(e));
+            throw e;
+        }
+        if (result instanceof Mono<?> mono) {
+            AtomicReference<Outcome> outcome = new AtomicReference<>(Outcome.SUCCEEDED);
+            return mono.doOnNext(value -> outcome.set(Outcome.of(value)))
+                    .doOnError(e -> outcome.set(Outcome.failed(e)))
+                    .doFinally(signal -> operation.stop(sample, registry,
+                            signal == SignalType.CANCEL ? Outcome.CANCELLED_CALL : outcome.get()));
+        }
+        if (result instanceof Flux<?> flux) {
+            AtomicReference<Outcome> outcome = new AtomicReference<>(Outcome.SUCCEEDED);
+            return flux.doOnError(e -> outcome.set(Outcome.failed(e)))
+                    .doFinally(signal -> operation.stop(sample, registry,
+                            signal == SignalType.CANCEL ? Outcome.CANCELLED_CALL : outcome.get()));
+        }
+        operation.stop(sample, registry, Outcome.of(result));
+        return result;
+    }
+
+    private MeterRegistry meterRegistry() {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            registry = meterRegistryProvider.getObject();
+            meterRegistry = registry;
+        }
+        return registry;
+    }
+
+    private static Operation operation(MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() != null
+                ? ClassUtils.getUserClass(invocation.getThis())
+                : invocation.getMethod().getDeclaringClass();
+        Measured measured = AnnotatedElementUtils.findMergedAnnotation(targetClass, Measured.class);
+        Measured.Layer layer = measured != null ? measured.value() : Measured.Layer.SERVICE;
+        String method = invocation.getMethod().getName();
+        Tags tags = layer == Measured.Layer.CONTROLLER
+                ? Tags.of("endpoint", method)
+                : Tags.of("class", targetClass.getSimpleName(), "method", method);
+        return new Operation(layer, tags);
+    }
+
+    private static final class Operation {
+
+        private final Measured.Layer layer;
+        private final Tags tags;
+        private final Map<Outcome, Timer> timers = new ConcurrentHashMap<>();
+
+        Operation(Measured.Layer layer, Tags tags) {
+            this.layer = layer;
+            this.tags = tags;
+        }
+
+        void stop(Timer.Sample sample, MeterRegistry registry, Outcome outcome) {
+            sample.stop(timers.computeIfAbsent(outcome, key -> Timer.builder(layer.getMetricName())
+                    .description(layer.getDescription())
+                    .tags(tags)
+                    .tag("outcome", key.outcome())
+                    .tag("exception", key.exception())
+                    .publishPercentileHistogram()
+                    .register(registry)));
+        }
+    }
+
+    // Expected business declines are tagged REJECTED with their reason, whether they were returned as a result, as
+    // an error response or thrown, so one decline lands in one failure class whatever the code path.
+    private record Outcome(String outcome, String exception) {
+
+        static final Outcome SUCCEEDED = new Outcome(SUCCESS, NO_EXCEPTION);
+        static final Outcome CANCELLED_CALL = new Outcome(CANCELLED, NO_EXCEPTION);
+        static final Outcome REJECTED_RESPONSE = new Outcome(REJECTED, NO_EXCEPTION);
+
+        static Outcome of(Object result) {
+            if (result instanceof LedgerResult.Declined declined) {
+                return rejected(declined.reason());
+            }
+            if (result instanceof ResponseEntity<?> response && response.getStatusCode().isError()) {
+                return response.getBody() instanceof ApiError error
+                        ? RejectionReason.forError(error.statusCode(), error.message())
+                                .map(Outcome::rejected)
+                                .orElse(REJECTED_RESPONSE)
+                        : REJECTED_RESPONSE;
+            }
+            return SUCCEEDED;
+        }
+
+        static Outcome failed(Throwable failure) {
+            if (failure instanceof BusinessRejectionException rejection) {
+                return rejected(rejection.getReason());
+            }
+            if (failure instanceof AccountNotFoundException) {
+                return rejected(RejectionReason.ACCOUNT_NOT_FOUND);
+            }
+            return new Outcome(FAILURE, failure.getClass().getSimpleName());
+        }
+
+        private static Outcome rejected(RejectionReason reason) {
+            return new Outcome(REJECTED, reason.name());
+        }
+    }
+}
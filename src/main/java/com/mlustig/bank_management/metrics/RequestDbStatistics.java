@@ -0,0 +1,46 @@
+package com.mlustig.bank_management.metrics;
+
+import lombok.Getter;
+
+// Database work done on behalf of one HTTP request. RequestDbStatisticsFilter binds it to the request thread, the
+// JDBC wrappers of CountingDataSource and EntityLoadCounter update it. Work handed to other threads, such as group
+// commit batches or the rows of a streamed export, is not attributed to the request.
+@Getter
+public final class RequestDbStatistics {
+
+    public static final String REQUEST_ATTRIBUTE = RequestDbStatistics.class.getName();
+
+    private static final ThreadLocal<RequestDbStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private int entitiesLoaded;
+    private long jdbcNanos;
+
+    public static RequestDbStatistics start() {
+        RequestDbStatistics statistics = new RequestDbStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    static RequestDbStatistics current() {
+        return CURRENT.get();
+    }
+
+    void statementExecuted(long nanos) {
+        statements++;
+        jdbcNanos += nanos;
+    }
+
+    void rowFetched() {
+        rows++;
+    }
+
+    void entityLoaded() {
+        entitiesLoaded++;
+    }
+}
@@ -0,0 +1,169 @@
+package com.mlustig.bank_management.metrics;
+
+import com.mlustig.bank_management.config.DbStatisticsProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Binds a RequestDbStatistics to each request and records it per endpoint once the handler returns. Endpoints are
+// tagged by their mapping pattern, so the number of time series stays bounded whatever the account ids, and their
+// meters are registered once and reused.
+@Component
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "bank-management.db-statistics", name = "enabled")
+public class RequestDbStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Db-Statements";
+    public static final String ROWS_HEADER = "X-Db-Rows";
+    public static final String ENTITIES_HEADER = "X-Db-Entities-Loaded";
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final DbStatisticsProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<Endpoint, EndpointMeters> endpointMeters = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestDbStatistics statistics = RequestDbStatistics.start();
+        request.setAttribute(RequestDbStatistics.REQUEST_ATTRIBUTE, statistics);
+        StatisticsHeaderResponse headerResponse = properties.isResponseHeaders()
+                ? new StatisticsHeaderResponse(response, statistics)
+                : null;
+        try {
+            filterChain.doFilter(request, headerResponse != null ? headerResponse : response);
+        } finally {
+            RequestDbStatistics.clear();
+            if (headerResponse != null) {
+                headerResponse.writeHeaders();
+            }
+            record(request, statistics);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestDbStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Endpoint endpoint = new Endpoint(pattern != null ? pattern.toString() : "UNKNOWN", request.getMethod());
+        EndpointMeters meters = endpointMeters.computeIfAbsent(endpoint, this::register);
+        meters.statements().record(statistics.getStatements());
+        meters.rows().record(statistics.getRows());
+        meters.entitiesLoaded().record(statistics.getEntitiesLoaded());
+        meters.jdbcTime().record(statistics.getJdbcNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private EndpointMeters register(Endpoint endpoint) {
+        Tags tags = Tags.of("endpoint", endpoint.pattern(), "method", endpoint.method());
+        return new EndpointMeters(
+                DistributionSummary.builder("bank_account_request_db_statements")
+                        .description("Number of SQL statements executed per request")
+                        .baseUnit("statements")
+                        .tags(tags)
+                        .publishPercentileHistogram()
+                        .maximumExpectedValue(1_000.0)
+                        .register(meterRegistry),
+                DistributionSummary.builder("bank_account_request_db_rows")
+                        .description("Number of rows read from result sets per request")
+                        .baseUnit("rows")
+                        .tags(tags)
+                        .register(meterRegistry),
+                DistributionSummary.builder("bank_account_request_db_entities_loaded")
+                        .description("Number of entities loaded by Hibernate per request")
+                        .baseUnit("entities")
+                        .tags(tags)
+                        .register(meterRegistry),
+                Timer.builder("bank_account_request_db_timer")
+                        .description("Time spent executing SQL statements per request")
+                        .tags(tags)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+
+    private record Endpoint(String pattern, String method) {
+    }
+
+    private record EndpointMeters(DistributionSummary statements, DistributionSummary rows,
+                                  DistributionSummary entitiesLoaded, Timer jdbcTime) {
+    }
+
+    // Headers have to be set before the body commits the response, so they are written on the first access to the
+    // output, or after the chain for responses without a body.
+    private static class StatisticsHeaderResponse extends HttpServletResponseWrapper {
+
+        private final RequestDbStatistics statistics;
+        private boolean written;
+
+        StatisticsHeaderResponse(HttpServletResponse response, RequestDbStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(STATEMENTS_HEADER, String.valueOf(statistics.getStatements()));
+            setHeader(ROWS_HEADER, String.valueOf(statistics.getRows()));
+            setHeader(ENTITIES_HEADER, String.valueOf(statistics.getEntitiesLoaded()));
+            addHeader(SERVER_TIMING_HEADER, String.format(Locale.ROOT, "db;dur=%.3f;desc=\"%d statements\"",
+                    statistics.getJdbcNanos() / 1_000_000.0, statistics.getStatements()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
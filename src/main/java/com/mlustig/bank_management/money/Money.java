@@ -0,0 +1,171 @@
+package com.mlustig.bank_management.money;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Exact monetary amount held as a long number of minor units (cents). Arithmetic is plain long arithmetic with
+ * overflow checks; BigDecimal only appears at the JDBC boundary.
+ */
+@JsonSerialize(using = MoneyJson.Serializer.class)
+@JsonDeserialize(using = MoneyJson.Deserializer.class)
+public final class Money implements Comparable<Money>, Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static final int SCALE = 2;
+
+    private static final long CENTS_PER_UNIT = 100;
+
+    public static final Money ZERO = new Money(0);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    public static Money ofUnits(long units) {
+        return ofCents(Math.multiplyExact(units, CENTS_PER_UNIT));
+    }
+
+    // Used by Spring's conversion service for native query projections. Amounts with more than two significant
+    // decimals are rejected rather than rounded.
+    public static Money valueOf(BigDecimal amount) {
+        try {
+            return ofCents(amount.movePointRight(SCALE).longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Not an exact amount in cents: " + amount, e);
+        }
+    }
+
+    /**
+     * Parses a plain decimal such as "12", "-0.5" or "+1500.00" without creating intermediate objects. Trailing zeros
+     * beyond the second decimal are accepted, any other extra precision is rejected. Exponent notation falls back to
+     * {@link #valueOf(BigDecimal)}, which checks the precision after the exponent is applied, so "1.999e3" is fine.
+     */
+    public static Money parse(CharSequence text) {
+        if (hasExponent(text)) {
+            return valueOf(new BigDecimal(text.toString()));
+        }
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+
+        long units = 0;
+        int integerDigits = 0;
+        for (; i < length && isDigit(text.charAt(i)); i++, integerDigits++) {
+            units = Math.addExact(Math.multiplyExact(units, 10), text.charAt(i) - '0');
+        }
+
+        long fraction = 0;
+        int fractionDigits = 0;
+        if (i < length && text.charAt(i) == '.') {
+            for (i++; i < length && isDigit(text.charAt(i)); i++, fractionDigits++) {
+                int digit = text.charAt(i) - '0';
+                if (fractionDigits < SCALE) {
+                    fraction = fraction * 10 + digit;
+                } else if (digit != 0) {
+                    throw new IllegalArgumentException("More than " + SCALE + " decimals: " + text);
+                }
+            }
+        }
+
+        if (i != length || integerDigits + fractionDigits == 0) {
+            throw new IllegalArgumentException("Not a decimal amount: " + text);
+        }
+
+        for (int d = Math.min(fractionDigits, SCALE); d < SCALE; d++) {
+            fraction *= 10;
+        }
+        long cents = Math.addExact(Math.multiplyExact(units, CENTS_PER_UNIT), fraction);
+        return ofCents(negative ? -cents : cents);
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money other && cents == other.cents);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    // Always two decimals, e.g. "1500.00" and "-0.05"; this is also the JSON representation.
+    @Override
+    public String toString() {
+        long absolute = Math.abs(cents);
+        long units = absolute / CENTS_PER_UNIT;
+        long fraction = absolute % CENTS_PER_UNIT;
+        StringBuilder builder = new StringBuilder(24);
+        if (cents < 0) {
+            builder.append('-');
+        }
+        builder.append(units).append('.');
+        if (fraction < 10) {
+            builder.append('0');
+        }
+        return builder.append(fraction).toString();
+    }
+
+    private static boolean hasExponent(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == 'e' || c == 'E') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
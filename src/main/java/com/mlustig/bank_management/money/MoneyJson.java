@@ -0,0 +1,50 @@
+package com.mlustig.bank_management.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+// Money is written as a JSON number with two decimals and read from the number's literal text, so no double or
+// BigDecimal is involved in either direction. Bound on the Money class itself so every ObjectMapper picks it up.
+public final class MoneyJson {
+
+    private MoneyJson() {
+    }
+
+    public static class Serializer extends JsonSerializer<Money> {
+
+        @Override
+        public void serialize(Money value, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            generator.writeNumber(value.toString());
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<Money> {
+
+        @Override
+        public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                try {
+                    return Money.parse(parser.getText());
+                } catch (IllegalArgumentException | ArithmeticException e) {
+                    return (Money) context.handleWeirdNumberValue(Money.class, parser.getNumberValue(), e.getMessage());
+                }
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                try {
+                    return Money.parse(parser.getText().trim());
+                } catch (IllegalArgumentException | ArithmeticException e) {
+                    return (Money) context.handleWeirdStringValue(Money.class, parser.getText(), "not a valid amount");
+                }
+            }
+            return (Money) context.handleUnexpectedToken(Money.class, parser);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.mlustig.bank_management.money;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// R2DBC counterpart of MoneyAttributeConverter for the reactive rows.
+public final class MoneyR2dbcConverters {
+
+    private MoneyR2dbcConverters() {
+    }
+
+    public static List<Object> all() {
+        return List.of(new FromNumeric(), new ToNumeric());
+    }
+
+    @ReadingConverter
+    static class FromNumeric implements Converter<BigDecimal, Money> {
+
+        @Override
+        public Money convert(BigDecimal source) {
+            return Money.valueOf(source);
+        }
+    }
+
+    @WritingConverter
+    static class ToNumeric implements Converter<Money, BigDecimal> {
+
+        @Override
+        public BigDecimal convert(Money source) {
+            return source.toBigDecimal();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.mlustig.bank_management.partitioning;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// A range partition of the transaction table. A null bound is open (MINVALUE / MAXVALUE).
+public record TransactionPartition(String name, LocalDateTime from, LocalDateTime to) {
+
+    private static final Pattern RANGE = Pattern.compile("FOR VALUES FROM \\((.+)\\) TO \\((.+)\\)");
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    public static TransactionPartition forMonth(YearMonth month) {
+        return new TransactionPartition("transaction_p" + month.format(SUFFIX),
+                month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+    }
+
+    // Reads the bound as printed by pg_get_expr(relpartbound), e.g. FOR VALUES FROM (MINVALUE) TO ('2024-06-01 00:00:00').
+    public static TransactionPartition parse(String name, String bound) {
+        Matcher matcher = RANGE.matcher(bound);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Unsupported partition bound. name: " + name + ", bound: " + bound);
+        }
+        return new TransactionPartition(name, parseValue(matcher.group(1)), parseValue(matcher.group(2)));
+    }
+
+    public boolean overlaps(TransactionPartition other) {
+        return (from == null || other.to == null || from.isBefore(other.to))
+                && (other.from == null || to == null || other.from.isBefore(to));
+    }
+
+    public boolean endsBy(LocalDateTime cutoff) {
+        return to != null && !to.isAfter(cutoff);
+    }
+
+    public String boundSql() {
+        return "FOR VALUES FROM (" + formatValue(from, "MINVALUE") + ") TO (" + formatValue(to, "MAXVALUE") + ")";
+    }
+
+    private static LocalDateTime parseValue(String value) {
+        if (value.equals("MINVALUE") || value.equals("MAXVALUE")) {
+            return null;
+        }
+        return LocalDateTime.parse(value.substring(1, value.length() - 1), BOUND);
+    }
+
+    private static String formatValue(LocalDateTime value, String open) {
+        return value == null ? open : "'" + value.format(BOUND) + "'";
+    }
+}
@@ -0,0 +1,131 @@
+package com.mlustig.bank_management.partitioning;
+
+import com.mlustig.bank_management.config.PartitionProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+// Keeps the transaction table range partitioned by month on created_at. Hibernate creates the table as a plain one;
+// on first start it is swapped for a partitioned table and the existing rows become its first partition, covering
+// everything up to the end of the current month. From then on upcoming months are created ahead of time and, with a
+// retention set, old months are detached and left in place for archiving.
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@ConditionalOnProperty(prefix = "bank-management.partitioning", name = "enabled", matchIfMissing = true)
+public class TransactionPartitionManager {
+
+    static final String LEGACY_PARTITION = "transaction_legacy";
+
+    private final PartitionProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock = Clock.systemDefaultZone();
+
+    public TransactionPartitionManager(PartitionProperties properties, JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void start() {
+        maintainPartitions();
+    }
+
+    @Scheduled(initialDelayString = "${bank-management.partitioning.interval:PT6H}",
+            fixedDelayString = "${bank-management.partitioning.interval:PT6H}")
+    public void scheduledMaintenance() {
+        maintainPartitions();
+    }
+
+    // One transaction under an advisory lock, so replicas starting together do not race on the DDL.
+    public void maintainPartitions() {
+        YearMonth currentMonth = YearMonth.now(clock);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SELECT pg_advisory_xact_lock(hashtext('transaction_partitions'))");
+            if (!isPartitioned()) {
+                convertToPartitioned(currentMonth);
+            }
+            createUpcoming(currentMonth);
+            if (properties.getRetentionMonths() > 0) {
+                detachExpired(currentMonth.minusMonths(properties.getRetentionMonths()).atDay(1).atStartOfDay());
+            }
+        });
+    }
+
+    public List<TransactionPartition> findPartitions() {
+        return jdbcTemplate.query("""
+                        SELECT c.relname, pg_get_expr(c.relpartbound, c.oid)
+                        FROM pg_inherits i
+                        JOIN pg_class c ON c.oid = i.inhrelid
+                        WHERE i.inhparent = 'transaction'::regclass
+                        ORDER BY c.relname""",
+                (rs, rowNum) -> TransactionPartition.parse(rs.getString(1), rs.getString(2)));
+    }
+
+    private boolean isPartitioned() {
+        String kind = jdbcTemplate.queryForObject("""
+                SELECT c.relkind::text
+                FROM pg_class c
+                JOIN pg_namespace n ON n.oid = c.relnamespace
+                WHERE c.relname = 'transaction' AND n.nspname = current_schema()""", String.class);
+        return "p".equals(kind);
+    }
+
+    // Attaching the old table scans it once to validate the bound and builds the (id, created_at) key on it; the
+    // account and created_at indexes are reused because they match the parent's.
+    private void convertToPartitioned(YearMonth currentMonth) {
+        TransactionPartition legacy = new TransactionPartition(LEGACY_PARTITION, null,
+                currentMonth.plusMonths(1).atDay(1).atStartOfDay());
+        log.info("TransactionPartitionManager.convertToPartitioned() - converting the transaction table. legacy: {}", legacy);
+
+        jdbcTemplate.execute("ALTER TABLE transaction RENAME TO " + LEGACY_PARTITION);
+        for (String index : jdbcTemplate.queryForList("""
+                SELECT indexname FROM pg_indexes
+                WHERE schemaname = current_schema() AND tablename = ?""", String.class, LEGACY_PARTITION)) {
+            jdbcTemplate.execute("ALTER INDEX " + index + " RENAME TO " + index.replaceFirst("^transaction_", LEGACY_PARTITION + "_"));
+        }
+        jdbcTemplate.execute("ALTER TABLE " + LEGACY_PARTITION + " ALTER COLUMN created_at SET NOT NULL");
+
+        jdbcTemplate.execute("CREATE TABLE transaction (LIKE " + LEGACY_PARTITION
+                + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY RANGE (created_at)");
+        // The partition key has to be part of the primary key; ids stay unique through the sequence.
+        jdbcTemplate.execute("ALTER TABLE transaction ADD CONSTRAINT transaction_pkey PRIMARY KEY (id, created_at)");
+        jdbcTemplate.execute("CREATE INDEX transaction_account_created_at_id_idx ON transaction (bank_account_id, created_at DESC, id DESC)");
+        jdbcTemplate.execute("CREATE INDEX transaction_created_at_idx ON transaction (created_at)");
+        jdbcTemplate.execute("ALTER TABLE transaction ATTACH PARTITION " + LEGACY_PARTITION + " " + legacy.boundSql());
+    }
+
+    private void createUpcoming(YearMonth currentMonth) {
+        List<TransactionPartition> existing = findPartitions();
+        for (int i = 0; i <= properties.getMonthsAhead(); i++) {
+            TransactionPartition partition = TransactionPartition.forMonth(currentMonth.plusMonths(i));
+            if (existing.stream().noneMatch(partition::overlaps)) {
+                jdbcTemplate.execute("CREATE TABLE " + partition.name() + " PARTITION OF transaction " + partition.boundSql());
+                log.info("TransactionPartitionManager.createUpcoming() - created partition. partition: {}", partition);
+            }
+        }
+    }
+
+    private void detachExpired(LocalDateTime cutoff) {
+        for (TransactionPartition partition : findPartitions()) {
+            if (partition.endsBy(cutoff)) {
+                jdbcTemplate.execute("ALTER TABLE transaction DETACH PARTITION " + partition.name());
+                log.info("TransactionPartitionManager.detachExpired() - detached partition. partition: {}, cutoff: {}",
+                        partition, cutoff);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.mlustig.bank_management.projections;
+
+import com.mlustig.bank_management.money.Money;
+import lombok.Value;
+
+@Value
+public class BankAccountSnapshot implements BankAccountSummary {
+
+    Long id;
+    String accountId;
+    String firstName;
+    String lastName;
+    Money balance;
+    Money minimumBalance;
+    boolean active;
+
+    public static BankAccountSnapshot of(BankAccountSummary summary) {
+        if (summary instanceof BankAccountSnapshot snapshot) {
+            return snapshot;
+        }
+        return new BankAccountSnapshot(summary.getId(), summary.getAccountId(), summary.getFirstName(),
+                summary.getLastName(), summary.getBalance(), summary.getMinimumBalance(), summary.isActive());
+    }
+}
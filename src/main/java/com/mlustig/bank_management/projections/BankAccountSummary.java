@@ -0,0 +1,20 @@
+package com.mlustig.bank_management.projections;
+
+import com.mlustig.bank_management.money.Money;
+
+public interface BankAccountSummary {
+
+    Long getId();
+
+    String getAccountId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    Money getBalance();
+
+    Money getMinimumBalance();
+
+    boolean isActive();
+}
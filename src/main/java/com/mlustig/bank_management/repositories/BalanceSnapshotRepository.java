@@ -0,0 +1,63 @@
+package com.mlustig.bank_management.repositories;
+
+import com.mlustig.bank_management.dao.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, BalanceSnapshot.Key> {
+
+    @Query("SELECT MAX(bs.snapshotDate) FROM BalanceSnapshot bs")
+    Optional<LocalDate> findLastSnapshotDate();
+
+    @Query(value = """
+            SELECT * FROM balance_snapshot
+            WHERE bank_account_id = :bankAccountId AND snapshot_date < :day
+            ORDER BY snapshot_date DESC
+            LIMIT 1""", nativeQuery = true)
+    Optional<BalanceSnapshot> findLatestBefore(@Param("bankAccountId") Long bankAccountId, @Param("day") LocalDate day);
+
+    @Query(value = """
+            SELECT * FROM balance_snapshot
+            WHERE bank_account_id = :bankAccountId AND snapshot_date >= :day
+            ORDER BY snapshot_date
+            LIMIT 1""", nativeQuery = true)
+    Optional<BalanceSnapshot> findEarliestFrom(@Param("bankAccountId") Long bankAccountId, @Param("day") LocalDate day);
+
+    // Snapshots every account with transactions on the given day in one pass over that day's rows. The closing
+    // balance chains from the account's previous snapshot; an account without one is rewound from its current
+    // balance, which happens once per account. Rebuilding a day is a no-op.
+    @Modifying
+    @Query(value = """
+            WITH day AS (
+                SELECT bank_account_id,
+                       SUM(CASE WHEN type IN ('WITHDRAW', 'TRANSFER_OUT') THEN -amount ELSE amount END) AS delta,
+                       COUNT(*) AS transaction_count
+                FROM transaction
+                WHERE created_at >= :dayStart AND created_at < :dayEnd
+                GROUP BY bank_account_id
+            )
+            INSERT INTO balance_snapshot (bank_account_id, snapshot_date, balance, transaction_count)
+            SELECT day.bank_account_id, :snapshotDate,
+                   COALESCE((SELECT previous.balance
+                             FROM balance_snapshot previous
+                             WHERE previous.bank_account_id = day.bank_account_id
+                               AND previous.snapshot_date < :snapshotDate
+                             ORDER BY previous.snapshot_date DESC
+                             LIMIT 1) + day.delta,
+                            ba.balance - COALESCE((SELECT SUM(CASE WHEN later.type IN ('WITHDRAW', 'TRANSFER_OUT') THEN -later.amount ELSE later.amount END)
+                                                   FROM transaction later
+                                                   WHERE later.bank_account_id = ba.id AND later.created_at >= :dayEnd), 0)),
+                   day.transaction_count
+            FROM day
+            JOIN bank_account ba ON ba.id = day.bank_account_id
+            ON CONFLICT (bank_account_id, snapshot_date) DO NOTHING""", nativeQuery = true)
+    int buildDay(@Param("snapshotDate") LocalDate snapshotDate,
+                 @Param("dayStart") LocalDateTime dayStart,
+                 @Param("dayEnd") LocalDateTime dayEnd);
+}
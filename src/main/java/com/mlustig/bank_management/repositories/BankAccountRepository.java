@@ -1,18 +1,62 @@
 package com.mlustig.bank_management.repositories;
 
 import com.mlustig.bank_management.dao.BankAccount;
+import com.mlustig.bank_management.projections.BankAccountSummary;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface BankAccountRepository extends JpaRepository<BankAccount, Long> {
     @Query("SELECT ba FROM BankAccount ba WHERE ba.accountId = :accountId")
     Optional<BankAccount> findBankAccountByAccountId(@Param("accountId") String accountId);
 
+    @Query("""
+            SELECT ba.id AS id, ba.accountId AS accountId, ba.firstName AS firstName, ba.lastName AS lastName,
+                   ba.balance AS balance, ba.minimumBalance AS minimumBalance, ba.active AS active
+            FROM BankAccount ba
+            WHERE ba.accountId = :accountId""")
+    Optional<BankAccountSummary> findSummaryByAccountId(@Param("accountId") String accountId);
+
+    @EntityGraph(attributePaths = "transactions")
+    @Query("SELECT ba FROM BankAccount ba WHERE ba.accountId = :accountId")
+    Optional<BankAccount> findBankAccountWithTransactionsByAccountId(@Param("accountId") String accountId);
+
     @Modifying
     @Query("DELETE FROM BankAccount ba WHERE ba.accountId = :accountId")
     void deleteByAccountId(@Param("accountId") String accountId);
-}
\ No newline at end of file
+
+    // Applies the delta only when the account is active and, for debits, the minimum balance still holds.
+    // An empty result means nothing was updated; the caller decides why.
+    @Query(value = """
+            UPDATE bank_account
+            SET balance = balance + :delta, version = version + 1, updated_at = now()
+            WHERE account_id = :accountId
+              AND active
+              AND (:delta >= 0 OR balance + :delta >= minimum_balance)
+            RETURNING id, account_id AS "accountId", first_name AS "firstName", last_name AS "lastName",
+                      balance, minimum_balance AS "minimumBalance", active""", nativeQuery = true)
+    Optional<BankAccountSummary> applyBalanceDelta(@Param("accountId") String accountId, @Param("delta") BigDecimal delta);
+
+    @Query(value = """
+            SELECT id, account_id AS "accountId", first_name AS "firstName", last_name AS "lastName",
+                   balance, minimum_balance AS "minimumBalance", active
+            FROM bank_account
+            WHERE account_id = :accountId
+            FOR UPDATE""", nativeQuery = true)
+    Optional<BankAccountSummary> lockBankAccountSummary(@Param("accountId") String accountId);
+
+    // Current balance minus everything booked from :asOf on. One statement, so both sides read the same data.
+    @Query(value = """
+            SELECT ba.balance - COALESCE((SELECT SUM(CASE WHEN t.type IN ('WITHDRAW', 'TRANSFER_OUT') THEN -t.amount ELSE t.amount END)
+                                          FROM transaction t
+                                          WHERE t.bank_account_id = ba.id AND t.created_at >= :asOf), 0)
+            FROM bank_account ba
+            WHERE ba.id = :bankAccountId""", nativeQuery = true)
+    BigDecimal findBalanceRewoundTo(@Param("bankAccountId") Long bankAccountId, @Param("asOf") LocalDateTime asOf);
+}
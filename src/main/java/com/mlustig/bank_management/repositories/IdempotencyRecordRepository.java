@@ -0,0 +1,43 @@
+package com.mlustig.bank_management.repositories;
+
+import com.mlustig.bank_management.dao.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Claims the key unless a live record holds it; an expired record is taken over in place. Returns 0 when the key
+    // is taken. A concurrent claim of the same key blocks on the unique index until the other transaction finishes.
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_record (idempotency_key, account_id, type, amount, response, created_at, expires_at)
+            VALUES (:idempotencyKey, :accountId, :type, :amount, :response, :createdAt, :expiresAt)
+            ON CONFLICT (idempotency_key) DO UPDATE
+            SET account_id = EXCLUDED.account_id, type = EXCLUDED.type, amount = EXCLUDED.amount,
+                response = EXCLUDED.response, created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at
+            WHERE idempotency_record.expires_at <= EXCLUDED.created_at""", nativeQuery = true)
+    int claim(@Param("idempotencyKey") String idempotencyKey,
+              @Param("accountId") String accountId,
+              @Param("type") String type,
+              @Param("amount") BigDecimal amount,
+              @Param("response") String response,
+              @Param("createdAt") LocalDateTime createdAt,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord ir SET ir.response = :response WHERE ir.idempotencyKey = :idempotencyKey")
+    int storeResponse(@Param("idempotencyKey") String idempotencyKey, @Param("response") String response);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord ir WHERE ir.idempotencyKey = :idempotencyKey")
+    int release(@Param("idempotencyKey") String idempotencyKey);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord ir WHERE ir.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -2,6 +2,43 @@ package com.mlustig.bank_management.repositories;
 
 import com.mlustig.bank_management.dao.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-}
\ No newline at end of file
+
+    // Keyset page, newest first, backed by transaction_account_created_at_id_idx. Filters use sentinels instead of nulls.
+    // The plain created_at bounds let the planner prune monthly partitions; the row comparison alone would not.
+    @Query(value = """
+            SELECT * FROM transaction
+            WHERE bank_account_id = :bankAccountId
+              AND (:type = '' OR type = :type)
+              AND created_at >= :from AND created_at < :to
+              AND created_at <= :cursorCreatedAt
+              AND (created_at, id) < (:cursorCreatedAt, :cursorId)
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit""", nativeQuery = true)
+    List<Transaction> findPage(@Param("bankAccountId") Long bankAccountId,
+                               @Param("type") String type,
+                               @Param("from") LocalDateTime from,
+                               @Param("to") LocalDateTime to,
+                               @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                               @Param("cursorId") Long cursorId,
+                               @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT COALESCE(SUM(CASE WHEN type IN ('WITHDRAW', 'TRANSFER_OUT') THEN -amount ELSE amount END), 0)
+            FROM transaction
+            WHERE bank_account_id = :bankAccountId AND created_at >= :from AND created_at < :to""", nativeQuery = true)
+    BigDecimal sumSignedAmounts(@Param("bankAccountId") Long bankAccountId,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to);
+
+    @Query("SELECT MIN(t.createdAt) FROM Transaction t WHERE t.createdAt >= :from")
+    Optional<LocalDateTime> findFirstCreatedAtFrom(@Param("from") LocalDateTime from);
+}
@@ -0,0 +1,49 @@
+package com.mlustig.bank_management.repositories.reactive;
+
+import com.mlustig.bank_management.dao.BankAccountRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+public interface ReactiveBankAccountRepository extends R2dbcRepository<BankAccountRow, Long> {
+
+    Mono<BankAccountRow> findByAccountId(String accountId);
+
+    // Ids come from the same sequence Hibernate allocates its pooled blocks from, so both stacks can write the table.
+    @Query("""
+            INSERT INTO bank_account (id, account_id, first_name, last_name, balance, minimum_balance, active, version,
+                                      created_at, updated_at)
+            VALUES (nextval('bank_account_id_sequence'), :accountId, :firstName, :lastName, :balance, :minimumBalance,
+                    :active, 0, LOCALTIMESTAMP, LOCALTIMESTAMP)
+            RETURNING *""")
+    Mono<BankAccountRow> insert(@Param("accountId") String accountId, @Param("firstName") String firstName,
+                                @Param("lastName") String lastName, @Param("balance") BigDecimal balance,
+                                @Param("minimumBalance") BigDecimal minimumBalance, @Param("active") boolean active);
+
+    // Same guard as BankAccountRepository.applyBalanceDelta: empty when nothing was updated.
+    @Query("""
+            UPDATE bank_account
+            SET balance = balance + :delta, version = version + 1, updated_at = LOCALTIMESTAMP
+            WHERE account_id = :accountId
+              AND active
+              AND (:delta >= 0 OR balance + :delta >= minimum_balance)
+            RETURNING *""")
+    Mono<BankAccountRow> applyBalanceDelta(@Param("accountId") String accountId, @Param("delta") BigDecimal delta);
+
+    // Empty when the account does not exist or already has the requested state.
+    @Query("""
+            UPDATE bank_account
+            SET active = :active, version = version + 1, updated_at = LOCALTIMESTAMP
+            WHERE account_id = :accountId
+              AND active <> :active
+            RETURNING *""")
+    Mono<BankAccountRow> updateActive(@Param("accountId") String accountId, @Param("active") boolean active);
+
+    @Modifying
+    @Query("DELETE FROM bank_account WHERE account_id = :accountId")
+    Mono<Integer> deleteByAccountId(@Param("accountId") String accountId);
+}
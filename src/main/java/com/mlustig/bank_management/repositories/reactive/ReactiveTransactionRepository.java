@@ -0,0 +1,22 @@
+package com.mlustig.bank_management.repositories.reactive;
+
+import com.mlustig.bank_management.dao.TransactionRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+public interface ReactiveTransactionRepository extends R2dbcRepository<TransactionRow, Long> {
+
+    Flux<TransactionRow> findByBankAccountIdOrderByCreatedAtAscIdAsc(Long bankAccountId);
+
+    @Query("""
+            INSERT INTO transaction (id, bank_account_id, amount, type, created_at)
+            VALUES (nextval('transaction_id_sequence'), :bankAccountId, :amount, :type, LOCALTIMESTAMP)
+            RETURNING *""")
+    Mono<TransactionRow> insert(@Param("bankAccountId") Long bankAccountId, @Param("amount") BigDecimal amount,
+                                @Param("type") String type);
+}
@@ -0,0 +1,22 @@
+package com.mlustig.bank_management.requests;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.validators.AccountId;
+import com.mlustig.bank_management.validators.PositiveAmount;
+import jakarta.validation.constraints.AssertTrue;
+import lombok.NonNull;
+
+public record BatchTransactionItem(
+        @AccountId @NonNull String accountId,
+        @NonNull TransactionType type,
+        @PositiveAmount Money amount) {
+
+    // Transfer legs are only ever written in pairs, by the transfer endpoint.
+    @JsonIgnore
+    @AssertTrue(message = "Transfers are not supported in a batch")
+    public boolean isStandaloneType() {
+        return type == TransactionType.DEPOSIT || type == TransactionType.WITHDRAW;
+    }
+}
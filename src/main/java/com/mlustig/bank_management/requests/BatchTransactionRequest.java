@@ -0,0 +1,21 @@
+package com.mlustig.bank_management.requests;
+
+import com.mlustig.bank_management.enums.BatchMode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchTransactionRequest(
+        BatchMode mode,
+        @NotEmpty @Size(max = BatchTransactionRequest.MAX_ITEMS) List<@Valid BatchTransactionItem> items) {
+
+    public static final int MAX_ITEMS = 10_000;
+
+    public BatchTransactionRequest {
+        if (mode == null) {
+            mode = BatchMode.PER_ITEM;
+        }
+    }
+}
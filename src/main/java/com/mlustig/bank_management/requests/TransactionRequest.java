@@ -1,10 +1,11 @@
 package com.mlustig.bank_management.requests;
 
-import jakarta.validation.constraints.Email;
-import jakarta.validation.constraints.Positive;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.validators.AccountId;
+import com.mlustig.bank_management.validators.PositiveAmount;
 import lombok.NonNull;
 
 public record TransactionRequest(
-        @Email(message = "Invalid email format") @NonNull String accountId,
-        @Positive(message = "Amount must be a positive number") double amount) {
+        @AccountId @NonNull String accountId,
+        @PositiveAmount Money amount) {
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.mlustig.bank_management.requests;
+
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.validators.AccountId;
+import com.mlustig.bank_management.validators.PositiveAmount;
+import lombok.NonNull;
+
+public record TransferRequest(
+        @AccountId @NonNull String fromAccountId,
+        @AccountId @NonNull String toAccountId,
+        @PositiveAmount Money amount) {
+}
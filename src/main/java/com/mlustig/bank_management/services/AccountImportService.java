@@ -0,0 +1,218 @@
+package com.mlustig.bank_management.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mlustig.bank_management.config.ImportProperties;
+import com.mlustig.bank_management.dto.AccountImportDto;
+import com.mlustig.bank_management.dto.BankAccountDto;
+import com.mlustig.bank_management.dto.ImportRejectionDto;
+import com.mlustig.bank_management.enums.ImportFormat;
+import com.mlustig.bank_management.importing.AccountCopyLoader;
+import com.mlustig.bank_management.importing.AccountImportRow;
+import com.mlustig.bank_management.importing.AccountRecordParser;
+import com.mlustig.bank_management.metrics.Measured;
+import com.mlustig.bank_management.validators.EmailValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Reads the file line by line and hands batches to a small pool for parsing and validation, while the calling thread
+// loads the oldest validated batch. At most parallelism + 1 batches are held in memory, whatever the file size.
+// Batches are loaded in file order, so the first occurrence of a duplicated account id is the one imported.
+@Slf4j
+@Service
+@Measured(Measured.Layer.SERVICE)
+@RequiredArgsConstructor
+public class AccountImportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final AccountCopyLoader loader;
+    private final ImportProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public AccountImportDto importAccounts(InputStream in, ImportFormat format) {
+        log.info("AccountImportService.importAccounts(in,format) - import bank accounts. format: {}, batchSize: {}",
+                format, properties.getBatchSize());
+        ImportReport report = new ImportReport(properties.getMaxReportedRejections());
+        ExecutorService validators = Executors.newFixedThreadPool(properties.getParallelism());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            int lineNumber = 0;
+            AccountRecordParser parser;
+            if (format == ImportFormat.CSV) {
+                String header = reader.readLine();
+                lineNumber++;
+                if (header == null) {
+                    return report.toDto();
+                }
+                parser = AccountRecordParser.forCsv(header);
+            } else {
+                parser = AccountRecordParser.forJsonLines(objectMapper);
+            }
+
+            Deque<Future<ValidatedBatch>> pending = new ArrayDeque<>();
+            List<RawLine> batch = new ArrayList<>(properties.getBatchSize());
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(new RawLine(lineNumber, line));
+                if (batch.size() == properties.getBatchSize()) {
+                    List<RawLine> lines = batch;
+                    pending.add(validators.submit(() -> validate(parser, lines)));
+                    batch = new ArrayList<>(properties.getBatchSize());
+                    if (pending.size() > properties.getParallelism()) {
+                        load(await(pending.poll()), report);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                List<RawLine> lines = batch;
+                pending.add(validators.submit(() -> validate(parser, lines)));
+            }
+            while (!pending.isEmpty()) {
+                load(await(pending.poll()), report);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            validators.shutdownNow();
+        }
+        log.info("AccountImportService.importAccounts(in,format) - import finished. received: {}, imported: {}, rejected: {}",
+                report.received, report.imported, report.rejected);
+        return report.toDto();
+    }
+
+    private ValidatedBatch validate(AccountRecordParser parser, List<RawLine> lines) {
+        List<AccountImportRow> accepted = new ArrayList<>(lines.size());
+        List<ImportRejectionDto> rejected = new ArrayList<>();
+        for (RawLine line : lines) {
+            BankAccountDto account;
+            try {
+                account = parser.parse(line.text());
+            } catch (RuntimeException e) {
+                rejected.add(new ImportRejectionDto(line.number(), null, "Unreadable record: " + e.getMessage()));
+                continue;
+            }
+            String reason = rejectionReason(account);
+            if (reason != null) {
+                rejected.add(new ImportRejectionDto(line.number(), account.accountId(), reason));
+            } else {
+                accepted.add(new AccountImportRow(line.number(), account));
+            }
+        }
+        return new ValidatedBatch(lines.size(), accepted, rejected);
+    }
+
+    // The same checks a single create goes through, plus the column lengths, so that one bad record cannot fail
+    // the COPY of its whole batch.
+    private static String rejectionReason(BankAccountDto account) {
+        if (!EmailValidator.isWellFormed(account.accountId())) {
+            return "Invalid email format";
+        }
+        if (account.firstName().isBlank() || account.lastName().isBlank()) {
+            return "First and last name are required";
+        }
+        if (account.accountId().length() > MAX_TEXT_LENGTH || account.firstName().length() > MAX_TEXT_LENGTH
+                || account.lastName().length() > MAX_TEXT_LENGTH) {
+            return "Longer than " + MAX_TEXT_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private void load(ValidatedBatch batch, ImportReport report) {
+        report.received += batch.received();
+        batch.rejected().forEach(report::reject);
+        if (batch.accepted().isEmpty()) {
+            return;
+        }
+        try {
+            record(batch.accepted(), loader.load(batch.accepted()), report);
+        } catch (RuntimeException e) {
+            log.warn("AccountImportService.load - batch rejected by the database, loading record by record. firstLine: {}",
+                    batch.accepted().get(0).line(), e);
+            for (AccountImportRow row : batch.accepted()) {
+                loadOne(row, report);
+            }
+        }
+    }
+
+    private void loadOne(AccountImportRow row, ImportReport report) {
+        try {
+            record(List.of(row), loader.load(List.of(row)), report);
+        } catch (RuntimeException e) {
+            report.reject(new ImportRejectionDto(row.line(), row.account().accountId(),
+                    "Rejected by the database: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+        }
+    }
+
+    private static void record(List<AccountImportRow> rows, Set<String> inserted, ImportReport report) {
+        for (AccountImportRow row : rows) {
+            if (inserted.remove(row.account().accountId())) {
+                report.imported++;
+            } else {
+                report.reject(new ImportRejectionDto(row.line(), row.account().accountId(), "Duplicate account id"));
+            }
+        }
+    }
+
+    private static ValidatedBatch await(Future<ValidatedBatch> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating an import batch", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Validating an import batch failed", e.getCause());
+        }
+    }
+
+    private record RawLine(int number, String text) {
+    }
+
+    private record ValidatedBatch(int received, List<AccountImportRow> accepted, List<ImportRejectionDto> rejected) {
+    }
+
+    private static class ImportReport {
+
+        private final int maxReported;
+        private final List<ImportRejectionDto> rejections = new ArrayList<>();
+        private int received;
+        private int imported;
+        private int rejected;
+
+        ImportReport(int maxReported) {
+            this.maxReported = maxReported;
+        }
+
+        void reject(ImportRejectionDto rejection) {
+            rejected++;
+            if (rejections.size() < maxReported) {
+                rejections.add(rejection);
+            }
+        }
+
+        AccountImportDto toDto() {
+            return new AccountImportDto(received, imported, rejected, List.copyOf(rejections));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.mlustig.bank_management.services;
+
+import com.mlustig.bank_management.config.SnapshotProperties;
+import com.mlustig.bank_management.facades.DataFacade;
+import com.mlustig.bank_management.metrics.Measured;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@Measured(Measured.Layer.SERVICE)
+@RequiredArgsConstructor
+public class BalanceSnapshotService {
+
+    private static final LocalDate EARLIEST = LocalDate.of(1970, 1, 1);
+
+    private final DataFacade dataFacade;
+    private final SnapshotProperties properties;
+    private final Clock clock = Clock.systemDefaultZone();
+
+    @Scheduled(initialDelayString = "${bank-management.snapshots.interval:PT15M}",
+            fixedDelayString = "${bank-management.snapshots.interval:PT15M}")
+    public void scheduledBuild() {
+        if (properties.isEnabled()) {
+            buildSnapshots();
+        }
+    }
+
+    // Picks up after the last snapshotted day and walks forward through days that have transactions, one
+    // transaction per day. Every transaction row is read once, when its day is built.
+    public int buildSnapshots() {
+        LocalDate closedBefore = LocalDateTime.now(clock).minus(properties.getSettleWindow()).toLocalDate();
+        int days = 0;
+        Optional<LocalDate> next = dataFacade.findNextSnapshotDay(EARLIEST);
+        while (next.isPresent() && next.get().isBefore(closedBefore) && days < properties.getMaxDaysPerRun()) {
+            LocalDate day = next.get();
+            int accounts = dataFacade.buildBalanceSnapshots(day);
+            log.info("BalanceSnapshotService.buildSnapshots() - built balance snapshots. day: {}, accounts: {}", day, accounts);
+            days++;
+            next = dataFacade.findNextSnapshotDay(day.plusDays(1));
+        }
+        return days;
+    }
+}
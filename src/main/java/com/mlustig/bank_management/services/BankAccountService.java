@@ -1,151 +1,256 @@
 package com.mlustig.bank_management.services;
 
+import com.mlustig.bank_management.concurrency.GroupCommitBatcher;
+import com.mlustig.bank_management.concurrency.LedgerConcurrency;
 import com.mlustig.bank_management.dao.BankAccount;
+import com.mlustig.bank_management.dao.IdempotencyRecord;
+import com.mlustig.bank_management.dto.BalanceDto;
 import com.mlustig.bank_management.dto.BankAccountDto;
+import com.mlustig.bank_management.dto.HistoricalBalanceDto;
+import com.mlustig.bank_management.dto.LedgerResult;
 import com.mlustig.bank_management.enums.BankAccountFields;
+import com.mlustig.bank_management.enums.RejectionReason;
 import com.mlustig.bank_management.enums.TransactionType;
-import com.mlustig.bank_management.exceptions.EmailValidationException;
-import com.mlustig.bank_management.exceptions.InactiveAccountException;
-import com.mlustig.bank_management.exceptions.InsufficientFundsException;
+import com.mlustig.bank_management.exceptions.IdempotencyKeyConflictException;
 import com.mlustig.bank_management.facades.DataFacade;
+import com.mlustig.bank_management.idempotency.IdempotencyStore;
+import com.mlustig.bank_management.logging.EventLog;
 import com.mlustig.bank_management.mappers.BankAccountMapper;
-import com.mlustig.bank_management.validators.EmailValidator;
-import jakarta.persistence.EntityNotFoundException;
+import com.mlustig.bank_management.metrics.Measured;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.validators.AccountRules;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.util.Pair;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @Service
+@Measured(Measured.Layer.SERVICE)
 public class BankAccountService {
 
+    private static final String ACCOUNT_READ = "account.read";
+    private static final String ACCOUNT_WRITE = "account.write";
+    private static final String LEDGER = "ledger";
+
     private final DataFacade dataFacade;
     private final BankAccountMapper mapper;
+    private final LedgerConcurrency ledgerConcurrency;
+    private final GroupCommitBatcher groupCommitBatcher;
+    private final IdempotencyStore idempotencyStore;
+    private final EventLog eventLog;
 
-    public BankAccountService(DataFacade dataFacade, BankAccountMapper mapper) {
+    public BankAccountService(DataFacade dataFacade, BankAccountMapper mapper, LedgerConcurrency ledgerConcurrency,
+                              GroupCommitBatcher groupCommitBatcher, IdempotencyStore idempotencyStore, EventLog eventLog) {
         this.dataFacade = dataFacade;
         this.mapper = mapper;
+        this.ledgerConcurrency = ledgerConcurrency;
+        this.groupCommitBatcher = groupCommitBatcher;
+        this.idempotencyStore = idempotencyStore;
+        this.eventLog = eventLog;
     }
 
     public Optional<BankAccountDto> getAccountInfo(String accountId) {
-        log.info("BankAccountService.getAccountInfo(accountId) - get info about bank account. accountId: {}", accountId);
-        validateAccountId(accountId);
+        return getAccountInfo(accountId, true);
+    }
+
+    public Optional<BankAccountDto> getAccountInfo(String accountId, boolean withTransactions) {
+        eventLog.event(log, ACCOUNT_READ)
+                .addKeyValue("accountId", accountId)
+                .addKeyValue("withTransactions", withTransactions)
+                .log("BankAccountService.getAccountInfo(accountId,withTransactions) - get info about bank account");
+        AccountRules.validateAccountId(accountId);
+
+        if (!withTransactions) {
+            return Optional.of(dataFacade.findBankAccountSummaryByAccountId(accountId)
+                    .map(mapper::toDto)
+                    .orElseThrow(AccountRules::accountNotFound));
+        }
 
-        Optional<BankAccount> bankAccount = dataFacade.findBankAccountByAccountId(accountId);
+        Optional<BankAccount> bankAccount = dataFacade.findBankAccountWithTransactionsByAccountId(accountId);
         if (bankAccount.isEmpty()) {
-            throw new EntityNotFoundException("Invalid bank account");
+            throw AccountRules.accountNotFound();
         }
         return bankAccount.map(mapper::toDto);
     }
 
+    public Optional<BalanceDto> getBalance(String accountId) {
+        eventLog.event(log, ACCOUNT_READ)
+                .addKeyValue("accountId", accountId)
+                .log("BankAccountService.getBalance(accountId) - get balance of bank account");
+        AccountRules.validateAccountId(accountId);
+
+        return Optional.of(dataFacade.findBankAccountSummaryByAccountId(accountId)
+                .map(mapper::toBalanceDto)
+                .orElseThrow(AccountRules::accountNotFound));
+    }
+
+    public Optional<HistoricalBalanceDto> getBalance(String accountId, LocalDateTime asOf) {
+        eventLog.event(log, ACCOUNT_READ)
+                .addKeyValue("accountId", accountId)
+                .addKeyValue("asOf", asOf)
+                .log("BankAccountService.getBalance(accountId,asOf) - get balance of bank account at a point in time");
+        AccountRules.validateAccountId(accountId);
+
+        return Optional.of(dataFacade.findBalanceAsOf(accountId, asOf)
+                .map(balance -> new HistoricalBalanceDto(accountId, balance, asOf))
+                .orElseThrow(AccountRules::accountNotFound));
+    }
+
     public Optional<BankAccountDto> createAccount(BankAccountDto bankAccountDto) {
-        log.info("BankAccountService.createAccount(bankAccount) - create bank account");
+        eventLog.event(log, ACCOUNT_WRITE)
+                .log("BankAccountService.createAccount(bankAccount) - create bank account");
         return dataFacade.saveBankAccount(mapper.toDao(bankAccountDto)).map(mapper::toDto);
     }
 
     public void deleteBankAccountByAccountId(String accountId) {
-        log.info("BankAccountService.deleteBankAccountByAccountId(accountId) - delete bank account. accountId: {}", accountId);
-        validateAccountId(accountId);
+        eventLog.event(log, ACCOUNT_WRITE)
+                .addKeyValue("accountId", accountId)
+                .log("BankAccountService.deleteBankAccountByAccountId(accountId) - delete bank account");
+        AccountRules.validateAccountId(accountId);
 
         dataFacade.deleteBankAccountByAccountId(accountId);
     }
 
     public Optional<BankAccountDto> activateAccount(String accountId) {
-        log.info("BankAccountService.activateAccount(accountId) - make a bank account active. accountId: {}", accountId);
-        validateAccountId(accountId);
+        eventLog.event(log, ACCOUNT_WRITE)
+                .addKeyValue("accountId", accountId)
+                .log("BankAccountService.activateAccount(accountId) - make a bank account active");
+        AccountRules.validateAccountId(accountId);
 
-        Optional<BankAccount> original = dataFacade.findBankAccountByAccountId(accountId);
-        if (original.isEmpty()) {
-            throw new EntityNotFoundException("Invalid bank account");
-        } else if (original.get().isActive()) {
-            return Optional.of(mapper.toDto(original.get()));
-        } else {
-            return dataFacade.updateBankAccount(accountId, List.of(Pair.of(BankAccountFields.ACTIVE, "true"))).map(mapper::toDto);
-        }
+        return ledgerConcurrency.mutateVersioned(accountId, () -> {
+            Optional<BankAccount> original = dataFacade.findBankAccountByAccountId(accountId);
+            if (original.isEmpty()) {
+                throw AccountRules.accountNotFound();
+            } else if (original.get().isActive()) {
+                return unchanged(accountId);
+            } else {
+                return dataFacade.updateBankAccount(accountId, original.get().getVersion(), List.of(Pair.of(BankAccountFields.ACTIVE, "true"))).map(mapper::toDto);
+            }
+        });
     }
 
     public Optional<BankAccountDto> deactivateAccount(String accountId) {
-        log.info("BankAccountService.deactivateAccount(accountId) - make a bank account inactive. accountId: {}", accountId);
-        validateAccountId(accountId);
+        eventLog.event(log, ACCOUNT_WRITE)
+                .addKeyValue("accountId", accountId)
+                .log("BankAccountService.deactivateAccount(accountId) - make a bank account inactive");
+        AccountRules.validateAccountId(accountId);
 
-        Optional<BankAccount> original = dataFacade.findBankAccountByAccountId(accountId);
-        if (original.isEmpty()) {
-            throw new EntityNotFoundException("Invalid bank account");
-        } else if (!original.get().isActive()) {
-            return Optional.of(mapper.toDto(original.get()));
-        } else {
-            return dataFacade.updateBankAccount(accountId, List.of(Pair.of(BankAccountFields.ACTIVE, "false"))).map(mapper::toDto);
-        }
+        return ledgerConcurrency.mutateVersioned(accountId, () -> {
+            Optional<BankAccount> original = dataFacade.findBankAccountByAccountId(accountId);
+            if (original.isEmpty()) {
+                throw AccountRules.accountNotFound();
+            } else if (!original.get().isActive()) {
+                return unchanged(accountId);
+            } else {
+                return dataFacade.updateBankAccount(accountId, original.get().getVersion(), List.of(Pair.of(BankAccountFields.ACTIVE, "false"))).map(mapper::toDto);
+            }
+        });
     }
 
-    public Optional<BankAccountDto> makeDeposit(String accountId, double amount) {
-        log.info("BankAccountService.makeDeposit(accountId,amount) - make a deposit to bank account. accountId: {}, amount: {}", accountId, amount);
-        validateAccountId(accountId);
-
-        Optional<BankAccount> original = dataFacade.findBankAccountByAccountId(accountId);
-        validateAccountExists(original);
-        validateAccountActive(original);
-
-        BigDecimal depositAmount = BigDecimal.valueOf(amount);
-        dataFacade.saveTransaction(original.get().getId(), depositAmount, TransactionType.DEPOSIT);
+    public Optional<BankAccountDto> makeDeposit(String accountId, Money amount) {
+        return makeDeposit(accountId, amount, null);
+    }
 
-        return original.map(account -> {
-            BigDecimal updatedBalance = account.getBalance().add(depositAmount);
-            return updateAccountBalance(accountId, updatedBalance);
-        });
+    public Optional<BankAccountDto> makeDeposit(String accountId, Money amount, String idempotencyKey) {
+        return Optional.of(deposit(accountId, amount, idempotencyKey).orElseThrow());
     }
 
-    public Optional<BankAccountDto> makeWithdraw(String accountId, double amount) {
-        log.info("BankAccountService.makeWithdraw(id, amount) - make a withdraw for bank account. accountId: {}, amount: {}", accountId, amount);
-        validateAccountId(accountId);
+    // Same as makeDeposit, but an expected decline is returned instead of thrown.
+    public LedgerResult deposit(String accountId, Money amount, String idempotencyKey) {
+        eventLog.event(log, LEDGER)
+                .addKeyValue("accountId", accountId)
+                .addKeyValue("amount", amount)
+                .addKeyValue("idempotencyKey", idempotencyKey)
+                .log("BankAccountService.deposit(accountId,amount,idempotencyKey) - make a deposit to bank account");
+        return applyTransaction(accountId, amount, TransactionType.DEPOSIT, idempotencyKey);
+    }
 
-        Optional<BankAccount> original = dataFacade.findBankAccountByAccountId(accountId);
-        validateAccountExists(original);
-        validateAccountActive(original);
-        validateSufficientFunds(original, amount);
+    public Optional<BankAccountDto> makeWithdraw(String accountId, Money amount) {
+        return makeWithdraw(accountId, amount, null);
+    }
 
-        BigDecimal withdrawalAmount = BigDecimal.valueOf(amount);
-        dataFacade.saveTransaction(original.get().getId(), withdrawalAmount, TransactionType.WITHDRAW);
+    public Optional<BankAccountDto> makeWithdraw(String accountId, Money amount, String idempotencyKey) {
+        return Optional.of(withdraw(accountId, amount, idempotencyKey).orElseThrow());
+    }
 
-        return original.map(account -> {
-            BigDecimal updatedBalance = account.getBalance().subtract(withdrawalAmount);
-            return updateAccountBalance(accountId, updatedBalance);
-        });
+    // Same as makeWithdraw, but an expected decline is returned instead of thrown.
+    public LedgerResult withdraw(String accountId, Money amount, String idempotencyKey) {
+        eventLog.event(log, LEDGER)
+                .addKeyValue("accountId", accountId)
+                .addKeyValue("amount", amount)
+                .addKeyValue("idempotencyKey", idempotencyKey)
+                .log("BankAccountService.withdraw(accountId,amount,idempotencyKey) - make a withdraw for bank account");
+        return applyTransaction(accountId, amount, TransactionType.WITHDRAW, idempotencyKey);
     }
 
-    private void validateAccountId(String accountId) {
-        if (EmailValidator.isValid(accountId)) {
-            throw new EmailValidationException();
+    private LedgerResult applyTransaction(String accountId, Money amount, TransactionType type, String idempotencyKey) {
+        if (!AccountRules.hasValidAccountId(accountId)) {
+            return new LedgerResult.Declined(RejectionReason.INVALID_ACCOUNT_ID);
+        }
+        if (idempotencyKey == null) {
+            return applyTransaction(accountId, amount, type);
+        }
+        idempotencyStore.validateKey(idempotencyKey);
+        Optional<BankAccountDto> replay = idempotencyStore.findCached(idempotencyKey, accountId, type, amount);
+        if (replay.isPresent()) {
+            return new LedgerResult.Applied(replay.get());
         }
-    }
 
-    private void validateAccountExists(Optional<BankAccount> bankAccount) {
-        if (bankAccount.isEmpty()) {
-            throw new EntityNotFoundException("Invalid bank account");
+        // Keyed requests bypass group commit: the key has to be claimed in the same transaction as the ledger write.
+        try {
+            IdempotencyRecord claim = idempotencyStore.newClaim(idempotencyKey, accountId, type, amount);
+            Optional<BankAccountDto> response = ledgerConcurrency.mutate(accountId, () -> dataFacade.applyIdempotentTransaction(
+                            claim, account -> idempotencyStore.serialize(mapper.toDto(account)))
+                    .map(mapper::toDto));
+            if (response.isEmpty()) {
+                return declined(accountId);
+            }
+            idempotencyStore.remember(idempotencyKey, accountId, type, amount, response.get());
+            return new LedgerResult.Applied(response.get());
+        } catch (IdempotencyKeyConflictException e) {
+            return new LedgerResult.Applied(idempotencyStore.findStored(idempotencyKey, accountId, type, amount));
         }
     }
 
-    private void validateAccountActive(Optional<BankAccount> bankAccount) {
-        if (!bankAccount.get().isActive()) {
-            throw new InactiveAccountException();
+    private LedgerResult applyTransaction(String accountId, Money amount, TransactionType type) {
+        Optional<BankAccountDto> applied;
+        if (groupCommitBatcher.isEnabled()) {
+            // The batch transaction serializes on the row lock, so the in-process account lock is not needed here.
+            applied = awaitGroupCommit(groupCommitBatcher.submit(accountId, amount, type)).map(mapper::toDto);
+        } else {
+            applied = ledgerConcurrency.mutate(accountId, () -> dataFacade.applyTransaction(accountId, amount, type)
+                    .map(mapper::toDto));
         }
+        return applied.<LedgerResult>map(LedgerResult.Applied::new).orElseGet(() -> declined(accountId));
     }
 
-    private void validateSufficientFunds(Optional<BankAccount> bankAccount, double amount) {
-        double balance = bankAccount.get().getBalance().doubleValue();
-        double minimumBalance = bankAccount.get().getMinimumBalance().doubleValue();
-        if (balance - amount < minimumBalance) {
-            throw new InsufficientFundsException();
+    private <T> T awaitGroupCommit(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
     }
 
-    private BankAccountDto updateAccountBalance(String accountId, BigDecimal newBalance) {
-        return dataFacade.updateBankAccount(accountId, List.of(Pair.of(BankAccountFields.BALANCE, newBalance.toString())))
-                .map(mapper::toDto)
-                .orElseThrow(() -> new EntityNotFoundException("Failed to update bank account balance"));
+    // The guarded update touched no row; one read tells which rule declined it.
+    // An account already in the requested state is returned as stored, history included. The write paths skip the
+    // history, and a detached account cannot load it afterwards, so it is read again here.
+    private Optional<BankAccountDto> unchanged(String accountId) {
+        return dataFacade.findBankAccountWithTransactionsByAccountId(accountId).map(mapper::toDto);
+    }
+
+    private LedgerResult declined(String accountId) {
+        Optional<BankAccount> original = dataFacade.findBankAccountByAccountId(accountId);
+        return new LedgerResult.Declined(AccountRules.rejectionReasonFor(original.isPresent(),
+                original.map(BankAccount::isActive).orElse(false)));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,155 @@
+package com.mlustig.bank_management.services;
+
+import com.mlustig.bank_management.dao.Transaction;
+import com.mlustig.bank_management.dto.BatchItemResultDto;
+import com.mlustig.bank_management.dto.BatchTransactionDto;
+import com.mlustig.bank_management.enums.BatchItemStatus;
+import com.mlustig.bank_management.enums.BatchMode;
+import com.mlustig.bank_management.facades.DataFacade;
+import com.mlustig.bank_management.metrics.Measured;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.projections.BankAccountSummary;
+import com.mlustig.bank_management.requests.BatchTransactionItem;
+import com.mlustig.bank_management.requests.BatchTransactionRequest;
+import com.mlustig.bank_management.validators.AccountRules;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+@Slf4j
+@Service
+@Measured(Measured.Layer.SERVICE)
+@RequiredArgsConstructor
+public class BatchTransactionService {
+
+    private static final String ACCOUNT_NOT_FOUND = "Invalid bank account";
+    private static final String ACCOUNT_INACTIVE = "Inactive bank account";
+    private static final String INSUFFICIENT_FUNDS = "Insufficient funds exception";
+    private static final String ROLLED_BACK = "Rolled back with the rest of the batch";
+    private static final String NOT_ATTEMPTED = "Not attempted, the batch was rejected earlier";
+
+    private final DataFacade dataFacade;
+    private final TransactionTemplate transactionTemplate;
+
+    public BatchTransactionDto applyBatch(BatchTransactionRequest request) {
+        log.info("BatchTransactionService.applyBatch(request) - apply a batch of transactions. mode: {}, items: {}",
+                request.mode(), request.items().size());
+
+        List<BatchTransactionItem> items = request.items();
+        BatchItemResultDto[] results = new BatchItemResultDto[items.size()];
+        SortedMap<String, List<Integer>> groups = groupByAccount(items);
+
+        boolean committed = request.mode() == BatchMode.ATOMIC
+                ? applyAtomically(items, groups, results)
+                : applyPerAccount(items, groups, results);
+        return new BatchTransactionDto(request.mode(), committed, Arrays.asList(results));
+    }
+
+    // Accounts are visited in accountId order so that concurrent batches always take row locks in the same order.
+    private SortedMap<String, List<Integer>> groupByAccount(List<BatchTransactionItem> items) {
+        SortedMap<String, List<Integer>> groups = new TreeMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            groups.computeIfAbsent(items.get(i).accountId(), accountId -> new ArrayList<>()).add(i);
+        }
+        return groups;
+    }
+
+    private boolean applyPerAccount(List<BatchTransactionItem> items, SortedMap<String, List<Integer>> groups,
+                                    BatchItemResultDto[] results) {
+        groups.forEach((accountId, indexes) -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> applyGroup(accountId, indexes, items, results, false));
+            } catch (RuntimeException e) {
+                log.error("BatchTransactionService.applyPerAccount - failed to apply transactions. accountId: {}", accountId, e);
+                indexes.forEach(i -> results[i] = result(i, items.get(i), BatchItemStatus.REJECTED, "Internal error", null));
+            }
+        });
+        return true;
+    }
+
+    private boolean applyAtomically(List<BatchTransactionItem> items, SortedMap<String, List<Integer>> groups,
+                                    BatchItemResultDto[] results) {
+        Boolean committed = transactionTemplate.execute(status -> {
+            for (Map.Entry<String, List<Integer>> group : groups.entrySet()) {
+                if (!applyGroup(group.getKey(), group.getValue(), items, results, true)) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+            }
+            return true;
+        });
+
+        if (!Boolean.TRUE.equals(committed)) {
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null) {
+                    results[i] = result(i, items.get(i), BatchItemStatus.NOT_APPLIED, NOT_ATTEMPTED, null);
+                } else if (results[i].status() == BatchItemStatus.APPLIED) {
+                    results[i] = result(i, items.get(i), BatchItemStatus.NOT_APPLIED, ROLLED_BACK, null);
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    // Locks the account row once, evaluates the items in submission order against the running balance and writes
+    // the net delta back with a single UPDATE. Returns false when an item was rejected and stopOnRejection is set.
+    private boolean applyGroup(String accountId, List<Integer> indexes, List<BatchTransactionItem> items,
+                               BatchItemResultDto[] results, boolean stopOnRejection) {
+        Optional<BankAccountSummary> locked = dataFacade.lockBankAccount(accountId);
+        String accountRejection = locked.isEmpty() ? ACCOUNT_NOT_FOUND : locked.get().isActive() ? null : ACCOUNT_INACTIVE;
+        if (accountRejection != null) {
+            for (Integer i : indexes) {
+                results[i] = result(i, items.get(i), BatchItemStatus.REJECTED, accountRejection, null);
+                if (stopOnRejection) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        BankAccountSummary account = locked.get();
+        Money balance = account.getBalance();
+        Money netDelta = Money.ZERO;
+        List<Transaction> transactions = new ArrayList<>(indexes.size());
+
+        for (Integer i : indexes) {
+            BatchTransactionItem item = items.get(i);
+            Money amount = item.amount();
+            Money delta = AccountRules.signedAmount(amount, item.type());
+
+            if (!AccountRules.keepsMinimumBalance(balance, account.getMinimumBalance(), delta)) {
+                results[i] = result(i, item, BatchItemStatus.REJECTED, INSUFFICIENT_FUNDS, balance);
+                if (stopOnRejection) {
+                    return false;
+                }
+                continue;
+            }
+
+            balance = balance.plus(delta);
+            netDelta = netDelta.plus(delta);
+            transactions.add(Transaction.builder()
+                    .bankAccountId(account.getId())
+                    .amount(amount)
+                    .type(item.type())
+                    .build());
+            results[i] = result(i, item, BatchItemStatus.APPLIED, null, balance);
+        }
+
+        if (!transactions.isEmpty()) {
+            dataFacade.applyBalanceDelta(accountId, netDelta)
+                    .orElseThrow(() -> new IllegalStateException("Locked bank account was not updated. accountId: " + accountId));
+            dataFacade.saveTransactions(transactions);
+        }
+        return true;
+    }
+
+    private BatchItemResultDto result(int index, BatchTransactionItem item, BatchItemStatus status, String message,
+                                      Money balance) {
+        return new BatchItemResultDto(index, item.accountId(), item.type(), item.amount(), status,
+                message, balance);
+    }
+}
@@ -0,0 +1,105 @@
+package com.mlustig.bank_management.services;
+
+import com.mlustig.bank_management.dao.BankAccountRow;
+import com.mlustig.bank_management.dto.BalanceDto;
+import com.mlustig.bank_management.dto.BankAccountDto;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.facades.ReactiveDataFacade;
+import com.mlustig.bank_management.mappers.BankAccountMapper;
+import com.mlustig.bank_management.metrics.Measured;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.validators.AccountRules;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+@Measured(Measured.Layer.SERVICE)
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveBankAccountService {
+
+    private final ReactiveDataFacade dataFacade;
+    private final BankAccountMapper mapper;
+
+    public Mono<BankAccountDto> getAccountInfo(String accountId, boolean withTransactions) {
+        log.info("ReactiveBankAccountService.getAccountInfo(accountId,withTransactions) - get info about bank account. accountId: {}, withTransactions: {}",
+                accountId, withTransactions);
+        return validated(accountId, () -> findExisting(accountId)
+                .flatMap(account -> withTransactions
+                        ? dataFacade.findTransactions(account.id()).collectList().map(transactions -> mapper.toDto(account, transactions))
+                        : Mono.just(mapper.toDto(account))));
+    }
+
+    public Mono<BalanceDto> getBalance(String accountId) {
+        log.info("ReactiveBankAccountService.getBalance(accountId) - get balance of bank account. accountId: {}", accountId);
+        return validated(accountId, () -> findExisting(accountId).map(mapper::toBalanceDto));
+    }
+
+    public Mono<BankAccountDto> createAccount(BankAccountDto bankAccountDto) {
+        log.info("ReactiveBankAccountService.createAccount(bankAccount) - create bank account");
+        return dataFacade.saveBankAccount(bankAccountDto).map(mapper::toDto);
+    }
+
+    public Mono<Void> deleteBankAccountByAccountId(String accountId) {
+        log.info("ReactiveBankAccountService.deleteBankAccountByAccountId(accountId) - delete bank account. accountId: {}", accountId);
+        return validated(accountId, () -> dataFacade.deleteBankAccountByAccountId(accountId));
+    }
+
+    public Mono<BankAccountDto> activateAccount(String accountId) {
+        log.info("ReactiveBankAccountService.activateAccount(accountId) - make a bank account active. accountId: {}", accountId);
+        return validated(accountId, () -> setActive(accountId, true));
+    }
+
+    public Mono<BankAccountDto> deactivateAccount(String accountId) {
+        log.info("ReactiveBankAccountService.deactivateAccount(accountId) - make a bank account inactive. accountId: {}", accountId);
+        return validated(accountId, () -> setActive(accountId, false));
+    }
+
+    public Mono<BankAccountDto> makeDeposit(String accountId, Money amount) {
+        log.info("ReactiveBankAccountService.makeDeposit(accountId,amount) - make a deposit to bank account. accountId: {}, amount: {}", accountId, amount);
+        return validated(accountId, () -> applyTransaction(accountId, amount, TransactionType.DEPOSIT));
+    }
+
+    public Mono<BankAccountDto> makeWithdraw(String accountId, Money amount) {
+        log.info("ReactiveBankAccountService.makeWithdraw(accountId,amount) - make a withdraw for bank account. accountId: {}, amount: {}", accountId, amount);
+        return validated(accountId, () -> applyTransaction(accountId, amount, TransactionType.WITHDRAW));
+    }
+
+    // The update only touches the row when the state actually changes; otherwise the current row is returned as is.
+    private Mono<BankAccountDto> setActive(String accountId, boolean active) {
+        return dataFacade.updateActive(accountId, active)
+                .switchIfEmpty(Mono.defer(() -> findExisting(accountId)))
+                .map(mapper::toDto);
+    }
+
+    private Mono<BankAccountDto> applyTransaction(String accountId, Money amount, TransactionType type) {
+        return dataFacade.applyTransaction(accountId, amount, type)
+                .switchIfEmpty(Mono.defer(() -> rejectionFor(accountId)))
+                .map(mapper::toDto);
+    }
+
+    private Mono<BankAccountRow> rejectionFor(String accountId) {
+        return dataFacade.findBankAccountByAccountId(accountId)
+                .map(account -> AccountRules.rejectionFor(true, account.active()))
+                .defaultIfEmpty(AccountRules.rejectionFor(false, false))
+                .flatMap(Mono::error);
+    }
+
+    private Mono<BankAccountRow> findExisting(String accountId) {
+        return dataFacade.findBankAccountByAccountId(accountId)
+                .switchIfEmpty(Mono.error(AccountRules::accountNotFound));
+    }
+
+    private <T> Mono<T> validated(String accountId, Supplier<Mono<T>> action) {
+        return Mono.defer(() -> {
+            AccountRules.validateAccountId(accountId);
+            return action.get();
+        });
+    }
+}
@@ -0,0 +1,111 @@
+package com.mlustig.bank_management.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mlustig.bank_management.config.HistoryProperties;
+import com.mlustig.bank_management.dto.TransactionDto;
+import com.mlustig.bank_management.enums.ExportFormat;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.facades.DataFacade;
+import com.mlustig.bank_management.metrics.Measured;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.projections.BankAccountSummary;
+import com.mlustig.bank_management.validators.AccountRules;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+// Streams an account's full history row by row. Postgres only uses a server-side cursor when the statement has a fetch
+// size and runs inside a transaction; without both the driver would read the whole result into memory first.
+@Slf4j
+@Service
+@Measured(Measured.Layer.SERVICE)
+public class TransactionExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Postgres keeps microseconds; a fixed width keeps every row in the same shape, which LocalDateTime.toString()
+    // does not (it drops zero seconds and trims the fraction).
+    private static final DateTimeFormatter CSV_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS");
+
+    private static final String EXPORT_QUERY = """
+            SELECT amount, type, created_at
+            FROM transaction
+            WHERE bank_account_id = ?
+            ORDER BY created_at, id""";
+
+    private final DataFacade dataFacade;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter jsonWriter;
+
+    public TransactionExportService(DataFacade dataFacade, HistoryProperties properties, DataSource dataSource,
+                                    PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.dataFacade = dataFacade;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getExportFetchSize());
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.jsonWriter = objectMapper.writerFor(TransactionDto.class);
+    }
+
+    // Resolved before the response is committed, so an unknown account still gets a regular error response.
+    public Long findBankAccountId(String accountId) {
+        AccountRules.validateAccountId(accountId);
+        return dataFacade.findBankAccountSummaryByAccountId(accountId)
+                .map(BankAccountSummary::getId)
+                .orElseThrow(AccountRules::accountNotFound);
+    }
+
+    public void export(Long bankAccountId, ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        log.info("TransactionExportService.export(bankAccountId,format,gzip) - export transaction history. bankAccountId: {}, format: {}, gzip: {}",
+                bankAccountId, format, gzip);
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(compressed != null ? compressed : out,
+                StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == ExportFormat.CSV) {
+            writer.write("created_at,type,amount\n");
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.query(EXPORT_QUERY, rs -> writeRow(rs, format, writer), bankAccountId));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+    }
+
+    private void writeRow(ResultSet rs, ExportFormat format, Writer writer) throws SQLException {
+        TransactionDto row = new TransactionDto(Money.valueOf(rs.getBigDecimal("amount")),
+                TransactionType.valueOf(rs.getString("type")),
+                rs.getTimestamp("created_at").toLocalDateTime());
+        try {
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_TIMESTAMP.format(row.createdAt()) + "," + row.type() + "," + row.amount() + "\n");
+            } else {
+                writer.write(jsonWriter.writeValueAsString(row));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.mlustig.bank_management.services;
+
+import com.mlustig.bank_management.config.HistoryProperties;
+import com.mlustig.bank_management.dao.BankAccount;
+import com.mlustig.bank_management.dao.Transaction;
+import com.mlustig.bank_management.dto.TransactionPageDto;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.facades.DataFacade;
+import com.mlustig.bank_management.mappers.TransactionMapper;
+import com.mlustig.bank_management.metrics.Measured;
+import com.mlustig.bank_management.utils.TransactionCursor;
+import com.mlustig.bank_management.validators.AccountRules;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+@Measured(Measured.Layer.SERVICE)
+@RequiredArgsConstructor
+public class TransactionHistoryService {
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final DataFacade dataFacade;
+    private final TransactionMapper transactionMapper;
+    private final HistoryProperties properties;
+    private final Clock clock = Clock.systemDefaultZone();
+
+    public TransactionPageDto getTransactions(String accountId, String cursor, Integer limit, TransactionType type,
+                                              LocalDateTime from, LocalDateTime to) {
+        log.info("TransactionHistoryService.getTransactions(accountId,cursor,limit) - get transaction history. accountId: {}, cursor: {}, limit: {}",
+                accountId, cursor, limit);
+        AccountRules.validateAccountId(accountId);
+
+        TransactionCursor position = TransactionCursor.decode(cursor);
+        LocalDateTime lowerBound = from == null ? EARLIEST : from;
+        LocalDateTime upperBound = to == null ? TransactionCursor.START.createdAt() : to;
+        int pageSize = pageSize(limit);
+
+        BankAccount bankAccount = dataFacade.findBankAccountByAccountId(accountId)
+                .orElseThrow(AccountRules::accountNotFound);
+
+        // One extra row tells us whether another page exists without a count query.
+        List<Transaction> rows = dataFacade.findTransactions(bankAccount.getId(), type == null ? "" : type.name(),
+                lowerBound, upperBound, position.createdAt(), position.id(), pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<Transaction> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = hasMore ? TransactionCursor.after(page.get(page.size() - 1)).encode() : null;
+        return new TransactionPageDto(page.stream().map(transactionMapper::toDto).toList(), nextCursor,
+                isImmutable(position, upperBound));
+    }
+
+    private int pageSize(Integer limit) {
+        int requested = limit == null ? properties.getDefaultPageSize() : limit;
+        return Math.max(1, Math.min(requested, properties.getMaxPageSize()));
+    }
+
+    // New rows are always appended at the head of the history, so a page is final once everything it can contain
+    // is older than the settle window.
+    private boolean isImmutable(TransactionCursor position, LocalDateTime upperBound) {
+        LocalDateTime newestPossible = position.createdAt().isBefore(upperBound) ? position.createdAt() : upperBound;
+        return newestPossible.isBefore(LocalDateTime.now(clock).minus(properties.getSettleWindow()));
+    }
+}
@@ -0,0 +1,90 @@
+package com.mlustig.bank_management.services;
+
+import com.mlustig.bank_management.dao.Transaction;
+import com.mlustig.bank_management.dto.TransferDto;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.exceptions.InsufficientFundsException;
+import com.mlustig.bank_management.exceptions.SameAccountTransferException;
+import com.mlustig.bank_management.facades.DataFacade;
+import com.mlustig.bank_management.mappers.BankAccountMapper;
+import com.mlustig.bank_management.metrics.BankAccountMeterRegistry;
+import com.mlustig.bank_management.metrics.Measured;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.projections.BankAccountSummary;
+import com.mlustig.bank_management.validators.AccountRules;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+@Measured(Measured.Layer.SERVICE)
+@RequiredArgsConstructor
+public class TransferService {
+
+    private final DataFacade dataFacade;
+    private final BankAccountMapper mapper;
+    private final TransactionTemplate transactionTemplate;
+    private final BankAccountMeterRegistry meterRegistry;
+
+    public TransferDto transfer(String fromAccountId, String toAccountId, Money amount) {
+        log.info("TransferService.transfer(fromAccountId,toAccountId,amount) - transfer between bank accounts. fromAccountId: {}, toAccountId: {}, amount: {}",
+                fromAccountId, toAccountId, amount);
+        AccountRules.validateAccountId(fromAccountId);
+        AccountRules.validateAccountId(toAccountId);
+        if (fromAccountId.equals(toAccountId)) {
+            throw new SameAccountTransferException();
+        }
+
+        UUID transferId = UUID.randomUUID();
+        return transactionTemplate.execute(status -> {
+            // Both rows are locked before anything is written, in accountId order like the batch and group commit
+            // writers, so transfers crossing in opposite directions queue up instead of deadlocking.
+            boolean fromFirst = fromAccountId.compareTo(toAccountId) < 0;
+            long waitStart = System.nanoTime();
+            Optional<BankAccountSummary> first = dataFacade.lockBankAccount(fromFirst ? fromAccountId : toAccountId);
+            Optional<BankAccountSummary> second = dataFacade.lockBankAccount(fromFirst ? toAccountId : fromAccountId);
+            meterRegistry.getTransferLockWaitTimer().record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+
+            BankAccountSummary from = requireActive(fromFirst ? first : second);
+            BankAccountSummary to = requireActive(fromFirst ? second : first);
+            if (!AccountRules.keepsMinimumBalance(from.getBalance(), from.getMinimumBalance(), amount.negate())) {
+                throw new InsufficientFundsException();
+            }
+
+            BankAccountSummary debited = applyLockedDelta(fromAccountId, amount.negate());
+            BankAccountSummary credited = applyLockedDelta(toAccountId, amount);
+            dataFacade.saveTransactions(List.of(
+                    leg(from, amount, TransactionType.TRANSFER_OUT, transferId),
+                    leg(to, amount, TransactionType.TRANSFER_IN, transferId)));
+            return new TransferDto(transferId, amount, mapper.toBalanceDto(debited), mapper.toBalanceDto(credited));
+        });
+    }
+
+    private BankAccountSummary requireActive(Optional<BankAccountSummary> locked) {
+        if (locked.isEmpty() || !locked.get().isActive()) {
+            throw AccountRules.rejectionFor(locked.isPresent(), false);
+        }
+        return locked.get();
+    }
+
+    private BankAccountSummary applyLockedDelta(String accountId, Money delta) {
+        return dataFacade.applyBalanceDelta(accountId, delta)
+                .orElseThrow(() -> new IllegalStateException("Locked bank account was not updated. accountId: " + accountId));
+    }
+
+    private static Transaction leg(BankAccountSummary account, Money amount, TransactionType type, UUID transferId) {
+        return Transaction.builder()
+                .bankAccountId(account.getId())
+                .amount(amount)
+                .type(type)
+                .transferId(transferId)
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.mlustig.bank_management.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mlustig.bank_management.dto.BankAccountDto;
+import com.mlustig.bank_management.exceptions.UnknownFieldException;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Sparse fieldset for BankAccountDto: "fields" picks the attributes to render and "include" pulls in transactions.
+// Without either parameter the full representation, history included, is returned.
+public record AccountFieldset(Set<String> selected) {
+
+    public static final String TRANSACTIONS = "transactions";
+
+    private static final Set<String> ALL_FIELDS = Arrays.stream(BankAccountDto.class.getRecordComponents())
+            .map(RecordComponent::getName)
+            .collect(Collectors.toUnmodifiableSet());
+
+    public static AccountFieldset of(Set<String> fields, Set<String> include) {
+        if (fields == null || fields.isEmpty()) {
+            validate(include, Set.of(TRANSACTIONS));
+            return new AccountFieldset(ALL_FIELDS);
+        }
+
+        validate(fields, ALL_FIELDS);
+        validate(include, Set.of(TRANSACTIONS));
+        Set<String> selected = new LinkedHashSet<>(fields);
+        if (include != null) {
+            selected.addAll(include);
+        }
+        return new AccountFieldset(Set.copyOf(selected));
+    }
+
+    public boolean includesTransactions() {
+        return selected.contains(TRANSACTIONS);
+    }
+
+    public Object render(BankAccountDto bankAccountDto, ObjectMapper objectMapper) {
+        if (selected.containsAll(ALL_FIELDS)) {
+            return bankAccountDto;
+        }
+        ObjectNode node = objectMapper.valueToTree(bankAccountDto);
+        return node.retain(selected);
+    }
+
+    private static void validate(Set<String> requested, Set<String> allowed) {
+        if (requested == null) {
+            return;
+        }
+        requested.stream()
+                .filter(field -> !allowed.contains(field))
+                .findFirst()
+                .ifPresent(field -> {
+                    throw new UnknownFieldException(field);
+                });
+    }
+}
@@ -2,6 +2,7 @@ package com.mlustig.bank_management.utils;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Locale;
 
 public class ControllerHelper {
     public static URI getLocation() {
@@ -11,4 +12,39 @@ public class ControllerHelper {
             throw new RuntimeException(e);
         }
     }
+
+    // Reads the q-values of an Accept-Encoding header (RFC 9110): an explicit gzip entry wins over "*", and a q-value
+    // of 0 or one that does not parse means "not acceptable".
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = qValue(parts);
+            } else if (coding.equals("*")) {
+                wildcard = qValue(parts);
+            }
+        }
+        double quality = gzip != null ? gzip : wildcard != null ? wildcard : 0;
+        return quality > 0;
+    }
+
+    private static double qValue(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
 }
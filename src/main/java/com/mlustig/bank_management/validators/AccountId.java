@@ -0,0 +1,26 @@
+package com.mlustig.bank_management.validators;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.*;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+// Request-level check for account ids, backed by the same scanner as the service-level validation. null is valid;
+// combine with @NonNull/@NotNull where the id is required.
+@Documented
+@Constraint(validatedBy = AccountIdValidator.class)
+@Target({METHOD, FIELD, ANNOTATION_TYPE, CONSTRUCTOR, PARAMETER, TYPE_USE})
+@Retention(RUNTIME)
+public @interface AccountId {
+
+    String message() default "Invalid email format";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
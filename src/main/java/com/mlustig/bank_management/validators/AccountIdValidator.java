@@ -0,0 +1,12 @@
+package com.mlustig.bank_management.validators;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class AccountIdValidator implements ConstraintValidator<AccountId, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || EmailValidator.isWellFormed(value);
+    }
+}
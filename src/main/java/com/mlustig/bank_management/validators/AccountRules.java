@@ -0,0 +1,53 @@
+package com.mlustig.bank_management.validators;
+
+import com.mlustig.bank_management.enums.RejectionReason;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.exceptions.AccountNotFoundException;
+import com.mlustig.bank_management.exceptions.EmailValidationException;
+import com.mlustig.bank_management.money.Money;
+import jakarta.persistence.EntityNotFoundException;
+
+// Business rules shared by the blocking and reactive ledgers so both reject the same requests with the same errors.
+public final class AccountRules {
+
+    private AccountRules() {
+    }
+
+    public static void validateAccountId(String accountId) {
+        if (!hasValidAccountId(accountId)) {
+            throw new EmailValidationException();
+        }
+    }
+
+    public static boolean hasValidAccountId(String accountId) {
+        return EmailValidator.isWellFormed(accountId);
+    }
+
+    public static EntityNotFoundException accountNotFound() {
+        return new AccountNotFoundException();
+    }
+
+    public static Money signedAmount(Money amount, TransactionType type) {
+        return type.isDebit() ? amount.negate() : amount;
+    }
+
+    public static boolean keepsMinimumBalance(Money balance, Money minimumBalance, Money delta) {
+        return delta.signum() >= 0 || Math.addExact(balance.cents(), delta.cents()) >= minimumBalance.cents();
+    }
+
+    // Explains why a guarded balance update touched no row: the account is missing, inactive, or the minimum
+    // balance would be breached.
+    public static RuntimeException rejectionFor(boolean found, boolean active) {
+        return rejectionReasonFor(found, active).toException();
+    }
+
+    public static RejectionReason rejectionReasonFor(boolean found, boolean active) {
+        if (!found) {
+            return RejectionReason.ACCOUNT_NOT_FOUND;
+        }
+        if (!active) {
+            return RejectionReason.INACTIVE_ACCOUNT;
+        }
+        return RejectionReason.INSUFFICIENT_FUNDS;
+    }
+}
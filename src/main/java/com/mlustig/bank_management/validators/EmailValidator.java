@@ -1,9 +1,36 @@
 package com.mlustig.bank_management.validators;
 
 public class EmailValidator {
+
+    // Note: returns true when the email is NOT well formed, callers treat true as a rejection.
     public static boolean isValid(String email) {
-        // Regular expression for email validation
-        String emailRegex = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$";
-        return !email.matches(emailRegex);
+        return !isWellFormed(email);
+    }
+
+    // Hand-written equivalent of ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$ that neither compiles a pattern nor allocates:
+    // a non-empty local part, exactly one '@', and a non-empty domain.
+    public static boolean isWellFormed(CharSequence email) {
+        int length = email.length();
+        int at = -1;
+        for (int i = 0; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                if (at >= 0) {
+                    return false;
+                }
+                at = i;
+            } else if (at < 0 ? !isLocalPartChar(c) : !isDomainChar(c)) {
+                return false;
+            }
+        }
+        return at > 0 && at < length - 1;
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return isDomainChar(c) || c == '+' || c == '_';
+    }
+
+    private static boolean isDomainChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '.' || c == '-';
     }
-}
\ No newline at end of file
+}
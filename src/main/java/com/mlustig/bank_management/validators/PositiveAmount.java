@@ -0,0 +1,25 @@
+package com.mlustig.bank_management.validators;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.*;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+// @Positive for Money. A missing amount is rejected as well, like the 0 a primitive double used to default to.
+@Documented
+@Constraint(validatedBy = PositiveAmountValidator.class)
+@Target({METHOD, FIELD, ANNOTATION_TYPE, CONSTRUCTOR, PARAMETER, TYPE_USE})
+@Retention(RUNTIME)
+public @interface PositiveAmount {
+
+    String message() default "Amount must be a positive number";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
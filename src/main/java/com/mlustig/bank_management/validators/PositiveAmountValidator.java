@@ -0,0 +1,13 @@
+package com.mlustig.bank_management.validators;
+
+import com.mlustig.bank_management.money.Money;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class PositiveAmountValidator implements ConstraintValidator<PositiveAmount, Money> {
+
+    @Override
+    public boolean isValid(Money value, ConstraintValidatorContext context) {
+        return value != null && value.isPositive();
+    }
+}
@@ -0,0 +1,75 @@
+package com.mlustig.bank_management.cache;
+
+import com.mlustig.bank_management.facades.DataFacade;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("integration")
+@SpringBootTest
+@Sql(scripts = "/data/recreate-datasets-1.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/data/clean-database.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+@Timeout(value = 10)
+public class AccountCacheListenerIT {
+
+    @Autowired
+    private DataFacade dataFacade;
+
+    @Autowired
+    private AccountSummaryCache accountSummaryCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    public void localMutation_CachedSummary_EvictedAfterCommit() {
+        accountSummaryCache.evictAll();
+        assertEquals(Money.ofUnits(3500), balanceOf("theodore.roosevelt@gmail.com"));
+
+        dataFacade.applyBalanceDelta("theodore.roosevelt@gmail.com", Money.ofUnits(100));
+
+        assertEquals(Money.ofUnits(3600), balanceOf("theodore.roosevelt@gmail.com"));
+    }
+
+    @Test
+    public void remoteNotification_CachedSummary_Evicted() throws InterruptedException {
+        accountSummaryCache.evictAll();
+        assertEquals(Money.ofUnits(3500), balanceOf("theodore.roosevelt@gmail.com"));
+
+        // Simulates another replica: the row changes behind our back and only the notification tells us.
+        jdbcTemplate.update("UPDATE bank_account SET balance = 4000 WHERE account_id = ?", "theodore.roosevelt@gmail.com");
+        assertEquals(Money.ofUnits(3500), balanceOf("theodore.roosevelt@gmail.com"));
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, "bank_account_changed",
+                InvalidationMessage.format("other-instance", System.currentTimeMillis(), "theodore.roosevelt@gmail.com"));
+
+        while (!balanceOf("theodore.roosevelt@gmail.com").equals(Money.ofUnits(4000))) {
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    public void listener_Running_HoldsNoPooledConnection() throws SQLException {
+        assertEquals(0, dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean().getActiveConnections());
+    }
+
+    private Money balanceOf(String accountId) {
+        return dataFacade.findBankAccountSummaryByAccountId(accountId).orElseThrow().getBalance();
+    }
+}
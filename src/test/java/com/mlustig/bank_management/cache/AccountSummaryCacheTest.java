@@ -0,0 +1,88 @@
+package com.mlustig.bank_management.cache;
+
+import com.mlustig.bank_management.config.CacheProperties;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.projections.BankAccountSnapshot;
+import com.mlustig.bank_management.projections.BankAccountSummary;
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class AccountSummaryCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Function<String, Optional<BankAccountSummary>> loader = accountId -> {
+        loads.incrementAndGet();
+        return accountId.startsWith("no.exists")
+                ? Optional.empty()
+                : Optional.of(new BankAccountSnapshot(1L, accountId, "Theodore", "Roosevelt",
+                Money.ofUnits(3500), Money.ofUnits(1500), true));
+    };
+
+    @Test
+    public void get_SecondRead_ServedFromCache() {
+        AccountSummaryCache cache = new AccountSummaryCache(new CacheProperties(), meterRegistry);
+
+        cache.get("theodore.roosevelt@gmail.com", loader);
+        Optional<BankAccountSummary> result = cache.get("theodore.roosevelt@gmail.com", loader);
+
+        assertTrue(result.isPresent());
+        assertEquals(Money.ofUnits(3500), result.get().getBalance());
+        assertEquals(1, loads.get());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "bank_account_summary").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    public void get_AfterEvict_ReloadedFromDatabase() {
+        AccountSummaryCache cache = new AccountSummaryCache(new CacheProperties(), meterRegistry);
+
+        cache.get("theodore.roosevelt@gmail.com", loader);
+        cache.evict("theodore.roosevelt@gmail.com");
+        cache.get("theodore.roosevelt@gmail.com", loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void get_MissingAccount_NotCached() {
+        AccountSummaryCache cache = new AccountSummaryCache(new CacheProperties(), meterRegistry);
+
+        assertTrue(cache.get("no.exists@gmail.com", loader).isEmpty());
+        assertTrue(cache.get("no.exists@gmail.com", loader).isEmpty());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void get_CacheDisabled_AlwaysLoads() {
+        CacheProperties properties = new CacheProperties();
+        properties.setEnabled(false);
+        AccountSummaryCache cache = new AccountSummaryCache(properties, meterRegistry);
+
+        cache.get("theodore.roosevelt@gmail.com", loader);
+        cache.get("theodore.roosevelt@gmail.com", loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void parse_FormattedMessage_SameFields() {
+        InvalidationMessage message = InvalidationMessage.parse(
+                InvalidationMessage.format("instance-1", 1684000000000L, "theodore.roosevelt@gmail.com"));
+
+        assertEquals(new InvalidationMessage("instance-1", 1684000000000L, "theodore.roosevelt@gmail.com"), message);
+        assertThrows(IllegalArgumentException.class, () -> InvalidationMessage.parse("garbage"));
+    }
+}
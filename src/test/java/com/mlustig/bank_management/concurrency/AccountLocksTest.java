@@ -0,0 +1,104 @@
+package com.mlustig.bank_management.concurrency;
+
+import com.mlustig.bank_management.config.LedgerProperties;
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import com.mlustig.bank_management.utils.MeterRegistries;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Timeout(value = 10)
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class AccountLocksTest {
+
+    @Test
+    public void constructor_StripeCountNotPowerOfTwo_RoundedUp() {
+        assertEquals(16, createAccountLocks(10).getStripeCount());
+        assertEquals(64, createAccountLocks(64).getStripeCount());
+        assertEquals(1, createAccountLocks(1).getStripeCount());
+    }
+
+    @Test
+    public void constructor_NonPositiveStripeCount_IllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> createAccountLocks(0));
+    }
+
+    @Test
+    public void withAccountLock_ConcurrentMutationsOnSameAccount_Serialized() throws Exception {
+        AccountLocks accountLocks = createAccountLocks(16);
+        int[] balance = {0};
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 10_000; j++) {
+                        accountLocks.withAccountLock("theodore.roosevelt@gmail.com", () -> balance[0]++);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(80_000, balance[0]);
+    }
+
+    @Test
+    public void withAccountLock_AccountsOnDifferentStripes_ProceedInParallel() throws Exception {
+        AccountLocks accountLocks = createAccountLocks(16);
+        String first = "theodore.roosevelt@gmail.com";
+        String second = findAccountOnOtherStripe(accountLocks, first);
+
+        CountDownLatch firstHeld = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> accountLocks.withAccountLock(first, () -> {
+            firstHeld.countDown();
+            awaitQuietly(release);
+            return null;
+        }));
+        holder.start();
+        try {
+            assertTrue(firstHeld.await(5, TimeUnit.SECONDS));
+            assertEquals("done", accountLocks.withAccountLock(second, () -> "done"));
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+    }
+
+    private static String findAccountOnOtherStripe(AccountLocks accountLocks, String accountId) {
+        for (int i = 0; ; i++) {
+            String candidate = "account." + i + "@gmail.com";
+            if (accountLocks.stripeIndex(candidate) != accountLocks.stripeIndex(accountId)) {
+                return candidate;
+            }
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static AccountLocks createAccountLocks(int stripes) {
+        LedgerProperties properties = new LedgerProperties();
+        properties.setLockStripes(stripes);
+        return new AccountLocks(properties, MeterRegistries.simple());
+    }
+}
@@ -0,0 +1,136 @@
+package com.mlustig.bank_management.concurrency;
+
+import com.mlustig.bank_management.config.LedgerProperties;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.facades.DataFacade;
+import com.mlustig.bank_management.metrics.BankAccountMeterRegistry;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.projections.BankAccountSummary;
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import com.mlustig.bank_management.utils.MeterRegistries;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class GroupCommitBatcherTest {
+
+    @Mock
+    private DataFacade dataFacade;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private BankAccountSummary summary;
+
+    private final LedgerProperties properties = new LedgerProperties();
+
+    private final BankAccountMeterRegistry meterRegistry = MeterRegistries.simple();
+
+    private GroupCommitBatcher batcher;
+
+    @BeforeEach
+    public void setUp() {
+        properties.getGroupCommit().setEnabled(true);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        batcher = new GroupCommitBatcher(properties, dataFacade, new TransactionTemplate(transactionManager), meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        batcher.stop();
+    }
+
+    @Test
+    public void flush_OperationsForSeveralAccounts_OneTransactionInAccountOrder() {
+        when(dataFacade.applyTransaction(anyString(), any(), any())).thenReturn(Optional.of(summary));
+        List<GroupCommitBatcher.PendingOperation> batch = List.of(
+                operation("theodore.roosevelt@gmail.com", 10),
+                operation("franklin.benjamin@gmail.com", 20),
+                operation("theodore.roosevelt@gmail.com", 30));
+
+        batcher.flush(batch);
+
+        batch.forEach(operation -> assertEquals(Optional.of(summary), operation.future().join()));
+        verify(transactionManager, times(1)).getTransaction(any());
+        InOrder inOrder = inOrder(dataFacade);
+        inOrder.verify(dataFacade).applyTransaction("franklin.benjamin@gmail.com", Money.ofUnits(20), TransactionType.DEPOSIT);
+        inOrder.verify(dataFacade).applyTransaction("theodore.roosevelt@gmail.com", Money.ofUnits(10), TransactionType.DEPOSIT);
+        inOrder.verify(dataFacade).applyTransaction("theodore.roosevelt@gmail.com", Money.ofUnits(30), TransactionType.DEPOSIT);
+        assertEquals(1, meterRegistry.getGroupCommitBatchSizeSummary().count());
+        assertEquals(3, meterRegistry.getGroupCommitBatchSizeSummary().totalAmount());
+    }
+
+    @Test
+    public void flush_OneOperationFails_OthersReplayedIndividually() {
+        when(dataFacade.applyTransaction(eq("theodore.roosevelt@gmail.com"), any(), any())).thenReturn(Optional.of(summary));
+        when(dataFacade.applyTransaction(eq("franklin.benjamin@gmail.com"), any(), any()))
+                .thenThrow(new CannotAcquireLockException("lock timeout"));
+        GroupCommitBatcher.PendingOperation failing = operation("franklin.benjamin@gmail.com", 20);
+        GroupCommitBatcher.PendingOperation succeeding = operation("theodore.roosevelt@gmail.com", 10);
+
+        batcher.flush(List.of(failing, succeeding));
+
+        assertEquals(Optional.of(summary), succeeding.future().join());
+        CompletionException e = assertThrows(CompletionException.class, () -> failing.future().join());
+        assertInstanceOf(CannotAcquireLockException.class, e.getCause());
+        assertEquals(1, meterRegistry.getGroupCommitFallbackCounter().count());
+    }
+
+    @Test
+    public void submit_ConcurrentCallers_EveryFutureCompleted() {
+        when(dataFacade.applyTransaction(anyString(), any(), any())).thenReturn(Optional.of(summary));
+        batcher.start();
+
+        List<CompletableFuture<Optional<BankAccountSummary>>> futures = IntStream.range(0, 200).parallel()
+                .mapToObj(i -> batcher.submit("account" + (i % 7) + "@gmail.com", Money.ofUnits(1), TransactionType.DEPOSIT))
+                .toList();
+
+        futures.forEach(future -> assertEquals(Optional.of(summary), future.join()));
+        verify(dataFacade, times(200)).applyTransaction(anyString(), any(), any());
+        verify(transactionManager, atMost(200)).getTransaction(any());
+    }
+
+    @Test
+    public void submit_RacingStop_EveryFutureCompleted() throws InterruptedException {
+        when(dataFacade.applyTransaction(anyString(), any(), any())).thenReturn(Optional.of(summary));
+        batcher.start();
+        List<CompletableFuture<Optional<BankAccountSummary>>> futures = new CopyOnWriteArrayList<>();
+        Thread submitter = new Thread(() -> IntStream.range(0, 2000).forEach(i ->
+                futures.add(batcher.submit("account" + (i % 7) + "@gmail.com", Money.ofUnits(1), TransactionType.DEPOSIT))));
+
+        submitter.start();
+        batcher.stop();
+        submitter.join();
+
+        // Completed either way: applied, or failed by the shutdown. None may be left hanging.
+        futures.forEach(future -> assertDoesNotThrow(() -> future.handle((result, e) -> result).get(5, TimeUnit.SECONDS)));
+    }
+
+    private GroupCommitBatcher.PendingOperation operation(String accountId, int amount) {
+        return new GroupCommitBatcher.PendingOperation(accountId, Money.ofUnits(amount), TransactionType.DEPOSIT,
+                System.nanoTime(), new CompletableFuture<>());
+    }
+}
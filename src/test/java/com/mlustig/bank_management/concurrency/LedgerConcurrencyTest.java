@@ -0,0 +1,66 @@
+package com.mlustig.bank_management.concurrency;
+
+import com.mlustig.bank_management.config.LedgerProperties;
+import com.mlustig.bank_management.dao.BankAccount;
+import com.mlustig.bank_management.metrics.BankAccountMeterRegistry;
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import com.mlustig.bank_management.utils.MeterRegistries;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class LedgerConcurrencyTest {
+
+    private static final String ACCOUNT_ID = "theodore.roosevelt@gmail.com";
+
+    private BankAccountMeterRegistry meterRegistry;
+    private LedgerConcurrency ledgerConcurrency;
+
+    @BeforeEach
+    public void setUp() {
+        LedgerProperties properties = new LedgerProperties();
+        properties.getRetry().setMaxAttempts(3);
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        properties.getRetry().setMaxBackoff(Duration.ofMillis(2));
+        meterRegistry = MeterRegistries.simple();
+        ledgerConcurrency = new LedgerConcurrency(properties, new AccountLocks(properties, meterRegistry),
+                new OptimisticRetry(properties, meterRegistry));
+    }
+
+    @Test
+    public void mutate_Conflict_NotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> ledgerConcurrency.mutate(ACCOUNT_ID, () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(BankAccount.class, 1L);
+        }));
+
+        assertEquals(1, attempts.get());
+        assertEquals(0, meterRegistry.getOptimisticLockConflictCounter().count());
+    }
+
+    @Test
+    public void mutateVersioned_ConflictThenSuccess_LockTakenPerAttempt() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = ledgerConcurrency.mutateVersioned(ACCOUNT_ID, () -> {
+            if (attempts.incrementAndGet() < 2) {
+                throw new ObjectOptimisticLockingFailureException(BankAccount.class, 1L);
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(2, attempts.get());
+        assertEquals(1, meterRegistry.getOptimisticLockRetryCounter().count());
+        assertEquals(2, meterRegistry.getLedgerLockWaitTimer().count());
+    }
+}
@@ -0,0 +1,91 @@
+package com.mlustig.bank_management.concurrency;
+
+import com.mlustig.bank_management.config.LedgerProperties;
+import com.mlustig.bank_management.dao.BankAccount;
+import com.mlustig.bank_management.metrics.BankAccountMeterRegistry;
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import com.mlustig.bank_management.utils.MeterRegistries;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class OptimisticRetryTest {
+
+    private BankAccountMeterRegistry meterRegistry;
+    private OptimisticRetry optimisticRetry;
+
+    @BeforeEach
+    public void setUp() {
+        LedgerProperties properties = new LedgerProperties();
+        properties.getRetry().setMaxAttempts(3);
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        properties.getRetry().setMaxBackoff(Duration.ofMillis(2));
+        meterRegistry = MeterRegistries.simple();
+        optimisticRetry = new OptimisticRetry(properties, meterRegistry);
+    }
+
+    @Test
+    public void execute_NoConflict_SingleAttempt() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = optimisticRetry.execute(() -> {
+            attempts.incrementAndGet();
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(1, attempts.get());
+        assertEquals(0, meterRegistry.getOptimisticLockConflictCounter().count());
+    }
+
+    @Test
+    public void execute_ConflictThenSuccess_Retried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = optimisticRetry.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(BankAccount.class, 1L);
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2, meterRegistry.getOptimisticLockConflictCounter().count());
+        assertEquals(2, meterRegistry.getOptimisticLockRetryCounter().count());
+        assertEquals(0, meterRegistry.getOptimisticLockExhaustedCounter().count());
+    }
+
+    @Test
+    public void execute_ConflictOnEveryAttempt_ObjectOptimisticLockingFailureException() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> optimisticRetry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(BankAccount.class, 1L);
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(3, meterRegistry.getOptimisticLockConflictCounter().count());
+        assertEquals(1, meterRegistry.getOptimisticLockExhaustedCounter().count());
+    }
+
+    @Test
+    public void execute_OtherException_NotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> optimisticRetry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException();
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+}
@@ -0,0 +1,47 @@
+package com.mlustig.bank_management.concurrency;
+
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class VirtualThreadsTest {
+
+    @Test
+    public void newVirtualThreadPerTaskExecutor_SupportedRuntime_RunsTasksOnVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+
+        ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+        try {
+            assertTrue(executor.submit(() -> VirtualThreads.isVirtual(Thread.currentThread())).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void factory_SupportedRuntime_NamesVirtualThreads() {
+        assumeTrue(VirtualThreads.isSupported());
+
+        Thread thread = VirtualThreads.factory("scheduling-").newThread(() -> {
+        });
+
+        assertTrue(VirtualThreads.isVirtual(thread));
+        assertEquals("scheduling-0", thread.getName());
+    }
+
+    @Test
+    public void newVirtualThreadPerTaskExecutor_UnsupportedRuntime_ThrowIllegalStateException() {
+        assumeFalse(VirtualThreads.isSupported());
+
+        assertThrows(IllegalStateException.class, VirtualThreads::newVirtualThreadPerTaskExecutor);
+        assertFalse(VirtualThreads.isVirtual(Thread.currentThread()));
+    }
+}
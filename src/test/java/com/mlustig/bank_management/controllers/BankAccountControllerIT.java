@@ -2,7 +2,9 @@ package com.mlustig.bank_management.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mlustig.bank_management.dto.BankAccountDto;
+import com.mlustig.bank_management.money.Money;
 import com.mlustig.bank_management.requests.TransactionRequest;
+import com.mlustig.bank_management.utils.StatementBudget;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.restdocs.AutoConfigureRestDocs;
@@ -11,7 +13,6 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 
@@ -35,7 +36,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(1)
     void createFirstAccount() throws Exception {
-        BankAccountDto accountDto = new BankAccountDto("john.doe@gmail.com", "John", "Doe", BigDecimal.valueOf(4500), BigDecimal.valueOf(1500), false, List.of());
+        BankAccountDto accountDto = new BankAccountDto("john.doe@gmail.com", "John", "Doe", Money.ofUnits(4500), Money.ofUnits(1500), false, List.of());
         mockMvc.perform(post("/api/v1/bank-accounts")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(accountDto)))
@@ -49,13 +50,14 @@ public class BankAccountControllerIT {
                 .andExpect(jsonPath("$.active").value(false))
                 .andExpect(jsonPath("$.transactions").isArray())
                 .andExpect(jsonPath("$.transactions").isEmpty())
+                .andExpect(StatementBudget.atMost(2))
                 .andDo(document("{method-name}"));
     }
 
     @Test
     @Order(2)
     void createSecondAccount() throws Exception {
-        BankAccountDto accountDto = new BankAccountDto("meir.lustig@gmail.com", "Meir", "Lustig", BigDecimal.valueOf(45000), BigDecimal.valueOf(-1500), false, List.of());
+        BankAccountDto accountDto = new BankAccountDto("meir.lustig@gmail.com", "Meir", "Lustig", Money.ofUnits(45000), Money.ofUnits(-1500), false, List.of());
         mockMvc.perform(post("/api/v1/bank-accounts")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(accountDto)))
@@ -75,7 +77,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(3)
     void createAccountWithWrongFormatAccountId() throws Exception {
-        BankAccountDto accountDto = new BankAccountDto("johndoe", "John", "Doe", BigDecimal.valueOf(4500), BigDecimal.valueOf(1500), false, List.of());
+        BankAccountDto accountDto = new BankAccountDto("johndoe", "John", "Doe", Money.ofUnits(4500), Money.ofUnits(1500), false, List.of());
         mockMvc.perform(post("/api/v1/bank-accounts")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(accountDto)))
@@ -90,7 +92,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(4)
     void createFirstAccountTwice() throws Exception {
-        BankAccountDto accountDto = new BankAccountDto("john.doe@gmail.com", "John", "Doe", BigDecimal.valueOf(4500), BigDecimal.valueOf(1500), false, List.of());
+        BankAccountDto accountDto = new BankAccountDto("john.doe@gmail.com", "John", "Doe", Money.ofUnits(4500), Money.ofUnits(1500), false, List.of());
         mockMvc.perform(post("/api/v1/bank-accounts")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(accountDto)))
@@ -116,6 +118,7 @@ public class BankAccountControllerIT {
                 .andExpect(jsonPath("$.active").value(false))
                 .andExpect(jsonPath("$.transactions").isArray())
                 .andExpect(jsonPath("$.transactions").isEmpty())
+                .andExpect(StatementBudget.atMost(1))
                 .andDo(document("{method-name}"));
     }
 
@@ -164,7 +167,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(9)
     void makeDepositToInactiveAccount() throws Exception {
-        TransactionRequest request = new TransactionRequest("john.doe@gmail.com", 500);
+        TransactionRequest request = new TransactionRequest("john.doe@gmail.com", Money.ofUnits(500));
         mockMvc.perform(post("/api/v1/bank-accounts/deposit")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -179,7 +182,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(10)
     void makeWithdrawFromInactiveAccount() throws Exception {
-        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", 500);
+        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", Money.ofUnits(500));
         mockMvc.perform(post("/api/v1/bank-accounts/withdraw")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -194,7 +197,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(11)
     void makeDepositWithWrongFormatAccountId() throws Exception {
-        TransactionRequest request = new TransactionRequest("john.doegmail.com", 500);
+        TransactionRequest request = new TransactionRequest("john.doegmail.com", Money.ofUnits(500));
         mockMvc.perform(post("/api/v1/bank-accounts/deposit")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -209,7 +212,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(12)
     void makeWithdrawWithWrongFormatAccountId() throws Exception {
-        TransactionRequest request = new TransactionRequest("meir.lustiggmail.com", 500);
+        TransactionRequest request = new TransactionRequest("meir.lustiggmail.com", Money.ofUnits(500));
         mockMvc.perform(post("/api/v1/bank-accounts/withdraw")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -224,7 +227,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(13)
     void makeDepositWithNoExistsAccountId() throws Exception {
-        TransactionRequest request = new TransactionRequest("no.exists@gmail.com", 500);
+        TransactionRequest request = new TransactionRequest("no.exists@gmail.com", Money.ofUnits(500));
         mockMvc.perform(post("/api/v1/bank-accounts/deposit")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -239,7 +242,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(14)
     void makeWithdrawWithNoExistsAccountId() throws Exception {
-        TransactionRequest request = new TransactionRequest("no.exists@gmail.com", 500);
+        TransactionRequest request = new TransactionRequest("no.exists@gmail.com", Money.ofUnits(500));
         mockMvc.perform(post("/api/v1/bank-accounts/withdraw")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -265,6 +268,7 @@ public class BankAccountControllerIT {
                 .andExpect(jsonPath("$.active").value(true))
                 .andExpect(jsonPath("$.transactions").isArray())
                 .andExpect(jsonPath("$.transactions").isEmpty())
+                .andExpect(StatementBudget.atMost(5))
                 .andDo(document("{method-name}"));
     }
 
@@ -329,7 +333,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(19)
     void makeDepositToFirstAccount() throws Exception {
-        TransactionRequest request = new TransactionRequest("john.doe@gmail.com", 500);
+        TransactionRequest request = new TransactionRequest("john.doe@gmail.com", Money.ofUnits(500));
         mockMvc.perform(post("/api/v1/bank-accounts/deposit")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -343,13 +347,14 @@ public class BankAccountControllerIT {
                 .andExpect(jsonPath("$.active").value(true))
                 .andExpect(jsonPath("$.transactions").isArray())
                 .andExpect(jsonPath("$.transactions").isEmpty())
+                .andExpect(StatementBudget.atMost(4))
                 .andDo(document("{method-name}"));
     }
 
     @Test
     @Order(20)
     void makeDepositToSecondAccount() throws Exception {
-        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", 500);
+        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", Money.ofUnits(500));
         mockMvc.perform(post("/api/v1/bank-accounts/deposit")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -369,7 +374,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(21)
     void makeWithdrawFromSecondAccount() throws Exception {
-        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", 47000);
+        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", Money.ofUnits(47000));
         mockMvc.perform(post("/api/v1/bank-accounts/withdraw")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -389,7 +394,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(22)
     void makeWithdrawFromSecondAccountOverTheMinimum() throws Exception {
-        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", 1);
+        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", Money.ofUnits(1));
         mockMvc.perform(post("/api/v1/bank-accounts/withdraw")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -404,7 +409,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(23)
     void makeWithdrawFromSecondAccountWithNegativeAmount() throws Exception {
-        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", -1);
+        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", Money.ofUnits(-1));
         mockMvc.perform(post("/api/v1/bank-accounts/withdraw")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -419,7 +424,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(24)
     void makeDepositFromSecondAccountWithNegativeAmount() throws Exception {
-        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", -1);
+        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", Money.ofUnits(-1));
         mockMvc.perform(post("/api/v1/bank-accounts/deposit")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -511,6 +516,61 @@ public class BankAccountControllerIT {
 
     @Test
     @Order(30)
+    void getAccountInfoWithSelectedFields() throws Exception {
+        mockMvc.perform(get("/api/v1/bank-accounts/{accountId}", "meir.lustig@gmail.com")
+                        .param("fields", "balance,active"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.balance").value(-1500))
+                .andExpect(jsonPath("$.active").value(false))
+                .andExpect(jsonPath("$.accountId").doesNotExist())
+                .andExpect(jsonPath("$.transactions").doesNotExist())
+                .andDo(document("{method-name}"));
+    }
+
+    @Test
+    @Order(31)
+    void getBalance() throws Exception {
+        mockMvc.perform(get("/api/v1/bank-accounts/{accountId}/balance", "meir.lustig@gmail.com"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.accountId").value("meir.lustig@gmail.com"))
+                .andExpect(jsonPath("$.balance").value(-1500))
+                .andExpect(jsonPath("$.minimumBalance").value(-1500))
+                .andExpect(jsonPath("$.active").value(false))
+                .andDo(document("{method-name}"));
+    }
+
+    @Test
+    @Order(32)
+    void getTransactionsFirstPage() throws Exception {
+        mockMvc.perform(get("/api/v1/bank-accounts/{accountId}/transactions", "meir.lustig@gmail.com")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(jsonPath("$.transactions.length()").value(1))
+                .andExpect(jsonPath("$.transactions[0].amount").value(47000))
+                .andExpect(jsonPath("$.transactions[0].type").value("WITHDRAW"))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andExpect(jsonPath("$.immutable").doesNotExist())
+                .andDo(document("{method-name}"));
+    }
+
+    @Test
+    @Order(33)
+    void getTransactionsWithInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/bank-accounts/{accountId}/transactions", "meir.lustig@gmail.com")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.message").value("Invalid cursor"))
+                .andExpect(jsonPath("$.statusCode").value(400))
+                .andDo(document("{method-name}"));
+    }
+
+    @Test
+    @Order(34)
     void deactivateInactiveAccount() throws Exception {
         mockMvc.perform(put("/api/v1/bank-accounts/{accountId}/deactivate", "meir.lustig@gmail.com"))
                 .andExpect(status().isOk())
@@ -527,7 +587,7 @@ public class BankAccountControllerIT {
     }
 
     @Test
-    @Order(31)
+    @Order(35)
     void deleteFirstBankAccount() throws Exception {
         mockMvc.perform(delete("/api/v1/bank-accounts/{accountId}", "john.doe@gmail.com"))
                 .andExpect(status().isNoContent())
@@ -542,7 +602,7 @@ public class BankAccountControllerIT {
     }
 
     @Test
-    @Order(32)
+    @Order(36)
     void deleteSecondBankAccount() throws Exception {
         mockMvc.perform(delete("/api/v1/bank-accounts/{accountId}", "meir.lustig@gmail.com"))
                 .andExpect(status().isNoContent())
@@ -557,7 +617,7 @@ public class BankAccountControllerIT {
     }
 
     @Test
-    @Order(33)
+    @Order(37)
     void deleteBankAccountWithWrongFormatAccountId() throws Exception {
         mockMvc.perform(delete("/api/v1/bank-accounts/{accountId}", "meir.lustiggmail.com"))
                 .andExpect(status().isBadRequest())
@@ -569,7 +629,7 @@ public class BankAccountControllerIT {
     }
 
     @Test
-    @Order(34)
+    @Order(38)
     void deleteBankAccountWithNoExistsAccountId() throws Exception {
         mockMvc.perform(delete("/api/v1/bank-accounts/{accountId}", "no.exists@gmail.com"))
                 .andExpect(status().isNoContent())
@@ -577,7 +637,7 @@ public class BankAccountControllerIT {
     }
 
     @Test
-    @Order(35)
+    @Order(39)
     void makeWithdrawWithWrongFieldType() throws Exception {
 
         HashMap<String, String> request = new HashMap<>();
@@ -1,8 +1,12 @@
 package com.mlustig.bank_management.facades;
 
 import com.mlustig.bank_management.dao.BankAccount;
+import com.mlustig.bank_management.dao.Transaction;
 import com.mlustig.bank_management.enums.BankAccountFields;
 import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.projections.BankAccountSummary;
+import com.mlustig.bank_management.repositories.TransactionRepository;
 import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.DisplayNameGeneration;
@@ -12,12 +16,14 @@ import org.junit.jupiter.api.Timeout;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.util.Pair;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.jdbc.Sql;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,6 +39,9 @@ public class DataFacadeIT {
     @Autowired
     private DataFacade dataFacade;
 
+    @Autowired
+    private TransactionRepository transactionRepository;
+
     @Test
     public void findAllBankAccounts() {
 
@@ -45,8 +54,8 @@ public class DataFacadeIT {
         assertEquals("theodore.roosevelt@gmail.com", result.get(0).getAccountId());
         assertEquals("Theodore", result.get(0).getFirstName());
         assertEquals("Roosevelt", result.get(0).getLastName());
-        assertEquals(3500, result.get(0).getBalance().intValue());
-        assertEquals(1500, result.get(0).getMinimumBalance().intValue());
+        assertEquals(Money.ofUnits(3500), result.get(0).getBalance());
+        assertEquals(Money.ofUnits(1500), result.get(0).getMinimumBalance());
         assertInstanceOf(LocalDateTime.class, result.get(0).getCreatedAt());
         assertInstanceOf(LocalDateTime.class, result.get(0).getUpdatedAt());
 
@@ -54,8 +63,8 @@ public class DataFacadeIT {
         assertEquals("franklin.benjamin@gmail.com", result.get(1).getAccountId());
         assertEquals("Franklin", result.get(1).getFirstName());
         assertEquals("Benjamin", result.get(1).getLastName());
-        assertEquals(0, result.get(1).getBalance().intValue());
-        assertEquals(-1000, result.get(1).getMinimumBalance().intValue());
+        assertEquals(Money.ofUnits(0), result.get(1).getBalance());
+        assertEquals(Money.ofUnits(-1000), result.get(1).getMinimumBalance());
         assertInstanceOf(LocalDateTime.class, result.get(1).getCreatedAt());
         assertInstanceOf(LocalDateTime.class, result.get(1).getUpdatedAt());
     }
@@ -70,8 +79,8 @@ public class DataFacadeIT {
         assertEquals("theodore.roosevelt@gmail.com", result.get().getAccountId());
         assertEquals("Theodore", result.get().getFirstName());
         assertEquals("Roosevelt", result.get().getLastName());
-        assertEquals(3500, result.get().getBalance().intValue());
-        assertEquals(1500, result.get().getMinimumBalance().intValue());
+        assertEquals(Money.ofUnits(3500), result.get().getBalance());
+        assertEquals(Money.ofUnits(1500), result.get().getMinimumBalance());
         assertInstanceOf(LocalDateTime.class, result.get().getCreatedAt());
         assertInstanceOf(LocalDateTime.class, result.get().getUpdatedAt());
     }
@@ -86,20 +95,33 @@ public class DataFacadeIT {
         assertEquals("franklin.benjamin@gmail.com", result.get().getAccountId());
         assertEquals("Franklin", result.get().getFirstName());
         assertEquals("Benjamin", result.get().getLastName());
-        assertEquals(0, result.get().getBalance().intValue());
-        assertEquals(-1000, result.get().getMinimumBalance().intValue());
+        assertEquals(Money.ofUnits(0), result.get().getBalance());
+        assertEquals(Money.ofUnits(-1000), result.get().getMinimumBalance());
         assertInstanceOf(LocalDateTime.class, result.get().getCreatedAt());
         assertInstanceOf(LocalDateTime.class, result.get().getUpdatedAt());
     }
 
+    @Test
+    public void findBankAccountSummaryByAccountId_TryToFindSummaryForFirstAccountId_DataSuccessfullyReceived() {
+
+        Optional<BankAccountSummary> result = dataFacade.findBankAccountSummaryByAccountId("theodore.roosevelt@gmail.com");
+
+        assertTrue(result.isPresent());
+        assertEquals(1L, result.get().getId());
+        assertEquals("theodore.roosevelt@gmail.com", result.get().getAccountId());
+        assertEquals(Money.ofUnits(3500), result.get().getBalance());
+        assertEquals(Money.ofUnits(1500), result.get().getMinimumBalance());
+        assertTrue(result.get().isActive());
+    }
+
     @Test
     public void saveBankAccount() {
         BankAccount bankAccount = BankAccount.builder()
                 .accountId("meir.lustig@gmail.com")
                 .firstName("Meir")
                 .lastName("Lustig")
-                .balance(BigDecimal.valueOf(3500))
-                .minimumBalance(BigDecimal.valueOf(1500))
+                .balance(Money.ofUnits(3500))
+                .minimumBalance(Money.ofUnits(1500))
                 .active(true)
                 .build();
 
@@ -109,8 +131,8 @@ public class DataFacadeIT {
         assertEquals("meir.lustig@gmail.com", result.get().getAccountId());
         assertEquals("Meir", result.get().getFirstName());
         assertEquals("Lustig", result.get().getLastName());
-        assertEquals(3500, result.get().getBalance().intValue());
-        assertEquals(1500, result.get().getMinimumBalance().intValue());
+        assertEquals(Money.ofUnits(3500), result.get().getBalance());
+        assertEquals(Money.ofUnits(1500), result.get().getMinimumBalance());
         assertTrue(result.get().isActive());
         assertInstanceOf(LocalDateTime.class, result.get().getCreatedAt());
         assertInstanceOf(LocalDateTime.class, result.get().getUpdatedAt());
@@ -118,7 +140,47 @@ public class DataFacadeIT {
 
     @Test
     public void saveTransaction() {
-        dataFacade.saveTransaction(1L, BigDecimal.valueOf(1000), TransactionType.DEPOSIT);
+        dataFacade.saveTransaction(1L, Money.ofUnits(1000), TransactionType.DEPOSIT);
+    }
+
+    @Test
+    public void saveTransactions_SaveBulkOfTransactions_AllTransactionsReceivedDistinctIds() {
+        List<Transaction> transactions = IntStream.range(0, 200)
+                .mapToObj(i -> Transaction.builder()
+                        .bankAccountId(1L)
+                        .amount(Money.ofUnits(i + 1))
+                        .type(TransactionType.DEPOSIT)
+                        .build())
+                .toList();
+
+        List<Transaction> result = dataFacade.saveTransactions(transactions);
+
+        assertEquals(200, result.size());
+        assertEquals(200, result.stream().map(Transaction::getId).distinct().count());
+    }
+
+    @Test
+    public void applyTransaction_WithdrawDownToMinimumBalance_BalanceUpdated() {
+        Optional<BankAccountSummary> result = dataFacade.applyTransaction("theodore.roosevelt@gmail.com", Money.ofUnits(2000), TransactionType.WITHDRAW);
+
+        assertTrue(result.isPresent());
+        assertEquals(1L, result.get().getId());
+        assertEquals("theodore.roosevelt@gmail.com", result.get().getAccountId());
+        assertEquals(Money.ofUnits(1500), result.get().getBalance());
+        assertEquals(Money.ofUnits(1500), result.get().getMinimumBalance());
+        assertTrue(result.get().isActive());
+    }
+
+    @Test
+    public void applyTransaction_WithdrawBelowMinimumBalance_EmptyOptional() {
+        Optional<BankAccountSummary> result = dataFacade.applyTransaction("theodore.roosevelt@gmail.com", Money.ofUnits(2001), TransactionType.WITHDRAW);
+        assertFalse(result.isPresent());
+    }
+
+    @Test
+    public void applyTransaction_DepositToInactiveAccount_EmptyOptional() {
+        Optional<BankAccountSummary> result = dataFacade.applyTransaction("franklin.benjamin@gmail.com", Money.ofUnits(100), TransactionType.DEPOSIT);
+        assertFalse(result.isPresent());
     }
 
     @Test
@@ -137,8 +199,8 @@ public class DataFacadeIT {
         assertEquals("franklin.benjamin@gmail.com", result.get().getAccountId());
         assertEquals("Franklin", result.get().getFirstName());
         assertEquals("Benjamin", result.get().getLastName());
-        assertEquals(0, result.get().getBalance().intValue());
-        assertEquals(-1000, result.get().getMinimumBalance().intValue());
+        assertEquals(Money.ofUnits(0), result.get().getBalance());
+        assertEquals(Money.ofUnits(-1000), result.get().getMinimumBalance());
         assertFalse(result.get().isActive());
 
         LocalDateTime createdAt = result.get().getCreatedAt();
@@ -156,8 +218,8 @@ public class DataFacadeIT {
         assertEquals("franklin.benjamin@gmail.com", result.get().getAccountId());
         assertEquals("Meir", result.get().getFirstName());
         assertEquals("Roth", result.get().getLastName());
-        assertEquals(10000, result.get().getBalance().intValue());
-        assertEquals(0, result.get().getMinimumBalance().intValue());
+        assertEquals(Money.ofUnits(10000), result.get().getBalance());
+        assertEquals(Money.ofUnits(0), result.get().getMinimumBalance());
         assertTrue(result.get().isActive());
         assertInstanceOf(LocalDateTime.class, result.get().getCreatedAt());
         assertInstanceOf(LocalDateTime.class, result.get().getUpdatedAt());
@@ -181,6 +243,14 @@ public class DataFacadeIT {
         assertFalse(result.isPresent());
     }
 
+    @Test
+    public void updateBankAccount_TryToUpdateWithStaleVersion_ObjectOptimisticLockingFailureException() {
+        dataFacade.applyTransaction("theodore.roosevelt@gmail.com", Money.ofUnits(100), TransactionType.DEPOSIT);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () ->
+                dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", 0L, List.of(Pair.of(BankAccountFields.ACTIVE, "false"))));
+    }
+
     @Test
     public void deleteBankAccountById() {
 
@@ -200,4 +270,39 @@ public class DataFacadeIT {
         assertEquals(1, result.size());
         assertEquals(1L, result.get(0).getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void findBalanceAsOf_WithAndWithoutSnapshots_SameHistoricalBalance() {
+        LocalDate firstDay = LocalDate.now().minusDays(3);
+        LocalDate secondDay = LocalDate.now().minusDays(2);
+        // The current balance of 3500 already includes both transactions, so the account opened at 3440.
+        transactionRepository.saveAllAndFlush(List.of(
+                transaction(Money.ofUnits(100), TransactionType.DEPOSIT, firstDay.atTime(10, 0)),
+                transaction(Money.ofUnits(40), TransactionType.WITHDRAW, secondDay.atTime(12, 0))));
+
+        assertEquals(Money.ofUnits(3540), dataFacade.findBalanceAsOf("theodore.roosevelt@gmail.com", firstDay.atTime(11, 0)).get());
+
+        assertEquals(Optional.of(firstDay), dataFacade.findNextSnapshotDay(LocalDate.of(1970, 1, 1)));
+        assertEquals(1, dataFacade.buildBalanceSnapshots(firstDay));
+        assertEquals(1, dataFacade.buildBalanceSnapshots(secondDay));
+        assertEquals(0, dataFacade.buildBalanceSnapshots(firstDay));
+        assertEquals(Optional.empty(), dataFacade.findNextSnapshotDay(LocalDate.of(1970, 1, 1)));
+
+        assertEquals(Money.ofUnits(3440), dataFacade.findBalanceAsOf("theodore.roosevelt@gmail.com", firstDay.minusDays(2).atStartOfDay()).get());
+        assertEquals(Money.ofUnits(3440), dataFacade.findBalanceAsOf("theodore.roosevelt@gmail.com", firstDay.atTime(9, 0)).get());
+        assertEquals(Money.ofUnits(3540), dataFacade.findBalanceAsOf("theodore.roosevelt@gmail.com", firstDay.atTime(11, 0)).get());
+        assertEquals(Money.ofUnits(3540), dataFacade.findBalanceAsOf("theodore.roosevelt@gmail.com", secondDay.atTime(11, 0)).get());
+        assertEquals(Money.ofUnits(3500), dataFacade.findBalanceAsOf("theodore.roosevelt@gmail.com", secondDay.atTime(13, 0)).get());
+        assertEquals(Money.ofUnits(3500), dataFacade.findBalanceAsOf("theodore.roosevelt@gmail.com", LocalDateTime.now()).get());
+        assertFalse(dataFacade.findBalanceAsOf("fake.mail@gmail.com", LocalDateTime.now()).isPresent());
+    }
+
+    private Transaction transaction(Money amount, TransactionType type, LocalDateTime createdAt) {
+        return Transaction.builder()
+                .bankAccountId(1L)
+                .amount(amount)
+                .type(type)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -1,8 +1,13 @@
 package com.mlustig.bank_management.facades;
 
+import com.mlustig.bank_management.cache.AccountCacheInvalidator;
+import com.mlustig.bank_management.cache.AccountSummaryCache;
 import com.mlustig.bank_management.dao.BankAccount;
+import com.mlustig.bank_management.dao.Transaction;
 import com.mlustig.bank_management.enums.BankAccountFields;
 import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.projections.BankAccountSummary;
 import com.mlustig.bank_management.repositories.BankAccountRepository;
 import com.mlustig.bank_management.repositories.TransactionRepository;
 import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
@@ -12,8 +17,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.springframework.data.util.Pair;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -31,6 +36,12 @@ public class DataFacadeTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private AccountSummaryCache accountSummaryCache;
+
+    @Mock
+    private AccountCacheInvalidator accountCacheInvalidator;
+
     @InjectMocks
     private DataFacade dataFacade;
 
@@ -38,9 +49,9 @@ public class DataFacadeTest {
     public void findAllBankAccounts() {
         // Arrange
         BankAccount bankAccount1 = createBankAccount(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
-                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500));
+                Money.ofUnits(3500), Money.ofUnits(1500));
         BankAccount bankAccount2 = createBankAccount(2L, "franklin.benjamin@gmail.com", "Franklin", "Benjamin",
-                BigDecimal.valueOf(0), BigDecimal.valueOf(-1000));
+                Money.ofUnits(0), Money.ofUnits(-1000));
         when(bankAccountRepository.findAll()).thenReturn(List.of(bankAccount1, bankAccount2));
 
         // Act
@@ -59,7 +70,7 @@ public class DataFacadeTest {
     public void findBankAccountByAccountId_ExistingAccountId_ReturnsBankAccount() {
         // Arrange
         BankAccount bankAccount = createBankAccount(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
-                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500));
+                Money.ofUnits(3500), Money.ofUnits(1500));
         when(bankAccountRepository.findBankAccountByAccountId("theodore.roosevelt@gmail.com"))
                 .thenReturn(Optional.of(bankAccount));
 
@@ -91,7 +102,7 @@ public class DataFacadeTest {
     public void saveBankAccount_ValidBankAccount_ReturnsSavedBankAccount() {
         // Arrange
         BankAccount bankAccount = createBankAccount(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
-                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500));
+                Money.ofUnits(3500), Money.ofUnits(1500));
         when(bankAccountRepository.save(bankAccount)).thenReturn(bankAccount);
 
         // Act
@@ -104,13 +115,31 @@ public class DataFacadeTest {
         verifyNoMoreInteractions(bankAccountRepository);
     }
 
+    @Test
+    public void saveTransactions_ListOfTransactions_SavedInSingleCall() {
+        // Arrange
+        List<Transaction> transactions = List.of(
+                Transaction.builder().bankAccountId(1L).amount(Money.ofUnits(100)).type(TransactionType.DEPOSIT).build(),
+                Transaction.builder().bankAccountId(1L).amount(Money.ofUnits(50)).type(TransactionType.WITHDRAW).build());
+        when(transactionRepository.saveAll(transactions)).thenReturn(transactions);
+
+        // Act
+        List<Transaction> result = dataFacade.saveTransactions(transactions);
+
+        // Assert
+        assertEquals(2, result.size());
+        verify(transactionRepository).saveAll(transactions);
+        verifyNoMoreInteractions(transactionRepository);
+        verifyNoInteractions(bankAccountRepository);
+    }
+
     @Test
     public void updateBankAccount_ExistingAccountIdAndValidFields_ReturnsUpdatedBankAccount() {
         // Arrange
         BankAccount originalBankAccount = createBankAccount(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
-                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500));
+                Money.ofUnits(3500), Money.ofUnits(1500));
         BankAccount updatedBankAccount = createBankAccount(1L, "theodore.roosevelt@gmail.com", "Meir", "Roth",
-                BigDecimal.valueOf(10000), BigDecimal.valueOf(0));
+                Money.ofUnits(10000), Money.ofUnits(0));
 
         when(bankAccountRepository.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(originalBankAccount));
         when(bankAccountRepository.save(any(BankAccount.class))).thenReturn(updatedBankAccount);
@@ -152,7 +181,7 @@ public class DataFacadeTest {
     public void updateBankAccount_UnauthorizedField_ThrowsIllegalArgumentException() {
         // Arrange
         BankAccount originalBankAccount = createBankAccount(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
-                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500));
+                Money.ofUnits(3500), Money.ofUnits(1500));
         when(bankAccountRepository.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(originalBankAccount));
 
         // Act and Assert
@@ -165,6 +194,21 @@ public class DataFacadeTest {
         verifyNoMoreInteractions(bankAccountRepository);
     }
 
+    @Test
+    public void updateBankAccount_StaleExpectedVersion_ThrowsObjectOptimisticLockingFailureException() {
+        // Arrange
+        BankAccount originalBankAccount = createBankAccount(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
+                Money.ofUnits(3500), Money.ofUnits(1500));
+        originalBankAccount.setVersion(2L);
+        when(bankAccountRepository.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(originalBankAccount));
+
+        // Act and Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> dataFacade.updateBankAccount("theodore.roosevelt@gmail.com",
+                1L, List.of(Pair.of(BankAccountFields.ACTIVE, "true"))));
+        verify(bankAccountRepository).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
+        verifyNoMoreInteractions(bankAccountRepository);
+    }
+
     @Test
     public void deleteBankAccountById_ValidAccountId_DeletesBankAccount() {
         // Act
@@ -179,7 +223,7 @@ public class DataFacadeTest {
     public void saveTransaction_ValidTransactionData_TransactionSaved() {
         // Arrange
         Long bankAccountId = 1L;
-        BigDecimal amount = BigDecimal.valueOf(100.00);
+        Money amount = Money.ofUnits(100);
         TransactionType type = TransactionType.DEPOSIT;
 
         // Act
@@ -187,6 +231,43 @@ public class DataFacadeTest {
 
         // Assert
         verify(transactionRepository).save(any());
+        verify(accountCacheInvalidator).accountChanged("theodore.roosevelt@gmail.com");
+        verifyNoMoreInteractions(transactionRepository, bankAccountRepository);
+    }
+
+    @Test
+    public void applyTransaction_ActiveAccountWithEnoughFunds_TransactionSaved() {
+        // Arrange
+        BankAccountSummary updated = mock(BankAccountSummary.class);
+        when(updated.getId()).thenReturn(1L);
+        when(bankAccountRepository.applyBalanceDelta("theodore.roosevelt@gmail.com", Money.ofUnits(-100)))
+                .thenReturn(Optional.of(updated));
+
+        // Act
+        Optional<BankAccountSummary> result = dataFacade.applyTransaction("theodore.roosevelt@gmail.com",
+                Money.ofUnits(100), TransactionType.WITHDRAW);
+
+        // Assert
+        assertTrue(result.isPresent());
+        verify(bankAccountRepository).applyBalanceDelta("theodore.roosevelt@gmail.com", Money.ofUnits(-100));
+        verify(transactionRepository).save(any());
+        verifyNoMoreInteractions(transactionRepository, bankAccountRepository);
+    }
+
+    @Test
+    public void applyTransaction_RejectedByDatabase_NoTransactionSaved() {
+        // Arrange
+        when(bankAccountRepository.applyBalanceDelta("theodore.roosevelt@gmail.com", Money.ofUnits(100)))
+                .thenReturn(Optional.empty());
+
+        // Act
+        Optional<BankAccountSummary> result = dataFacade.applyTransaction("theodore.roosevelt@gmail.com",
+                Money.ofUnits(100), TransactionType.DEPOSIT);
+
+        // Assert
+        assertFalse(result.isPresent());
+        verify(bankAccountRepository).applyBalanceDelta("theodore.roosevelt@gmail.com", Money.ofUnits(100));
+        verifyNoInteractions(accountCacheInvalidator);
         verifyNoMoreInteractions(transactionRepository, bankAccountRepository);
     }
 
@@ -206,7 +287,7 @@ public class DataFacadeTest {
     // Helper methods
 
     private BankAccount createBankAccount(Long id, String accountId, String firstName, String lastName,
-                                          BigDecimal balance, BigDecimal minimumBalance) {
+                                          Money balance, Money minimumBalance) {
         return BankAccount.builder()
                 .id(id)
                 .accountId(accountId)
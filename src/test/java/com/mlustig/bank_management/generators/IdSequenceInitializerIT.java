@@ -0,0 +1,61 @@
+package com.mlustig.bank_management.generators;
+
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("integration")
+@SpringBootTest
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class IdSequenceInitializerIT {
+
+    @Autowired
+    private IdSequenceInitializer initializer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void tearDown() {
+        for (String sequence : IdSequenceInitializer.SEQUENCES) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + PooledSequenceGenerator.DEFAULT_BLOCK_SIZE);
+        }
+    }
+
+    @Test
+    public void initializeSequences_GeneratedSequences_MatchBlockSize() {
+        initializer.initializeSequences();
+
+        assertEquals(PooledSequenceGenerator.DEFAULT_BLOCK_SIZE, incrementOf("bank_account_id_sequence"));
+        assertEquals(PooledSequenceGenerator.DEFAULT_BLOCK_SIZE, incrementOf("transaction_id_sequence"));
+    }
+
+    @Test
+    public void initializeSequences_LegacyIncrementOfOne_RaisedToBlockSize() {
+        jdbcTemplate.execute("ALTER SEQUENCE bank_account_id_sequence INCREMENT BY 1");
+
+        initializer.initializeSequences();
+
+        assertEquals(PooledSequenceGenerator.DEFAULT_BLOCK_SIZE, incrementOf("bank_account_id_sequence"));
+    }
+
+    @Test
+    public void initializeSequences_OtherIncrement_IllegalStateException() {
+        jdbcTemplate.execute("ALTER SEQUENCE transaction_id_sequence INCREMENT BY 20");
+
+        assertThrows(IllegalStateException.class, () -> initializer.initializeSequences());
+        assertEquals(20, incrementOf("transaction_id_sequence"));
+    }
+
+    private long incrementOf(String sequence) {
+        return jdbcTemplate.queryForObject("SELECT increment_by FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?",
+                Long.class, sequence);
+    }
+}
@@ -0,0 +1,61 @@
+package com.mlustig.bank_management.importing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mlustig.bank_management.dto.BankAccountDto;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class AccountRecordParserTest {
+
+    @Test
+    public void parse_CsvColumnsInAnyOrder_MatchedByHeader() {
+        AccountRecordParser parser = AccountRecordParser.forCsv("firstName,lastName,accountId,active,balance,minimumBalance");
+
+        BankAccountDto result = parser.parse("\"Doe, Jr.\",\"O\"\"Neil\",john.doe@gmail.com,true,4500.50,-100");
+
+        assertEquals(new BankAccountDto("john.doe@gmail.com", "Doe, Jr.", "O\"Neil", Money.parse("4500.50"),
+                Money.ofUnits(-100), true, List.of()), result);
+    }
+
+    @Test
+    public void forCsv_MissingColumn_IllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> AccountRecordParser.forCsv("accountId,firstName,lastName,balance,active"));
+    }
+
+    @Test
+    public void parse_CsvMissingFieldOrBadValue_IllegalArgumentException() {
+        AccountRecordParser parser = AccountRecordParser.forCsv("accountId,firstName,lastName,balance,minimumBalance,active");
+
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("john.doe@gmail.com,John,Doe,4500"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("john.doe@gmail.com,John,Doe,lots,0,true"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("john.doe@gmail.com,John,Doe,10,0,yes"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("john.doe@gmail.com,\"John,Doe,10,0,true"));
+    }
+
+    @Test
+    public void parse_JsonLine_SameAsRequestBody() {
+        AccountRecordParser parser = AccountRecordParser.forJsonLines(new ObjectMapper());
+
+        BankAccountDto result = parser.parse("""
+                {"accountId":"john.doe@gmail.com","firstName":"John","lastName":"Doe","balance":4500,"minimumBalance":1500,"active":false}""");
+
+        assertEquals("john.doe@gmail.com", result.accountId());
+        assertEquals(Money.ofUnits(4500), result.balance());
+        assertFalse(result.active());
+    }
+
+    @Test
+    public void parse_JsonLineMissingField_IllegalArgumentException() {
+        AccountRecordParser parser = AccountRecordParser.forJsonLines(new ObjectMapper());
+
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("{\"accountId\":\"john.doe@gmail.com\"}"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("not json"));
+    }
+}
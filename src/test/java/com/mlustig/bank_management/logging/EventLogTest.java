@@ -0,0 +1,93 @@
+package com.mlustig.bank_management.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.mlustig.bank_management.config.LoggingProperties;
+import com.mlustig.bank_management.exceptions.InsufficientFundsException;
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.NOPLoggingEventBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class EventLogTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(EventLogTest.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private LoggingProperties properties;
+    private EventLog eventLog;
+
+    @BeforeEach
+    public void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+        logger.setLevel(Level.DEBUG);
+        properties = new LoggingProperties();
+        eventLog = new EventLog(properties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        logger.detachAppender(appender);
+        logger.setLevel(null);
+    }
+
+    @Test
+    public void event_CategoryNotSampled_LoggedWithKeyValues() {
+        // Act
+        eventLog.event(logger, "ledger").addKeyValue("accountId", "john.doe@gmail.com").log("deposit");
+
+        // Assert
+        assertEquals(1, appender.list.size());
+        ILoggingEvent event = appender.list.get(0);
+        assertEquals(Level.INFO, event.getLevel());
+        assertTrue(event.getKeyValuePairs().stream().anyMatch(pair -> pair.key.equals("category") && pair.value.equals("ledger")));
+        assertTrue(event.getKeyValuePairs().stream().anyMatch(pair -> pair.key.equals("accountId")));
+    }
+
+    @Test
+    public void event_CategorySampledOut_NothingLogged() {
+        // Arrange
+        properties.getSampling().put("ledger", 0.0);
+
+        // Act
+        eventLog.event(logger, "ledger").log("deposit");
+
+        // Assert
+        assertSame(NOPLoggingEventBuilder.singleton(), eventLog.event(logger, "ledger"));
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    public void rejected_ConfiguredLevel_LoggedWithoutStackTrace() {
+        // Arrange
+        properties.getOutcomeLevels().put(EventOutcome.REJECTED, org.slf4j.event.Level.DEBUG);
+
+        // Act
+        eventLog.rejected(logger, new InsufficientFundsException(), "/api/v1/bank-accounts/withdraw");
+
+        // Assert
+        ILoggingEvent event = appender.list.get(0);
+        assertEquals(Level.DEBUG, event.getLevel());
+        assertEquals("Insufficient funds exception", event.getFormattedMessage());
+        assertNull(event.getThrowableProxy());
+    }
+
+    @Test
+    public void failed_UnexpectedException_LoggedWithCause() {
+        // Act
+        eventLog.failed(logger, new IllegalStateException("boom"), "/api/v1/bank-accounts/deposit");
+
+        // Assert
+        ILoggingEvent event = appender.list.get(0);
+        assertEquals(Level.ERROR, event.getLevel());
+        assertNotNull(event.getThrowableProxy());
+    }
+}
@@ -1,13 +1,15 @@
 package com.mlustig.bank_management.mappers;
 
 import com.mlustig.bank_management.dao.BankAccount;
+import com.mlustig.bank_management.dao.BankAccountRow;
 import com.mlustig.bank_management.dao.Transaction;
+import com.mlustig.bank_management.dao.TransactionRow;
 import com.mlustig.bank_management.dto.BankAccountDto;
 import com.mlustig.bank_management.dto.TransactionDto;
 import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.money.Money;
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,7 +24,7 @@ public class BankAccountMapperTest {
         Transaction transaction = Transaction.builder()
                 .id(1L)
                 .bankAccountId(1L)
-                .amount(BigDecimal.valueOf(4500))
+                .amount(Money.ofUnits(4500))
                 .type(TransactionType.DEPOSIT)
                 .build();
 
@@ -31,8 +33,8 @@ public class BankAccountMapperTest {
                 .accountId("theodore.roosevelt@gmail.com")
                 .firstName("Theodore")
                 .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(4500))
-                .minimumBalance(BigDecimal.valueOf(1500))
+                .balance(Money.ofUnits(4500))
+                .minimumBalance(Money.ofUnits(1500))
                 .active(true)
                 .transactions(List.of(transaction))
                 .build();
@@ -42,29 +44,47 @@ public class BankAccountMapperTest {
 
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
-        assertThat(bankAccountDto.balance()).isEqualTo(BigDecimal.valueOf(4500));
-        assertThat(bankAccountDto.minimumBalance()).isEqualTo(BigDecimal.valueOf(1500));
+        assertThat(bankAccountDto.balance()).isEqualTo(Money.ofUnits(4500));
+        assertThat(bankAccountDto.minimumBalance()).isEqualTo(Money.ofUnits(1500));
         assertThat(bankAccountDto.active()).isTrue();
 
 
-        assertThat(transactionDto.amount()).isEqualTo(BigDecimal.valueOf(4500));
+        assertThat(transactionDto.amount()).isEqualTo(Money.ofUnits(4500));
         assertThat(transactionDto.type()).isEqualTo(TransactionType.DEPOSIT);
     }
 
+    @Test
+    void toDtoFromRows() {
+
+        LocalDateTime now = LocalDateTime.now(Clock.systemDefaultZone());
+        BankAccountRow bankAccount = new BankAccountRow(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
+                Money.ofUnits(4500), Money.ofUnits(1500), true, 0L, now, now);
+        TransactionRow transaction = new TransactionRow(1L, 1L, Money.ofUnits(4500), TransactionType.DEPOSIT, now);
+
+        BankAccountDto bankAccountDto = BankAccountMapper.INSTANCE.toDto(bankAccount, List.of(transaction));
+
+        assertThat(bankAccountDto.accountId()).isEqualTo("theodore.roosevelt@gmail.com");
+        assertThat(bankAccountDto.balance()).isEqualTo(Money.ofUnits(4500));
+        assertThat(bankAccountDto.active()).isTrue();
+        assertThat(bankAccountDto.transactions()).containsExactly(
+                new TransactionDto(Money.ofUnits(4500), TransactionType.DEPOSIT, now));
+        assertThat(BankAccountMapper.INSTANCE.toDto(bankAccount).transactions()).isEmpty();
+    }
+
     @Test
     void toDao() {
 
         BankAccountDto bankAccountDto = new BankAccountDto("theodore.roosevelt@gmail.com",
                 "Theodore", "Roosevelt",
-                BigDecimal.valueOf(3000), BigDecimal.valueOf(1000), false, List.of(new TransactionDto(BigDecimal.valueOf(1000), TransactionType.DEPOSIT, LocalDateTime.now(Clock.systemDefaultZone()))));
+                Money.ofUnits(3000), Money.ofUnits(1000), false, List.of(new TransactionDto(Money.ofUnits(1000), TransactionType.DEPOSIT, LocalDateTime.now(Clock.systemDefaultZone()))));
 
         BankAccount bankAccount = BankAccountMapper.INSTANCE.toDao(bankAccountDto);
 
         assertThat(bankAccount.getId()).isNull();
         assertThat(bankAccount.getFirstName()).isEqualTo("Theodore");
         assertThat(bankAccount.getLastName()).isEqualTo("Roosevelt");
-        assertThat(bankAccount.getBalance()).isEqualTo(BigDecimal.valueOf(3000));
-        assertThat(bankAccount.getMinimumBalance()).isEqualTo(BigDecimal.valueOf(1000));
+        assertThat(bankAccount.getBalance()).isEqualTo(Money.ofUnits(3000));
+        assertThat(bankAccount.getMinimumBalance()).isEqualTo(Money.ofUnits(1000));
         assertThat(bankAccount.isActive()).isFalse();
         assertThat(bankAccount.getUpdatedAt()).isNotNull();
         assertThat(bankAccount.getCreatedAt()).isNotNull();
@@ -3,10 +3,10 @@ package com.mlustig.bank_management.mappers;
 import com.mlustig.bank_management.dao.Transaction;
 import com.mlustig.bank_management.dto.TransactionDto;
 import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.money.Money;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 public class TransactionMapperTest {
@@ -17,7 +17,7 @@ public class TransactionMapperTest {
         Transaction transaction = Transaction.builder()
                 .id(1L)
                 .bankAccountId(123L)
-                .amount(BigDecimal.valueOf(100.00))
+                .amount(Money.ofUnits(100))
                 .type(TransactionType.DEPOSIT)
                 .createdAt(LocalDateTime.now())
                 .build();
@@ -0,0 +1,116 @@
+package com.mlustig.bank_management.metrics;
+
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoSettings;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@MockitoSettings
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class CountingDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private CountingDataSource dataSource;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dataSource = new CountingDataSource(target);
+        when(target.getConnection()).thenReturn(connection);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestDbStatistics.clear();
+    }
+
+    @Test
+    public void executeQuery_WithinRequest_StatementsAndRowsCounted() throws Exception {
+        // Arrange
+        when(connection.prepareStatement("SELECT 1")).thenReturn(statement);
+        RequestDbStatistics statistics = RequestDbStatistics.start();
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, false);
+
+        // Act
+        try (Connection wrapped = dataSource.getConnection()) {
+            ResultSet rows = wrapped.prepareStatement("SELECT 1").executeQuery();
+            while (rows.next()) {
+                rows.getInt(1);
+            }
+        }
+
+        // Assert
+        assertEquals(1, statistics.getStatements());
+        assertEquals(2, statistics.getRows());
+        assertTrue(statistics.getJdbcNanos() >= 0);
+    }
+
+    @Test
+    public void executeBatch_WithinRequest_CountedAsOneRoundTrip() throws Exception {
+        // Arrange
+        when(connection.prepareStatement("SELECT 1")).thenReturn(statement);
+        RequestDbStatistics statistics = RequestDbStatistics.start();
+        when(statement.executeBatch()).thenReturn(new int[]{1, 1, 1});
+
+        // Act
+        PreparedStatement wrapped = dataSource.getConnection().prepareStatement("SELECT 1");
+        wrapped.addBatch();
+        wrapped.addBatch();
+        wrapped.addBatch();
+        wrapped.executeBatch();
+
+        // Assert
+        assertEquals(1, statistics.getStatements());
+    }
+
+    @Test
+    public void executeQuery_OutsideRequest_NothingCounted() throws Exception {
+        // Arrange
+        when(connection.prepareStatement("SELECT 1")).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, false);
+
+        // Act
+        ResultSet rows = dataSource.getConnection().prepareStatement("SELECT 1").executeQuery();
+
+        // Assert
+        assertTrue(rows.next());
+        assertNull(RequestDbStatistics.current());
+    }
+
+    @Test
+    public void unwrap_WrappedConnection_DelegatesToDriver() throws Exception {
+        // Arrange
+        when(connection.unwrap(Connection.class)).thenReturn(connection);
+
+        // Act
+        Connection wrapped = dataSource.getConnection();
+
+        // Assert
+        assertSame(connection, wrapped.unwrap(Connection.class));
+        assertEquals(wrapped, wrapped);
+        assertNotEquals(wrapped, connection);
+    }
+}
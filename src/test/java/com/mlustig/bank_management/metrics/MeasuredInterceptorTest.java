@@ -0,0 +1,249 @@
+package com.mlustig.bank_management.metrics;
+
+import com.mlustig.bank_management.dto.LedgerResult;
+import com.mlustig.bank_management.enums.RejectionReason;
+import com.mlustig.bank_management.exceptions.AccountNotFoundException;
+import com.mlustig.bank_management.exceptions.ApiError;
+import com.mlustig.bank_management.exceptions.InsufficientFundsException;
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class MeasuredInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MeasuredInterceptor interceptor;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry));
+        interceptor = new MeasuredInterceptor(beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+
+    @Test
+    public void invoke_ControllerSucceeds_EndpointTimerRecorded() {
+        // Arrange
+        SampleController controller = proxy(new SampleController());
+
+        // Act
+        String result = controller.getBalance();
+
+        // Assert
+        assertEquals("ok", result);
+        Timer timer = meterRegistry.get("bank_account_endpoint_timer")
+                .tag("endpoint", "getBalance")
+                .tag("outcome", MeasuredInterceptor.SUCCESS)
+                .tag("exception", MeasuredInterceptor.NO_EXCEPTION)
+                .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    public void invoke_ServiceThrows_FailureTaggedWithExceptionType() {
+        // Arrange
+        SampleService service = proxy(new SampleService());
+
+        // Act
+        assertThrows(IllegalStateException.class, service::fail);
+
+        // Assert
+        Timer timer = meterRegistry.get("bank_account_service_timer")
+                .tag("class", "SampleService")
+                .tag("method", "fail")
+                .tag("outcome", MeasuredInterceptor.FAILURE)
+                .tag("exception", "IllegalStateException")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    public void invoke_ServiceThrowsRejection_RejectedTaggedWithReason() {
+        // Arrange
+        SampleService service = proxy(new SampleService());
+
+        // Act
+        assertThrows(InsufficientFundsException.class, service::withdraw);
+        assertThrows(AccountNotFoundException.class, service::find);
+
+        // Assert
+        assertEquals(1, meterRegistry.get("bank_account_service_timer")
+                .tag("method", "withdraw")
+                .tag("outcome", MeasuredInterceptor.REJECTED)
+                .tag("exception", RejectionReason.INSUFFICIENT_FUNDS.name())
+                .timer()
+                .count());
+        assertEquals(1, meterRegistry.get("bank_account_service_timer")
+                .tag("method", "find")
+                .tag("outcome", MeasuredInterceptor.REJECTED)
+                .tag("exception", RejectionReason.ACCOUNT_NOT_FOUND.name())
+                .timer()
+                .count());
+    }
+
+    @Test
+    public void invoke_ServiceDeclines_RejectedTaggedWithReason() {
+        // Arrange
+        SampleService service = proxy(new SampleService());
+
+        // Act
+        service.decline();
+
+        // Assert
+        assertEquals(1, meterRegistry.get("bank_account_service_timer")
+                .tag("method", "decline")
+                .tag("outcome", MeasuredInterceptor.REJECTED)
+                .tag("exception", RejectionReason.INSUFFICIENT_FUNDS.name())
+                .timer()
+                .count());
+    }
+
+    @Test
+    public void invoke_ControllerReturnsRejection_RejectedTaggedWithReason() {
+        // Arrange
+        SampleController controller = proxy(new SampleController());
+
+        // Act
+        controller.reject();
+
+        // Assert
+        assertEquals(1, meterRegistry.get("bank_account_endpoint_timer")
+                .tag("endpoint", "reject")
+                .tag("outcome", MeasuredInterceptor.REJECTED)
+                .tag("exception", RejectionReason.INSUFFICIENT_FUNDS.name())
+                .timer()
+                .count());
+    }
+
+    @Test
+    public void invoke_MonoResult_RecordedWhenTerminated() {
+        // Arrange
+        SampleService service = proxy(new SampleService());
+
+        // Act
+        Mono<String> result = service.findReactive();
+
+        // Assert
+        assertTrue(meterRegistry.find("bank_account_service_timer").timers().isEmpty());
+        assertEquals("ok", result.block());
+        assertEquals(1, meterRegistry.get("bank_account_service_timer")
+                .tag("method", "findReactive")
+                .tag("outcome", MeasuredInterceptor.SUCCESS)
+                .timer()
+                .count());
+    }
+
+    @Test
+    public void invoke_MonoCancelled_CancelledOutcomeRecorded() {
+        // Arrange
+        SampleService service = proxy(new SampleService());
+
+        // Act
+        service.awaitReactive().subscribe().dispose();
+
+        // Assert
+        assertEquals(1, meterRegistry.get("bank_account_service_timer")
+                .tag("method", "awaitReactive")
+                .tag("outcome", MeasuredInterceptor.CANCELLED)
+                .tag("exception", MeasuredInterceptor.NO_EXCEPTION)
+                .timer()
+                .count());
+    }
+
+    @Test
+    public void invoke_FluxFails_FailureTaggedWithExceptionType() {
+        // Arrange
+        SampleService service = proxy(new SampleService());
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> service.streamReactive().blockLast());
+
+        // Assert
+        assertEquals(1, meterRegistry.get("bank_account_service_timer")
+                .tag("method", "streamReactive")
+                .tag("outcome", MeasuredInterceptor.FAILURE)
+                .tag("exception", "IllegalStateException")
+                .timer()
+                .count());
+    }
+
+    @Test
+    public void invoke_ObjectMethod_NotRecorded() {
+        // Arrange
+        SampleService service = proxy(new SampleService());
+
+        // Act
+        service.toString();
+
+        // Assert
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(T target) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+        return (T) proxyFactory.getProxy();
+    }
+
+    @Measured(Measured.Layer.CONTROLLER)
+    public static class SampleController {
+
+        public String getBalance() {
+            return "ok";
+        }
+
+        public ResponseEntity<Object> reject() {
+            RejectionReason reason = RejectionReason.INSUFFICIENT_FUNDS;
+            return ResponseEntity.status(reason.getStatus())
+                    .body(new ApiError("/withdraw", reason.getMessage(), reason.getStatus().value()));
+        }
+    }
+
+    @Measured(Measured.Layer.SERVICE)
+    public static class SampleService {
+
+        public void withdraw() {
+            throw new InsufficientFundsException();
+        }
+
+        public void find() {
+            throw new AccountNotFoundException();
+        }
+
+        public void fail() {
+            throw new IllegalStateException("broken");
+        }
+
+        public LedgerResult decline() {
+            return new LedgerResult.Declined(RejectionReason.INSUFFICIENT_FUNDS);
+        }
+
+        public Mono<String> findReactive() {
+            return Mono.just("ok");
+        }
+
+        public Mono<String> awaitReactive() {
+            return Mono.never();
+        }
+
+        public Flux<String> streamReactive() {
+            return Flux.error(new IllegalStateException("broken"));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.mlustig.bank_management.money;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mlustig.bank_management.requests.TransactionRequest;
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @ParameterizedTest
+    @CsvSource({"12, 1200", "-0.5, -50", "+1500.00, 150000", "0.05, 5", ".5, 50", "7., 700", "1.2300, 123", "1E2, 10000", "1.999e3, 199900", "-2.5e-1, -25"})
+    public void parse_PlainDecimals_ExactCents(String text, long cents) {
+        assertEquals(Money.ofCents(cents), Money.parse(text));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "-", ".", "1.234", "0.001", "1,00", "12a", " 1", "1.2.3", "1E-3", "1.99999e2", "1e", "e2"})
+    public void parse_InvalidOrTooPrecise_Rejected(String text) {
+        assertThrows(IllegalArgumentException.class, () -> Money.parse(text));
+    }
+
+    @Test
+    public void parse_RandomAmounts_SameAsBigDecimal() {
+        long seed = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < 100_000; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong(-1_000_000_000_000L, 1_000_000_000_000L), 2);
+            String text = amount.toPlainString();
+            assertEquals(Money.valueOf(amount), Money.parse(text), () -> "Mismatch for " + text + " (seed " + seed + ")");
+            assertEquals(0, amount.compareTo(Money.parse(text).toBigDecimal()));
+        }
+    }
+
+    @Test
+    public void valueOf_ExtraPrecision_Rejected() {
+        assertEquals(Money.ofCents(150), Money.valueOf(new BigDecimal("1.500")));
+        assertThrows(IllegalArgumentException.class, () -> Money.valueOf(new BigDecimal("1.505")));
+    }
+
+    @Test
+    public void toString_AlwaysTwoDecimals() {
+        assertEquals("1500.00", Money.ofUnits(1500).toString());
+        assertEquals("-0.05", Money.ofCents(-5).toString());
+        assertEquals("0.00", Money.ZERO.toString());
+    }
+
+    @Test
+    public void plus_Overflow_Throws() {
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MAX_VALUE).plus(Money.ofCents(1)));
+    }
+
+    @Test
+    public void json_RoundTrip_WrittenAsNumber() throws Exception {
+        String json = objectMapper.writeValueAsString(new TransactionRequest("a@b", Money.ofCents(123456)));
+
+        assertEquals("{\"accountId\":\"a@b\",\"amount\":1234.56}", json);
+        assertEquals(Money.ofCents(123456), objectMapper.readValue(json, TransactionRequest.class).amount());
+        assertEquals(Money.ofCents(150), objectMapper.readValue("{\"accountId\":\"a@b\",\"amount\":\"1.50\"}", TransactionRequest.class).amount());
+    }
+
+    @Test
+    public void json_TooManyDecimals_Rejected() {
+        assertThrows(JsonMappingException.class, () -> objectMapper.readValue("{\"accountId\":\"a@b\",\"amount\":0.001}", TransactionRequest.class));
+    }
+}
@@ -0,0 +1,83 @@
+package com.mlustig.bank_management.partitioning;
+
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("integration")
+@SpringBootTest
+@Sql(scripts = "/data/recreate-datasets-1.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/data/clean-database.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+@Timeout(value = 10)
+public class TransactionPartitionManagerIT {
+
+    @Autowired
+    private TransactionPartitionManager partitionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void maintainPartitions_PlainTable_ExistingRowsKeptAndNewMonthsRouted() {
+        recreatePlainTransactionTable();
+        jdbcTemplate.update("INSERT INTO transaction (id, bank_account_id, amount, type, created_at) VALUES (1, 1, 100, 'DEPOSIT', ?)",
+                LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO transaction (id, bank_account_id, amount, type, created_at) VALUES (3, 1, 25, 'DEPOSIT', ?)",
+                LocalDateTime.now().minusMonths(2));
+        assertEquals("r", tableKind());
+
+        partitionManager.maintainPartitions();
+        partitionManager.maintainPartitions();
+
+        assertEquals("p", tableKind());
+        YearMonth nextMonth = YearMonth.now().plusMonths(1);
+        List<String> partitions = partitionManager.findPartitions().stream().map(TransactionPartition::name).toList();
+        assertTrue(partitions.contains(TransactionPartitionManager.LEGACY_PARTITION));
+        assertTrue(partitions.contains(TransactionPartition.forMonth(nextMonth).name()));
+
+        jdbcTemplate.update("INSERT INTO transaction (id, bank_account_id, amount, type, created_at) VALUES (2, 1, 50, 'WITHDRAW', ?)",
+                nextMonth.atDay(2).atStartOfDay());
+
+        assertEquals(List.of(TransactionPartitionManager.LEGACY_PARTITION, TransactionPartitionManager.LEGACY_PARTITION),
+                jdbcTemplate.queryForList("SELECT tableoid::regclass::text FROM transaction WHERE id IN (1, 3) ORDER BY id", String.class));
+        assertEquals(TransactionPartition.forMonth(nextMonth).name(),
+                jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM transaction WHERE id = 2", String.class));
+    }
+
+    // The context converted the table when it started, so the plain table Hibernate creates is put back first.
+    private void recreatePlainTransactionTable() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS transaction");
+        jdbcTemplate.execute("""
+                CREATE TABLE transaction
+                (
+                    id              SERIAL PRIMARY KEY,
+                    bank_account_id INT REFERENCES bank_account (id),
+                    amount          NUMERIC(10, 2),
+                    type            VARCHAR(255) NOT NULL,
+                    transfer_id     UUID,
+                    created_at      TIMESTAMP DEFAULT NOW()
+                )""");
+        jdbcTemplate.execute("CREATE INDEX transaction_account_created_at_id_idx ON transaction (bank_account_id, created_at DESC, id DESC)");
+    }
+
+    private String tableKind() {
+        return jdbcTemplate.queryForObject("""
+                SELECT c.relkind::text
+                FROM pg_class c
+                JOIN pg_namespace n ON n.oid = c.relnamespace
+                WHERE c.relname = 'transaction' AND n.nspname = current_schema()""", String.class);
+    }
+}
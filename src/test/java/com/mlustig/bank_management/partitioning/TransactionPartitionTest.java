@@ -0,0 +1,63 @@
+package com.mlustig.bank_management.partitioning;
+
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class TransactionPartitionTest {
+
+    @Test
+    public void forMonth_December_BoundsEndInNextYear() {
+        TransactionPartition result = TransactionPartition.forMonth(YearMonth.of(2023, 12));
+
+        assertEquals("transaction_p202312", result.name());
+        assertEquals(LocalDateTime.of(2023, 12, 1, 0, 0), result.from());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), result.to());
+        assertEquals("FOR VALUES FROM ('2023-12-01 00:00:00') TO ('2024-01-01 00:00:00')", result.boundSql());
+    }
+
+    @Test
+    public void parse_PrintedBounds_SamePartition() {
+        TransactionPartition month = TransactionPartition.forMonth(YearMonth.of(2024, 5));
+
+        assertEquals(month, TransactionPartition.parse(month.name(), month.boundSql()));
+
+        TransactionPartition legacy = TransactionPartition.parse("transaction_legacy",
+                "FOR VALUES FROM (MINVALUE) TO ('2024-06-01 00:00:00')");
+        assertNull(legacy.from());
+        assertEquals(LocalDateTime.of(2024, 6, 1, 0, 0), legacy.to());
+    }
+
+    @Test
+    public void parse_DefaultPartition_IllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> TransactionPartition.parse("transaction_default", "DEFAULT"));
+    }
+
+    @Test
+    public void overlaps_AdjacentAndOpenRanges_OnlyOpenRangeOverlaps() {
+        TransactionPartition may = TransactionPartition.forMonth(YearMonth.of(2024, 5));
+        TransactionPartition june = TransactionPartition.forMonth(YearMonth.of(2024, 6));
+        TransactionPartition legacy = new TransactionPartition("transaction_legacy", null, LocalDateTime.of(2024, 6, 1, 0, 0));
+
+        assertFalse(may.overlaps(june));
+        assertFalse(june.overlaps(may));
+        assertTrue(may.overlaps(legacy));
+        assertTrue(legacy.overlaps(may));
+        assertFalse(june.overlaps(legacy));
+    }
+
+    @Test
+    public void endsBy_Cutoff_OnlyPartitionsEndingByIt() {
+        LocalDateTime cutoff = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+        assertTrue(TransactionPartition.forMonth(YearMonth.of(2024, 5)).endsBy(cutoff));
+        assertFalse(TransactionPartition.forMonth(YearMonth.of(2024, 6)).endsBy(cutoff));
+        assertFalse(new TransactionPartition("open", LocalDateTime.of(2024, 1, 1, 0, 0), null).endsBy(cutoff));
+    }
+}
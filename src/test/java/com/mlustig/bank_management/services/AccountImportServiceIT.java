@@ -0,0 +1,95 @@
+package com.mlustig.bank_management.services;
+
+import com.mlustig.bank_management.dao.BankAccount;
+import com.mlustig.bank_management.dto.AccountImportDto;
+import com.mlustig.bank_management.dto.ImportRejectionDto;
+import com.mlustig.bank_management.enums.ImportFormat;
+import com.mlustig.bank_management.facades.DataFacade;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("integration")
+@SpringBootTest(properties = "bank-management.import.batch-size=2")
+@Sql(scripts = "/data/recreate-datasets-1.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/data/clean-database.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+@Timeout(value = 10)
+public class AccountImportServiceIT {
+
+    @Autowired
+    private AccountImportService accountImportService;
+
+    @Autowired
+    private DataFacade dataFacade;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // The datasets insert ids 1 and 2 by hand, past the sequence.
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.queryForObject("SELECT setval('bank_account_id_sequence', 1000)", Long.class);
+    }
+
+    @Test
+    public void importAccounts_CsvWithBadRecords_ValidRecordsLoadedAndRestReported() {
+        String csv = """
+                accountId,firstName,lastName,balance,minimumBalance,active
+                john.doe@gmail.com,John,Doe,4500,1500,true
+                not-an-email,Jane,Doe,10,0,false
+
+                theodore.roosevelt@gmail.com,Theodore,Roosevelt,1,0,true
+                jane.doe@gmail.com,Jane,Doe,200.50,0,false
+                john.doe@gmail.com,John,Again,1,0,true
+                broken@gmail.com,Broken
+                """;
+
+        AccountImportDto result = accountImportService.importAccounts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV);
+
+        assertEquals(6, result.received());
+        assertEquals(2, result.imported());
+        assertEquals(4, result.rejected());
+        assertEquals(List.of(3, 5, 7, 8), result.rejections().stream().map(ImportRejectionDto::line).sorted().toList());
+
+        BankAccount imported = dataFacade.findBankAccountByAccountId("jane.doe@gmail.com").get();
+        assertEquals(Money.parse("200.50"), imported.getBalance());
+        assertEquals(0L, imported.getVersion());
+        assertEquals("Doe", dataFacade.findBankAccountByAccountId("john.doe@gmail.com").get().getLastName());
+        assertEquals(Money.ofUnits(3500), dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com").get().getBalance());
+    }
+
+    @Test
+    public void importAccounts_JsonLines_AllLoadedWithDistinctIds() {
+        String jsonl = IntStream.range(0, 9)
+                .mapToObj(i -> """
+                        {"accountId":"user%d@gmail.com","firstName":"User","lastName":"%d","balance":%d,"minimumBalance":0,"active":true}"""
+                        .formatted(i, i, i * 10))
+                .collect(Collectors.joining("\n"));
+
+        AccountImportDto result = accountImportService.importAccounts(
+                new ByteArrayInputStream(jsonl.getBytes(StandardCharsets.UTF_8)), ImportFormat.JSONL);
+
+        assertEquals(9, result.imported());
+        assertEquals(0, result.rejected());
+        assertEquals(11, dataFacade.findAllBankAccounts().stream().map(BankAccount::getId).distinct().count());
+        assertEquals(Money.ofUnits(80), dataFacade.findBankAccountByAccountId("user8@gmail.com").get().getBalance());
+    }
+}
@@ -0,0 +1,74 @@
+package com.mlustig.bank_management.services;
+
+import com.mlustig.bank_management.config.SnapshotProperties;
+import com.mlustig.bank_management.facades.DataFacade;
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoSettings;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@MockitoSettings
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class BalanceSnapshotServiceTest {
+
+    private static final LocalDate EARLIEST = LocalDate.of(1970, 1, 1);
+
+    @Mock
+    private DataFacade dataFacade;
+
+    private final SnapshotProperties properties = new SnapshotProperties();
+
+    private BalanceSnapshotService service;
+
+    @BeforeEach
+    public void setUp() {
+        service = new BalanceSnapshotService(dataFacade, properties);
+    }
+
+    @Test
+    public void buildSnapshots_ClosedDaysWithTransactions_EachDayBuiltOnceInOrder() {
+        LocalDate first = LocalDate.now().minusDays(10);
+        LocalDate second = LocalDate.now().minusDays(4);
+        LocalDate today = LocalDate.now();
+        when(dataFacade.findNextSnapshotDay(EARLIEST)).thenReturn(Optional.of(first));
+        when(dataFacade.findNextSnapshotDay(first.plusDays(1))).thenReturn(Optional.of(second));
+        when(dataFacade.findNextSnapshotDay(second.plusDays(1))).thenReturn(Optional.of(today));
+
+        assertEquals(2, service.buildSnapshots());
+
+        InOrder inOrder = inOrder(dataFacade);
+        inOrder.verify(dataFacade).buildBalanceSnapshots(first);
+        inOrder.verify(dataFacade).buildBalanceSnapshots(second);
+        verify(dataFacade, never()).buildBalanceSnapshots(today);
+    }
+
+    @Test
+    public void buildSnapshots_BacklogLongerThanOneRun_StopsAtMaxDaysPerRun() {
+        properties.setMaxDaysPerRun(3);
+        when(dataFacade.findNextSnapshotDay(any())).thenAnswer(invocation -> {
+            LocalDate from = invocation.getArgument(0);
+            return Optional.of(from.equals(EARLIEST) ? LocalDate.now().minusYears(1) : from);
+        });
+
+        assertEquals(3, service.buildSnapshots());
+        verify(dataFacade, times(3)).buildBalanceSnapshots(any());
+    }
+
+    @Test
+    public void buildSnapshots_NoTransactions_NothingBuilt() {
+        when(dataFacade.findNextSnapshotDay(EARLIEST)).thenReturn(Optional.empty());
+
+        assertEquals(0, service.buildSnapshots());
+        verify(dataFacade, never()).buildBalanceSnapshots(any());
+    }
+}
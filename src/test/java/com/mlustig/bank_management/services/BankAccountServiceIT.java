@@ -1,7 +1,10 @@
 package com.mlustig.bank_management.services;
 
 import com.mlustig.bank_management.dto.BankAccountDto;
+import com.mlustig.bank_management.exceptions.IdempotencyKeyReuseException;
 import com.mlustig.bank_management.exceptions.InsufficientFundsException;
+import com.mlustig.bank_management.idempotency.IdempotencyStore;
+import com.mlustig.bank_management.money.Money;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.Assertions;
@@ -15,6 +18,7 @@ import org.springframework.test.context.jdbc.Sql;
 
 import java.time.Duration;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,6 +34,9 @@ public class BankAccountServiceIT {
     @Autowired
     private BankAccountService service;
 
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
     @Test
     @DisplayName("Test get info about bank account.")
     public void getAccountInfo() {
@@ -43,8 +50,8 @@ public class BankAccountServiceIT {
         assertThat(bankAccountDto.accountId()).isEqualTo("theodore.roosevelt@gmail.com");
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
-        assertThat(bankAccountDto.balance().intValue()).isEqualTo(3500);
-        assertThat(bankAccountDto.minimumBalance().intValue()).isEqualTo(1500);
+        assertThat(bankAccountDto.balance()).isEqualTo(Money.ofUnits(3500));
+        assertThat(bankAccountDto.minimumBalance()).isEqualTo(Money.ofUnits(1500));
     }
 
     @Test
@@ -121,41 +128,72 @@ public class BankAccountServiceIT {
     @DisplayName("Test deposit to a bank account.")
     public void makeDeposit() {
 
-        Optional<BankAccountDto> result = service.makeDeposit("theodore.roosevelt@gmail.com", 50);
+        Optional<BankAccountDto> result = service.makeDeposit("theodore.roosevelt@gmail.com", Money.ofUnits(50));
 
         assertTrue(result.isPresent());
         BankAccountDto bankAccountDto = result.get();
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
-        assertThat(bankAccountDto.balance().intValue()).isEqualTo(3550);
-        assertThat(bankAccountDto.minimumBalance().intValue()).isEqualTo(1500);
+        assertThat(bankAccountDto.balance()).isEqualTo(Money.ofUnits(3550));
+        assertThat(bankAccountDto.minimumBalance()).isEqualTo(Money.ofUnits(1500));
         assertThat(bankAccountDto.balance()).isGreaterThan(bankAccountDto.minimumBalance());
     }
 
     @Test
     @DisplayName("Test deposit to a bank account and measure time.")
     public void makeDeposit_measureTime() {
-        Assertions.assertTimeout(Duration.ofMillis(60), () -> service.makeDeposit("theodore.roosevelt@gmail.com", 50));
+        Assertions.assertTimeout(Duration.ofMillis(60), () -> service.makeDeposit("theodore.roosevelt@gmail.com", Money.ofUnits(50)));
     }
 
     @Test
     @DisplayName("Test deposit to a not-exists bank account, result=EntityNotFoundException")
     public void makeDeposit_WithNotExistsBankAccount() {
-        assertThrows(EntityNotFoundException.class, () -> service.makeDeposit("fake@gmail.com", 50));
+        assertThrows(EntityNotFoundException.class, () -> service.makeDeposit("fake@gmail.com", Money.ofUnits(50)));
+    }
+
+    @Test
+    @DisplayName("Test deposit retried with the same idempotency key, result=credited once")
+    public void makeDeposit_RetriedWithIdempotencyKey() {
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        BankAccountDto first = service.makeDeposit("theodore.roosevelt@gmail.com", Money.ofUnits(50), idempotencyKey).get();
+        BankAccountDto retry = service.makeDeposit("theodore.roosevelt@gmail.com", Money.ofUnits(50), idempotencyKey).get();
+
+        assertThat(retry).isEqualTo(first);
+        BankAccountDto stored = service.getAccountInfo("theodore.roosevelt@gmail.com", true).get();
+        assertThat(stored.balance()).isEqualTo(Money.ofUnits(3550));
+        assertThat(stored.transactions()).hasSize(1);
+        assertThrows(IdempotencyKeyReuseException.class,
+                () -> service.makeWithdraw("theodore.roosevelt@gmail.com", Money.ofUnits(50), idempotencyKey));
+    }
+
+    @Test
+    @DisplayName("Test withdraw replayed after the cache was cleared and the balance changed, result=stored response")
+    public void makeWithdraw_ReplayedAfterCacheCleared_StoredResponse() {
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        BankAccountDto first = service.makeWithdraw("theodore.roosevelt@gmail.com", Money.ofUnits(1999), idempotencyKey).get();
+        idempotencyStore.evictAll();
+        BankAccountDto retry = service.makeWithdraw("theodore.roosevelt@gmail.com", Money.ofUnits(1999), idempotencyKey).get();
+
+        assertThat(retry).isEqualTo(first);
+        BankAccountDto stored = service.getAccountInfo("theodore.roosevelt@gmail.com", true).get();
+        assertThat(stored.balance()).isEqualTo(Money.ofUnits(1501));
+        assertThat(stored.transactions()).hasSize(1);
     }
 
     @Test
     @DisplayName("Test withdraw from a bank account.")
     public void makeWithdraw() {
 
-        Optional<BankAccountDto> result = service.makeWithdraw("theodore.roosevelt@gmail.com", 1999);
+        Optional<BankAccountDto> result = service.makeWithdraw("theodore.roosevelt@gmail.com", Money.ofUnits(1999));
 
         assertTrue(result.isPresent());
         BankAccountDto bankAccountDto = result.get();
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
-        assertThat(bankAccountDto.balance().intValue()).isEqualTo(1501);
-        assertThat(bankAccountDto.minimumBalance().intValue()).isEqualTo(1500);
+        assertThat(bankAccountDto.balance()).isEqualTo(Money.ofUnits(1501));
+        assertThat(bankAccountDto.minimumBalance()).isEqualTo(Money.ofUnits(1500));
         assertThat(bankAccountDto.balance()).isGreaterThan(bankAccountDto.minimumBalance());
     }
 
@@ -163,60 +201,60 @@ public class BankAccountServiceIT {
     @DisplayName("Test withdraw from a bank account until it run-out of the money.")
     public void makeWithdraw_BelowMinimum() {
 
-        Optional<BankAccountDto> result = service.makeWithdraw("theodore.roosevelt@gmail.com", 1000);
+        Optional<BankAccountDto> result = service.makeWithdraw("theodore.roosevelt@gmail.com", Money.ofUnits(1000));
 
         assertTrue(result.isPresent());
         BankAccountDto bankAccountDto = result.get();
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
-        assertThat(bankAccountDto.balance().intValue()).isEqualTo(2500);
-        assertThat(bankAccountDto.minimumBalance().intValue()).isEqualTo(1500);
+        assertThat(bankAccountDto.balance()).isEqualTo(Money.ofUnits(2500));
+        assertThat(bankAccountDto.minimumBalance()).isEqualTo(Money.ofUnits(1500));
         assertThat(bankAccountDto.balance()).isGreaterThan(bankAccountDto.minimumBalance());
 
-        result = service.makeWithdraw("theodore.roosevelt@gmail.com", 1000);
+        result = service.makeWithdraw("theodore.roosevelt@gmail.com", Money.ofUnits(1000));
 
         assertTrue(result.isPresent());
         bankAccountDto = result.get();
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
-        assertThat(bankAccountDto.balance().intValue()).isEqualTo(1500);
-        assertThat(bankAccountDto.minimumBalance().intValue()).isEqualTo(1500);
+        assertThat(bankAccountDto.balance()).isEqualTo(Money.ofUnits(1500));
+        assertThat(bankAccountDto.minimumBalance()).isEqualTo(Money.ofUnits(1500));
         assertThat(bankAccountDto.balance().doubleValue()).isEqualTo(bankAccountDto.minimumBalance().doubleValue());
 
-        assertThrows(InsufficientFundsException.class, () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 1000));
+        assertThrows(InsufficientFundsException.class, () -> service.makeWithdraw("theodore.roosevelt@gmail.com", Money.ofUnits(1000)));
     }
 
     @Test
     @DisplayName("Test withdraw from a not-exists bank account. result=EntityNotFoundException")
     public void makeWithdraw_WithNotExistsBankAccount() {
-        assertThrows(EntityNotFoundException.class, () -> service.makeWithdraw("fake@gmail.com", 50));
+        assertThrows(EntityNotFoundException.class, () -> service.makeWithdraw("fake@gmail.com", Money.ofUnits(50)));
     }
 
     @Test
     @DisplayName("Test withdraw from a bank account with not enough money in his account. result=InsufficientFundsException")
     public void makeWithdraw_WithNInsufficientFundsException() {
-        assertThrows(InsufficientFundsException.class, () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 2001));
+        assertThrows(InsufficientFundsException.class, () -> service.makeWithdraw("theodore.roosevelt@gmail.com", Money.ofUnits(2001)));
     }
 
     @Test
     @DisplayName("Test withdraw and deposit a few times for the same bank account. result=InsufficientFundsException")
     public void makeWithdraw_makeDeposit() {
 
-        assertAll(() -> service.makeWithdraw("theodore.roosevelt@gmail.com", 100),
-                () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 100),
-                () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 100),
-                () -> service.makeDeposit("theodore.roosevelt@gmail.com", 1000),
-                () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 100),
-                () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 100));
+        assertAll(() -> service.makeWithdraw("theodore.roosevelt@gmail.com", Money.ofUnits(100)),
+                () -> service.makeWithdraw("theodore.roosevelt@gmail.com", Money.ofUnits(100)),
+                () -> service.makeWithdraw("theodore.roosevelt@gmail.com", Money.ofUnits(100)),
+                () -> service.makeDeposit("theodore.roosevelt@gmail.com", Money.ofUnits(1000)),
+                () -> service.makeWithdraw("theodore.roosevelt@gmail.com", Money.ofUnits(100)),
+                () -> service.makeWithdraw("theodore.roosevelt@gmail.com", Money.ofUnits(100)));
 
-        Optional<BankAccountDto> result = service.makeWithdraw("theodore.roosevelt@gmail.com", 1);
+        Optional<BankAccountDto> result = service.makeWithdraw("theodore.roosevelt@gmail.com", Money.ofUnits(1));
 
         assertTrue(result.isPresent());
         BankAccountDto bankAccountDto = result.get();
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
-        assertThat(bankAccountDto.balance().intValue()).isEqualTo(3999);
-        assertThat(bankAccountDto.minimumBalance().intValue()).isEqualTo(1500);
+        assertThat(bankAccountDto.balance()).isEqualTo(Money.ofUnits(3999));
+        assertThat(bankAccountDto.minimumBalance()).isEqualTo(Money.ofUnits(1500));
         assertThat(bankAccountDto.balance()).isGreaterThan(bankAccountDto.minimumBalance());
     }
 
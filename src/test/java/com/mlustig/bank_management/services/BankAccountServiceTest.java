@@ -1,24 +1,44 @@
 package com.mlustig.bank_management.services;
 
+import com.mlustig.bank_management.concurrency.AccountLocks;
+import com.mlustig.bank_management.concurrency.GroupCommitBatcher;
+import com.mlustig.bank_management.concurrency.LedgerConcurrency;
+import com.mlustig.bank_management.concurrency.OptimisticRetry;
+import com.mlustig.bank_management.config.LedgerProperties;
+import com.mlustig.bank_management.config.LoggingProperties;
 import com.mlustig.bank_management.dao.BankAccount;
+import com.mlustig.bank_management.dao.IdempotencyRecord;
+import com.mlustig.bank_management.dto.BalanceDto;
 import com.mlustig.bank_management.dto.BankAccountDto;
+import com.mlustig.bank_management.dto.HistoricalBalanceDto;
+import com.mlustig.bank_management.dto.LedgerResult;
 import com.mlustig.bank_management.enums.BankAccountFields;
+import com.mlustig.bank_management.enums.RejectionReason;
 import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.exceptions.IdempotencyKeyConflictException;
 import com.mlustig.bank_management.exceptions.InactiveAccountException;
 import com.mlustig.bank_management.exceptions.InsufficientFundsException;
 import com.mlustig.bank_management.facades.DataFacade;
+import com.mlustig.bank_management.idempotency.IdempotencyStore;
+import com.mlustig.bank_management.logging.EventLog;
 import com.mlustig.bank_management.mappers.BankAccountMapper;
+import com.mlustig.bank_management.metrics.BankAccountMeterRegistry;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.projections.BankAccountSummary;
+import com.mlustig.bank_management.utils.MeterRegistries;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.springframework.data.util.Pair;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,6 +54,23 @@ public class BankAccountServiceTest {
     @Mock
     private BankAccountMapper mapper;
 
+    private final LedgerProperties ledgerProperties = new LedgerProperties();
+
+    private final BankAccountMeterRegistry meterRegistry = MeterRegistries.simple();
+
+    @Spy
+    private LedgerConcurrency ledgerConcurrency = new LedgerConcurrency(ledgerProperties,
+            new AccountLocks(ledgerProperties, meterRegistry), new OptimisticRetry(ledgerProperties, meterRegistry));
+
+    @Mock
+    private GroupCommitBatcher groupCommitBatcher;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Spy
+    private EventLog eventLog = new EventLog(new LoggingProperties());
+
     @InjectMocks
     private BankAccountService service;
 
@@ -46,16 +83,16 @@ public class BankAccountServiceTest {
                 .accountId("theodore.roosevelt@gmail.com")
                 .firstName("Theodore")
                 .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(3500))
-                .minimumBalance(BigDecimal.valueOf(1500))
+                .balance(Money.ofUnits(3500))
+                .minimumBalance(Money.ofUnits(1500))
                 .active(true)
                 .build();
 
         BankAccountDto originalBankAccountDto = new BankAccountDto("theodore.roosevelt@gmail.com",
                 "Theodore", "Roosevelt",
-                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500), true, List.of());
+                Money.ofUnits(3500), Money.ofUnits(1500), true, List.of());
 
-        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
+        when(dataFacade.findBankAccountWithTransactionsByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
         when(mapper.toDto(original)).thenReturn(originalBankAccountDto);
 
         Optional<BankAccountDto> result = service.getAccountInfo("theodore.roosevelt@gmail.com");
@@ -66,21 +103,88 @@ public class BankAccountServiceTest {
         assertThat(bankAccountDto.accountId()).isEqualTo("theodore.roosevelt@gmail.com");
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
-        assertThat(bankAccountDto.balance().intValue()).isEqualTo(3500);
-        assertThat(bankAccountDto.minimumBalance().intValue()).isEqualTo(1500);
+        assertThat(bankAccountDto.balance()).isEqualTo(Money.ofUnits(3500));
+        assertThat(bankAccountDto.minimumBalance()).isEqualTo(Money.ofUnits(1500));
         assertThat(bankAccountDto.balance()).isGreaterThan(bankAccountDto.minimumBalance());
 
-        verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
+        verify(dataFacade).findBankAccountWithTransactionsByAccountId("theodore.roosevelt@gmail.com");
         verifyNoMoreInteractions(dataFacade);
     }
 
     @Test
     @DisplayName("Test get an info about bank account for invalid bank account.")
     public void getAccountInfo_GetInfoForInvalidBankAccount() {
-        when(dataFacade.findBankAccountByAccountId("fake@gmail.com")).thenReturn(Optional.empty());
+        when(dataFacade.findBankAccountWithTransactionsByAccountId("fake@gmail.com")).thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class, () -> service.getAccountInfo("fake@gmail.com"));
 
-        verify(dataFacade).findBankAccountByAccountId("fake@gmail.com");
+        verify(dataFacade).findBankAccountWithTransactionsByAccountId("fake@gmail.com");
+        verifyNoMoreInteractions(dataFacade);
+    }
+
+    @Test
+    @DisplayName("Test get an info about bank account without the transactions history.")
+    public void getAccountInfo_WithoutTransactions_ReadsSummaryOnly() {
+        BankAccountSummary summary = mock(BankAccountSummary.class);
+        BankAccountDto summaryDto = new BankAccountDto("theodore.roosevelt@gmail.com",
+                "Theodore", "Roosevelt",
+                Money.ofUnits(3500), Money.ofUnits(1500), true, List.of());
+
+        when(dataFacade.findBankAccountSummaryByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(summary));
+        when(mapper.toDto(summary)).thenReturn(summaryDto);
+
+        Optional<BankAccountDto> result = service.getAccountInfo("theodore.roosevelt@gmail.com", false);
+
+        assertTrue(result.isPresent());
+        assertThat(result.get().transactions()).isEmpty();
+        verify(dataFacade).findBankAccountSummaryByAccountId("theodore.roosevelt@gmail.com");
+        verifyNoMoreInteractions(dataFacade);
+    }
+
+    @Test
+    @DisplayName("Test get the balance of bank account.")
+    public void getBalance_GetBalanceForBankAccount() {
+        BankAccountSummary summary = mock(BankAccountSummary.class);
+        BalanceDto balanceDto = new BalanceDto("theodore.roosevelt@gmail.com", Money.ofUnits(3500), Money.ofUnits(1500), true);
+
+        when(dataFacade.findBankAccountSummaryByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(summary));
+        when(mapper.toBalanceDto(summary)).thenReturn(balanceDto);
+
+        Optional<BalanceDto> result = service.getBalance("theodore.roosevelt@gmail.com");
+
+        assertTrue(result.isPresent());
+        assertThat(result.get().balance()).isEqualTo(Money.ofUnits(3500));
+        verify(dataFacade).findBankAccountSummaryByAccountId("theodore.roosevelt@gmail.com");
+        verifyNoMoreInteractions(dataFacade);
+    }
+
+    @Test
+    @DisplayName("Test get the balance of bank account at a point in time.")
+    public void getBalance_AsOf_HistoricalBalance() {
+        LocalDateTime asOf = LocalDateTime.of(2023, 5, 1, 12, 0);
+        when(dataFacade.findBalanceAsOf("theodore.roosevelt@gmail.com", asOf)).thenReturn(Optional.of(Money.ofUnits(1200)));
+
+        Optional<HistoricalBalanceDto> result = service.getBalance("theodore.roosevelt@gmail.com", asOf);
+
+        assertThat(result).contains(new HistoricalBalanceDto("theodore.roosevelt@gmail.com", Money.ofUnits(1200), asOf));
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    @DisplayName("Test get the balance of invalid bank account at a point in time. result=EntityNotFoundException")
+    public void getBalance_AsOfForInvalidBankAccount() {
+        LocalDateTime asOf = LocalDateTime.of(2023, 5, 1, 12, 0);
+        when(dataFacade.findBalanceAsOf("fake@gmail.com", asOf)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> service.getBalance("fake@gmail.com", asOf));
+    }
+
+    @Test
+    @DisplayName("Test get the balance of invalid bank account.")
+    public void getBalance_GetBalanceForInvalidBankAccount() {
+        when(dataFacade.findBankAccountSummaryByAccountId("fake@gmail.com")).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> service.getBalance("fake@gmail.com"));
+        verify(dataFacade).findBankAccountSummaryByAccountId("fake@gmail.com");
         verifyNoMoreInteractions(dataFacade);
     }
 
@@ -93,14 +197,14 @@ public class BankAccountServiceTest {
                 .accountId("theodore.roosevelt.2@gmail.com")
                 .firstName("Theodore")
                 .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(3500))
-                .minimumBalance(BigDecimal.valueOf(1500))
+                .balance(Money.ofUnits(3500))
+                .minimumBalance(Money.ofUnits(1500))
                 .active(true)
                 .build();
 
         BankAccountDto originalBankAccountDto = new BankAccountDto("theodore.roosevelt.2@gmail.com",
                 "Theodore", "Roosevelt",
-                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500), true, List.of());
+                Money.ofUnits(3500), Money.ofUnits(1500), true, List.of());
 
         when(dataFacade.saveBankAccount(originalBankAccount)).thenReturn(Optional.of(originalBankAccount));
         when(mapper.toDto(originalBankAccount)).thenReturn(originalBankAccountDto);
@@ -114,8 +218,8 @@ public class BankAccountServiceTest {
         assertThat(bankAccountDto.accountId()).isEqualTo("theodore.roosevelt.2@gmail.com");
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
-        assertThat(bankAccountDto.balance().intValue()).isEqualTo(3500);
-        assertThat(bankAccountDto.minimumBalance().intValue()).isEqualTo(1500);
+        assertThat(bankAccountDto.balance()).isEqualTo(Money.ofUnits(3500));
+        assertThat(bankAccountDto.minimumBalance()).isEqualTo(Money.ofUnits(1500));
         assertThat(bankAccountDto.balance()).isGreaterThan(bankAccountDto.minimumBalance());
 
         verify(dataFacade).saveBankAccount(originalBankAccount);
@@ -139,9 +243,10 @@ public class BankAccountServiceTest {
                 .accountId("theodore.roosevelt@gmail.com")
                 .firstName("Theodore")
                 .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(3500))
-                .minimumBalance(BigDecimal.valueOf(1500))
+                .balance(Money.ofUnits(3500))
+                .minimumBalance(Money.ofUnits(1500))
                 .active(false)
+                .version(0L)
                 .build();
 
         BankAccount updated = BankAccount.builder()
@@ -149,17 +254,17 @@ public class BankAccountServiceTest {
                 .accountId("theodore.roosevelt@gmail.com")
                 .firstName("Theodore")
                 .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(3500))
-                .minimumBalance(BigDecimal.valueOf(1500))
+                .balance(Money.ofUnits(3500))
+                .minimumBalance(Money.ofUnits(1500))
                 .active(true)
                 .build();
 
         BankAccountDto updatedBankAccountDto = new BankAccountDto("theodore.roosevelt@gmail.com",
                 "Theodore", "Roosevelt",
-                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500), true, List.of());
+                Money.ofUnits(3500), Money.ofUnits(1500), true, List.of());
 
         when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
-        when(dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", List.of(Pair.of(BankAccountFields.ACTIVE, "true")))).thenReturn(Optional.of(updated));
+        when(dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", 0L, List.of(Pair.of(BankAccountFields.ACTIVE, "true")))).thenReturn(Optional.of(updated));
         when(mapper.toDto(updated)).thenReturn(updatedBankAccountDto);
 
         Optional<BankAccountDto> result = service.activateAccount("theodore.roosevelt@gmail.com");
@@ -169,13 +274,13 @@ public class BankAccountServiceTest {
         assertThat(bankAccountDto.accountId()).isEqualTo("theodore.roosevelt@gmail.com");
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
-        assertThat(bankAccountDto.balance().intValue()).isEqualTo(3500);
-        assertThat(bankAccountDto.minimumBalance().intValue()).isEqualTo(1500);
+        assertThat(bankAccountDto.balance()).isEqualTo(Money.ofUnits(3500));
+        assertThat(bankAccountDto.minimumBalance()).isEqualTo(Money.ofUnits(1500));
         assertThat(bankAccountDto.active()).isTrue();
         assertThat(bankAccountDto.balance()).isGreaterThan(bankAccountDto.minimumBalance());
 
         verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
-        verify(dataFacade).updateBankAccount("theodore.roosevelt@gmail.com", List.of(Pair.of(BankAccountFields.ACTIVE, "true")));
+        verify(dataFacade).updateBankAccount("theodore.roosevelt@gmail.com", 0L, List.of(Pair.of(BankAccountFields.ACTIVE, "true")));
         verifyNoMoreInteractions(dataFacade);
     }
 
@@ -188,16 +293,18 @@ public class BankAccountServiceTest {
                 .accountId("theodore.roosevelt@gmail.com")
                 .firstName("Theodore")
                 .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(3500))
-                .minimumBalance(BigDecimal.valueOf(1500))
+                .balance(Money.ofUnits(3500))
+                .minimumBalance(Money.ofUnits(1500))
                 .active(true)
+                .version(0L)
                 .build();
 
         BankAccountDto originalBankAccountDto = new BankAccountDto("theodore.roosevelt@gmail.com",
                 "Theodore", "Roosevelt",
-                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500), true, List.of());
+                Money.ofUnits(3500), Money.ofUnits(1500), true, List.of());
 
         when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
+        when(dataFacade.findBankAccountWithTransactionsByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
         when(mapper.toDto(original)).thenReturn(originalBankAccountDto);
 
         Optional<BankAccountDto> result = service.activateAccount("theodore.roosevelt@gmail.com");
@@ -207,13 +314,14 @@ public class BankAccountServiceTest {
         assertThat(bankAccountDto.accountId()).isEqualTo("theodore.roosevelt@gmail.com");
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
-        assertThat(bankAccountDto.balance().intValue()).isEqualTo(3500);
-        assertThat(bankAccountDto.minimumBalance().intValue()).isEqualTo(1500);
+        assertThat(bankAccountDto.balance()).isEqualTo(Money.ofUnits(3500));
+        assertThat(bankAccountDto.minimumBalance()).isEqualTo(Money.ofUnits(1500));
         assertThat(bankAccountDto.active()).isTrue();
         assertThat(bankAccountDto.balance()).isGreaterThan(bankAccountDto.minimumBalance());
 
         verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
-        verify(dataFacade, never()).updateBankAccount("theodore.roosevelt@gmail.com", List.of(Pair.of(BankAccountFields.ACTIVE, "true")));
+        verify(dataFacade).findBankAccountWithTransactionsByAccountId("theodore.roosevelt@gmail.com");
+        verify(dataFacade, never()).updateBankAccount("theodore.roosevelt@gmail.com", 0L, List.of(Pair.of(BankAccountFields.ACTIVE, "true")));
         verifyNoMoreInteractions(dataFacade);
     }
 
@@ -234,9 +342,10 @@ public class BankAccountServiceTest {
                 .accountId("theodore.roosevelt@gmail.com")
                 .firstName("Theodore")
                 .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(3500))
-                .minimumBalance(BigDecimal.valueOf(1500))
+                .balance(Money.ofUnits(3500))
+                .minimumBalance(Money.ofUnits(1500))
                 .active(true)
+                .version(0L)
                 .build();
 
         BankAccount updated = BankAccount.builder()
@@ -244,17 +353,17 @@ public class BankAccountServiceTest {
                 .accountId("theodore.roosevelt@gmail.com")
                 .firstName("Theodore")
                 .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(3500))
-                .minimumBalance(BigDecimal.valueOf(1500))
+                .balance(Money.ofUnits(3500))
+                .minimumBalance(Money.ofUnits(1500))
                 .active(false)
                 .build();
 
         BankAccountDto updatedBankAccountDto = new BankAccountDto("theodore.roosevelt@gmail.com",
                 "Theodore", "Roosevelt",
-                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500), false, List.of());
+                Money.ofUnits(3500), Money.ofUnits(1500), false, List.of());
 
         when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
-        when(dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", List.of(Pair.of(BankAccountFields.ACTIVE, "false")))).thenReturn(Optional.of(updated));
+        when(dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", 0L, List.of(Pair.of(BankAccountFields.ACTIVE, "false")))).thenReturn(Optional.of(updated));
         when(mapper.toDto(updated)).thenReturn(updatedBankAccountDto);
 
         Optional<BankAccountDto> result = service.deactivateAccount("theodore.roosevelt@gmail.com");
@@ -264,13 +373,13 @@ public class BankAccountServiceTest {
         assertThat(bankAccountDto.accountId()).isEqualTo("theodore.roosevelt@gmail.com");
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
-        assertThat(bankAccountDto.balance().intValue()).isEqualTo(3500);
-        assertThat(bankAccountDto.minimumBalance().intValue()).isEqualTo(1500);
+        assertThat(bankAccountDto.balance()).isEqualTo(Money.ofUnits(3500));
+        assertThat(bankAccountDto.minimumBalance()).isEqualTo(Money.ofUnits(1500));
         assertThat(bankAccountDto.active()).isFalse();
         assertThat(bankAccountDto.balance()).isGreaterThan(bankAccountDto.minimumBalance());
 
         verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
-        verify(dataFacade).updateBankAccount("theodore.roosevelt@gmail.com", List.of(Pair.of(BankAccountFields.ACTIVE, "false")));
+        verify(dataFacade).updateBankAccount("theodore.roosevelt@gmail.com", 0L, List.of(Pair.of(BankAccountFields.ACTIVE, "false")));
         verifyNoMoreInteractions(dataFacade);
     }
 
@@ -286,56 +395,125 @@ public class BankAccountServiceTest {
     @Test
     @DisplayName("Test deposit to bank account.")
     public void makeDeposit() {
-        BankAccount original = BankAccount.builder()
-                .id(1L)
-                .accountId("theodore.roosevelt@gmail.com")
-                .firstName("Theodore")
-                .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(3500))
-                .minimumBalance(BigDecimal.valueOf(1500))
-                .active(true)
-                .build();
-
-        BankAccount updated = BankAccount.builder()
-                .id(1L)
-                .accountId("theodore.roosevelt@gmail.com")
-                .firstName("Theodore")
-                .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(3550))
-                .minimumBalance(BigDecimal.valueOf(1500))
-                .active(true)
-                .build();
+        BankAccountSummary updated = mock(BankAccountSummary.class);
 
         BankAccountDto updatedBankAccountDto = new BankAccountDto("theodore.roosevelt@gmail.com",
                 "Theodore", "Roosevelt",
-                BigDecimal.valueOf(3550), BigDecimal.valueOf(1500), true, List.of());
+                Money.ofUnits(3550), Money.ofUnits(1500), true, List.of());
 
-        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
-        when(dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", List.of(Pair.of(BankAccountFields.BALANCE, "3550.0")))).thenReturn(Optional.of(updated));
+        when(dataFacade.applyTransaction("theodore.roosevelt@gmail.com", Money.ofUnits(50), TransactionType.DEPOSIT)).thenReturn(Optional.of(updated));
         when(mapper.toDto(updated)).thenReturn(updatedBankAccountDto);
 
-        Optional<BankAccountDto> result = service.makeDeposit("theodore.roosevelt@gmail.com", 50);
+        Optional<BankAccountDto> result = service.makeDeposit("theodore.roosevelt@gmail.com", Money.ofUnits(50));
 
         assertTrue(result.isPresent());
         BankAccountDto bankAccountDto = result.get();
         assertThat(bankAccountDto.accountId()).isEqualTo("theodore.roosevelt@gmail.com");
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
-        assertThat(bankAccountDto.balance().intValue()).isEqualTo(3550);
-        assertThat(bankAccountDto.minimumBalance().intValue()).isEqualTo(1500);
+        assertThat(bankAccountDto.balance()).isEqualTo(Money.ofUnits(3550));
+        assertThat(bankAccountDto.minimumBalance()).isEqualTo(Money.ofUnits(1500));
         assertThat(bankAccountDto.balance()).isGreaterThan(bankAccountDto.minimumBalance());
 
-        verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
-        verify(dataFacade).updateBankAccount("theodore.roosevelt@gmail.com", List.of(Pair.of(BankAccountFields.BALANCE, "3550.0")));
-        verify(dataFacade).saveTransaction(1L, BigDecimal.valueOf(50.0), TransactionType.DEPOSIT);
+        verify(dataFacade).applyTransaction("theodore.roosevelt@gmail.com", Money.ofUnits(50), TransactionType.DEPOSIT);
         verifyNoMoreInteractions(dataFacade);
     }
 
+    @Test
+    @DisplayName("Test deposit retried with a known idempotency key. result=original response, account untouched")
+    public void makeDeposit_CachedIdempotencyKey_ReplayedWithoutLedgerWrite() {
+        BankAccountDto original = new BankAccountDto("theodore.roosevelt@gmail.com",
+                "Theodore", "Roosevelt",
+                Money.ofUnits(3550), Money.ofUnits(1500), true, List.of());
+        when(idempotencyStore.findCached("key-1", "theodore.roosevelt@gmail.com", TransactionType.DEPOSIT, Money.ofUnits(50)))
+                .thenReturn(Optional.of(original));
+
+        Optional<BankAccountDto> result = service.makeDeposit("theodore.roosevelt@gmail.com", Money.ofUnits(50), "key-1");
+
+        assertThat(result).contains(original);
+        verifyNoInteractions(dataFacade, groupCommitBatcher);
+    }
+
+    @Test
+    @DisplayName("Test deposit with a new idempotency key. result=key claimed with the ledger write and remembered")
+    public void makeDeposit_NewIdempotencyKey_ClaimedAndRemembered() {
+        BankAccountSummary updated = mock(BankAccountSummary.class);
+        BankAccountDto updatedBankAccountDto = new BankAccountDto("theodore.roosevelt@gmail.com",
+                "Theodore", "Roosevelt",
+                Money.ofUnits(3550), Money.ofUnits(1500), true, List.of());
+
+        IdempotencyRecord claim = mock(IdempotencyRecord.class);
+
+        when(idempotencyStore.findCached(any(), any(), any(), any())).thenReturn(Optional.empty());
+        when(idempotencyStore.newClaim("key-1", "theodore.roosevelt@gmail.com", TransactionType.DEPOSIT, Money.ofUnits(50)))
+                .thenReturn(claim);
+        when(dataFacade.applyIdempotentTransaction(same(claim), any())).thenReturn(Optional.of(updated));
+        when(mapper.toDto(updated)).thenReturn(updatedBankAccountDto);
+
+        Optional<BankAccountDto> result = service.makeDeposit("theodore.roosevelt@gmail.com", Money.ofUnits(50), "key-1");
+
+        assertThat(result).contains(updatedBankAccountDto);
+        verify(idempotencyStore).remember("key-1", "theodore.roosevelt@gmail.com", TransactionType.DEPOSIT,
+                Money.ofUnits(50), updatedBankAccountDto);
+        verify(groupCommitBatcher, never()).submit(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Test deposit whose idempotency key was claimed by a concurrent request. result=stored response")
+    public void makeDeposit_IdempotencyKeyClaimedConcurrently_StoredResponseReplayed() {
+        BankAccountDto original = new BankAccountDto("theodore.roosevelt@gmail.com",
+                "Theodore", "Roosevelt",
+                Money.ofUnits(3550), Money.ofUnits(1500), true, List.of());
+
+        when(idempotencyStore.findCached(any(), any(), any(), any())).thenReturn(Optional.empty());
+        when(dataFacade.applyIdempotentTransaction(any(), any()))
+                .thenThrow(new IdempotencyKeyConflictException("key-1"));
+        when(idempotencyStore.findStored("key-1", "theodore.roosevelt@gmail.com", TransactionType.DEPOSIT, Money.ofUnits(50)))
+                .thenReturn(original);
+
+        Optional<BankAccountDto> result = service.makeDeposit("theodore.roosevelt@gmail.com", Money.ofUnits(50), "key-1");
+
+        assertThat(result).contains(original);
+        verify(idempotencyStore, never()).remember(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Test deposit to bank account through group commit.")
+    public void makeDeposit_GroupCommitEnabled_SubmittedToBatcher() {
+        BankAccountSummary updated = mock(BankAccountSummary.class);
+        BankAccountDto updatedBankAccountDto = new BankAccountDto("theodore.roosevelt@gmail.com",
+                "Theodore", "Roosevelt",
+                Money.ofUnits(3550), Money.ofUnits(1500), true, List.of());
+
+        when(groupCommitBatcher.isEnabled()).thenReturn(true);
+        when(groupCommitBatcher.submit("theodore.roosevelt@gmail.com", Money.ofUnits(50), TransactionType.DEPOSIT))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(updated)));
+        when(mapper.toDto(updated)).thenReturn(updatedBankAccountDto);
+
+        Optional<BankAccountDto> result = service.makeDeposit("theodore.roosevelt@gmail.com", Money.ofUnits(50));
+
+        assertTrue(result.isPresent());
+        assertThat(result.get().balance()).isEqualTo(Money.ofUnits(3550));
+        verifyNoInteractions(dataFacade, ledgerConcurrency);
+    }
+
+    @Test
+    @DisplayName("Test deposit through group commit when the batch failed. result=exception of the operation")
+    public void makeDeposit_GroupCommitFailed_CauseRethrown() {
+        when(groupCommitBatcher.isEnabled()).thenReturn(true);
+        when(groupCommitBatcher.submit("theodore.roosevelt@gmail.com", Money.ofUnits(50), TransactionType.DEPOSIT))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("boom")));
+
+        assertThrows(IllegalStateException.class, () -> service.makeDeposit("theodore.roosevelt@gmail.com", Money.ofUnits(50)));
+    }
+
     @Test
     @DisplayName("Test deposit to not-exists bank account. result=EntityNotFoundException")
     public void makeDeposit_WithNotExistsBankAccount() {
+        when(dataFacade.applyTransaction("fake@gmail.com", Money.ofUnits(50), TransactionType.DEPOSIT)).thenReturn(Optional.empty());
         when(dataFacade.findBankAccountByAccountId("fake@gmail.com")).thenReturn(Optional.empty());
-        assertThrows(EntityNotFoundException.class, () -> service.makeDeposit("fake@gmail.com", 50));
+        assertThrows(EntityNotFoundException.class, () -> service.makeDeposit("fake@gmail.com", Money.ofUnits(50)));
+        verify(dataFacade).applyTransaction("fake@gmail.com", Money.ofUnits(50), TransactionType.DEPOSIT);
         verify(dataFacade).findBankAccountByAccountId("fake@gmail.com");
         verifyNoMoreInteractions(dataFacade);
     }
@@ -348,13 +526,15 @@ public class BankAccountServiceTest {
                 .accountId("theodore.roosevelt@gmail.com")
                 .firstName("Theodore")
                 .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(3500))
-                .minimumBalance(BigDecimal.valueOf(1500))
+                .balance(Money.ofUnits(3500))
+                .minimumBalance(Money.ofUnits(1500))
                 .active(false)
                 .build();
 
+        when(dataFacade.applyTransaction("theodore.roosevelt@gmail.com", Money.ofUnits(50), TransactionType.DEPOSIT)).thenReturn(Optional.empty());
         when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(bankAccount));
-        assertThrows(InactiveAccountException.class, () -> service.makeDeposit("theodore.roosevelt@gmail.com", 50));
+        assertThrows(InactiveAccountException.class, () -> service.makeDeposit("theodore.roosevelt@gmail.com", Money.ofUnits(50)));
+        verify(dataFacade).applyTransaction("theodore.roosevelt@gmail.com", Money.ofUnits(50), TransactionType.DEPOSIT);
         verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
         verifyNoMoreInteractions(dataFacade);
     }
@@ -362,58 +542,37 @@ public class BankAccountServiceTest {
     @Test
     @DisplayName("Test withdraw from a bank account.")
     public void withdraw() {
-        BankAccount original = BankAccount.builder()
-                .id(1L)
-                .accountId("theodore.roosevelt@gmail.com")
-                .firstName("Theodore")
-                .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(3500))
-                .minimumBalance(BigDecimal.valueOf(1500))
-                .active(true)
-                .build();
-
-        BankAccount updated = BankAccount.builder()
-                .id(1L)
-                .accountId("theodore.roosevelt@gmail.com")
-                .firstName("Theodore")
-                .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(1501))
-                .minimumBalance(BigDecimal.valueOf(1500))
-                .active(true)
-                .build();
+        BankAccountSummary updated = mock(BankAccountSummary.class);
 
         BankAccountDto updatedBankAccountDto = new BankAccountDto("theodore.roosevelt@gmail.com",
                 "Theodore", "Roosevelt",
-                BigDecimal.valueOf(1501), BigDecimal.valueOf(1500), true, List.of());
+                Money.ofUnits(1501), Money.ofUnits(1500), true, List.of());
 
-        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
-        when(dataFacade.updateBankAccount("theodore.roosevelt@gmail.com",
-                List.of(Pair.of(BankAccountFields.BALANCE, "1501.0")))).thenReturn(Optional.of(updated));
+        when(dataFacade.applyTransaction("theodore.roosevelt@gmail.com", Money.ofUnits(1999), TransactionType.WITHDRAW)).thenReturn(Optional.of(updated));
         when(mapper.toDto(updated)).thenReturn(updatedBankAccountDto);
 
-        Optional<BankAccountDto> result = service.makeWithdraw("theodore.roosevelt@gmail.com", 1999);
+        Optional<BankAccountDto> result = service.makeWithdraw("theodore.roosevelt@gmail.com", Money.ofUnits(1999));
 
         assertTrue(result.isPresent());
         BankAccountDto bankAccountDto = result.get();
         assertThat(bankAccountDto.accountId()).isEqualTo("theodore.roosevelt@gmail.com");
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
-        assertThat(bankAccountDto.balance().intValue()).isEqualTo(1501);
-        assertThat(bankAccountDto.minimumBalance().intValue()).isEqualTo(1500);
+        assertThat(bankAccountDto.balance()).isEqualTo(Money.ofUnits(1501));
+        assertThat(bankAccountDto.minimumBalance()).isEqualTo(Money.ofUnits(1500));
         assertThat(bankAccountDto.balance()).isGreaterThan(bankAccountDto.minimumBalance());
 
-        verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
-        verify(dataFacade).updateBankAccount("theodore.roosevelt@gmail.com",
-                List.of(Pair.of(BankAccountFields.BALANCE, "1501.0")));
-        verify(dataFacade).saveTransaction(1L, BigDecimal.valueOf(1999.0), TransactionType.WITHDRAW);
+        verify(dataFacade).applyTransaction("theodore.roosevelt@gmail.com", Money.ofUnits(1999), TransactionType.WITHDRAW);
         verifyNoMoreInteractions(dataFacade);
     }
 
     @Test
     @DisplayName("Test withdraw from not-exists bank account. result=EntityNotFoundException")
     public void makeWithdraw_WithNotExistsBankAccount() {
+        when(dataFacade.applyTransaction("fake@gmail.com", Money.ofUnits(50), TransactionType.WITHDRAW)).thenReturn(Optional.empty());
         when(dataFacade.findBankAccountByAccountId("fake@gmail.com")).thenReturn(Optional.empty());
-        assertThrows(EntityNotFoundException.class, () -> service.makeWithdraw("fake@gmail.com", 50));
+        assertThrows(EntityNotFoundException.class, () -> service.makeWithdraw("fake@gmail.com", Money.ofUnits(50)));
+        verify(dataFacade).applyTransaction("fake@gmail.com", Money.ofUnits(50), TransactionType.WITHDRAW);
         verify(dataFacade).findBankAccountByAccountId("fake@gmail.com");
         verifyNoMoreInteractions(dataFacade);
     }
@@ -426,14 +585,16 @@ public class BankAccountServiceTest {
                 .accountId("theodore.roosevelt@gmail.com")
                 .firstName("Theodore")
                 .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(3500))
-                .minimumBalance(BigDecimal.valueOf(1500))
+                .balance(Money.ofUnits(3500))
+                .minimumBalance(Money.ofUnits(1500))
                 .active(false)
                 .build();
 
+        when(dataFacade.applyTransaction("theodore.roosevelt@gmail.com", Money.ofUnits(50), TransactionType.WITHDRAW)).thenReturn(Optional.empty());
         when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(bankAccount));
         assertThrows(InactiveAccountException.class, () ->
-                service.makeWithdraw("theodore.roosevelt@gmail.com", 50));
+                service.makeWithdraw("theodore.roosevelt@gmail.com", Money.ofUnits(50)));
+        verify(dataFacade).applyTransaction("theodore.roosevelt@gmail.com", Money.ofUnits(50), TransactionType.WITHDRAW);
         verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
         verifyNoMoreInteractions(dataFacade);
     }
@@ -446,16 +607,73 @@ public class BankAccountServiceTest {
                 .accountId("theodore.roosevelt@gmail.com")
                 .firstName("Theodore")
                 .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(3500))
-                .minimumBalance(BigDecimal.valueOf(1500))
+                .balance(Money.ofUnits(3500))
+                .minimumBalance(Money.ofUnits(1500))
                 .active(true)
                 .build();
 
+        when(dataFacade.applyTransaction("theodore.roosevelt@gmail.com", Money.ofUnits(2001), TransactionType.WITHDRAW)).thenReturn(Optional.empty());
         when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
         assertThrows(InsufficientFundsException.class, () ->
-                service.makeWithdraw("theodore.roosevelt@gmail.com", 2001));
+                service.makeWithdraw("theodore.roosevelt@gmail.com", Money.ofUnits(2001)));
+
+        verify(dataFacade).applyTransaction("theodore.roosevelt@gmail.com", Money.ofUnits(2001), TransactionType.WITHDRAW);
+        verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
+        verifyNoMoreInteractions(dataFacade);
+    }
+
+    @Test
+    @DisplayName("Test a withdraw result from a bank account with not enough money. result=Declined(INSUFFICIENT_FUNDS)")
+    public void withdraw_WithInsufficientFunds_ReturnsDeclined() {
+        BankAccount original = BankAccount.builder()
+                .id(1L)
+                .accountId("theodore.roosevelt@gmail.com")
+                .firstName("Theodore")
+                .lastName("Roosevelt")
+                .balance(Money.ofUnits(3500))
+                .minimumBalance(Money.ofUnits(1500))
+                .active(true)
+                .build();
+
+        when(dataFacade.applyTransaction("theodore.roosevelt@gmail.com", Money.ofUnits(2001), TransactionType.WITHDRAW)).thenReturn(Optional.empty());
+        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
+        LedgerResult result = service.withdraw("theodore.roosevelt@gmail.com", Money.ofUnits(2001), null);
 
+        assertEquals(new LedgerResult.Declined(RejectionReason.INSUFFICIENT_FUNDS), result);
+        verify(dataFacade).applyTransaction("theodore.roosevelt@gmail.com", Money.ofUnits(2001), TransactionType.WITHDRAW);
         verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
         verifyNoMoreInteractions(dataFacade);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test a deposit result with a malformed account id. result=Declined(INVALID_ACCOUNT_ID)")
+    public void deposit_WithInvalidAccountId_ReturnsDeclined() {
+        LedgerResult result = service.deposit("not-an-email", Money.ofUnits(50), null);
+
+        assertEquals(new LedgerResult.Declined(RejectionReason.INVALID_ACCOUNT_ID), result);
+        verifyNoInteractions(dataFacade);
+    }
+
+    @Test
+    @DisplayName("Test that a declined withdraw throws an exception without a stack trace.")
+    public void makeWithdraw_WithInsufficientFunds_ThrowsStacklessException() {
+        BankAccount original = BankAccount.builder()
+                .id(1L)
+                .accountId("theodore.roosevelt@gmail.com")
+                .firstName("Theodore")
+                .lastName("Roosevelt")
+                .balance(Money.ofUnits(3500))
+                .minimumBalance(Money.ofUnits(1500))
+                .active(true)
+                .build();
+
+        when(dataFacade.applyTransaction("theodore.roosevelt@gmail.com", Money.ofUnits(2001), TransactionType.WITHDRAW)).thenReturn(Optional.empty());
+        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
+        InsufficientFundsException e = assertThrows(InsufficientFundsException.class, () ->
+                service.makeWithdraw("theodore.roosevelt@gmail.com", Money.ofUnits(2001)));
+
+        assertEquals(RejectionReason.INSUFFICIENT_FUNDS, e.getReason());
+        assertEquals("Insufficient funds exception", e.getMessage());
+        assertEquals(0, e.getStackTrace().length);
+    }
+}
@@ -0,0 +1,68 @@
+package com.mlustig.bank_management.services;
+
+import com.mlustig.bank_management.dto.BatchTransactionDto;
+import com.mlustig.bank_management.enums.BatchItemStatus;
+import com.mlustig.bank_management.enums.BatchMode;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.facades.DataFacade;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.requests.BatchTransactionItem;
+import com.mlustig.bank_management.requests.BatchTransactionRequest;
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("integration")
+@SpringBootTest
+@Sql(scripts = "/data/recreate-datasets-1.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/data/clean-database.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class BatchTransactionServiceIT {
+
+    @Autowired
+    private BatchTransactionService service;
+
+    @Autowired
+    private DataFacade dataFacade;
+
+    @Test
+    public void applyBatch_PerItemWithRejectedItems_OtherItemsCommitted() {
+        BatchTransactionDto result = service.applyBatch(new BatchTransactionRequest(BatchMode.PER_ITEM, List.of(
+                new BatchTransactionItem("theodore.roosevelt@gmail.com", TransactionType.WITHDRAW, Money.ofUnits(1000)),
+                new BatchTransactionItem("franklin.benjamin@gmail.com", TransactionType.DEPOSIT, Money.ofUnits(100)),
+                new BatchTransactionItem("theodore.roosevelt@gmail.com", TransactionType.WITHDRAW, Money.ofUnits(1500)),
+                new BatchTransactionItem("theodore.roosevelt@gmail.com", TransactionType.DEPOSIT, Money.ofUnits(200)))));
+
+        assertTrue(result.committed());
+        assertEquals(BatchItemStatus.APPLIED, result.results().get(0).status());
+        assertEquals(BatchItemStatus.REJECTED, result.results().get(1).status());
+        assertEquals("Inactive bank account", result.results().get(1).message());
+        assertEquals(BatchItemStatus.REJECTED, result.results().get(2).status());
+        assertEquals(BatchItemStatus.APPLIED, result.results().get(3).status());
+        assertEquals(Money.ofUnits(2700), result.results().get(3).balance());
+
+        assertEquals(Money.ofUnits(2700), dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com").get().getBalance());
+        assertEquals(Money.ofUnits(0), dataFacade.findBankAccountByAccountId("franklin.benjamin@gmail.com").get().getBalance());
+    }
+
+    @Test
+    public void applyBatch_AtomicWithRejectedItem_NothingCommitted() {
+        BatchTransactionDto result = service.applyBatch(new BatchTransactionRequest(BatchMode.ATOMIC, List.of(
+                new BatchTransactionItem("theodore.roosevelt@gmail.com", TransactionType.WITHDRAW, Money.ofUnits(1000)),
+                new BatchTransactionItem("theodore.roosevelt@gmail.com", TransactionType.WITHDRAW, Money.ofUnits(1500)))));
+
+        assertFalse(result.committed());
+        assertEquals(BatchItemStatus.NOT_APPLIED, result.results().get(0).status());
+        assertEquals(BatchItemStatus.REJECTED, result.results().get(1).status());
+
+        assertEquals(Money.ofUnits(3500), dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com").get().getBalance());
+    }
+}
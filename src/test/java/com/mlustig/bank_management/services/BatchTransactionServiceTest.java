@@ -0,0 +1,137 @@
+package com.mlustig.bank_management.services;
+
+import com.mlustig.bank_management.dto.BatchItemResultDto;
+import com.mlustig.bank_management.dto.BatchTransactionDto;
+import com.mlustig.bank_management.enums.BatchItemStatus;
+import com.mlustig.bank_management.enums.BatchMode;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.facades.DataFacade;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.projections.BankAccountSummary;
+import com.mlustig.bank_management.requests.BatchTransactionItem;
+import com.mlustig.bank_management.requests.BatchTransactionRequest;
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@MockitoSettings
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class BatchTransactionServiceTest {
+
+    @Mock
+    private DataFacade dataFacade;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleTransactionStatus transactionStatus;
+
+    private BatchTransactionService service;
+
+    @BeforeEach
+    public void setUp() {
+        transactionStatus = new SimpleTransactionStatus();
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        service = new BatchTransactionService(dataFacade, new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    public void applyBatch_PerItemMixedAccounts_GroupedInAccountOrderAndRejectionsIsolated() {
+        // Arrange
+        BankAccountSummary theodore = summary(1L, 100, 0, true);
+        when(dataFacade.lockBankAccount("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(theodore));
+        when(dataFacade.lockBankAccount("no.exists@gmail.com")).thenReturn(Optional.empty());
+        when(dataFacade.applyBalanceDelta("theodore.roosevelt@gmail.com", Money.ofUnits(-45)))
+                .thenReturn(Optional.of(theodore));
+
+        BatchTransactionRequest request = new BatchTransactionRequest(BatchMode.PER_ITEM, List.of(
+                new BatchTransactionItem("theodore.roosevelt@gmail.com", TransactionType.WITHDRAW, Money.ofUnits(50)),
+                new BatchTransactionItem("no.exists@gmail.com", TransactionType.DEPOSIT, Money.ofUnits(10)),
+                new BatchTransactionItem("theodore.roosevelt@gmail.com", TransactionType.WITHDRAW, Money.ofUnits(80)),
+                new BatchTransactionItem("theodore.roosevelt@gmail.com", TransactionType.DEPOSIT, Money.ofUnits(5))));
+
+        // Act
+        BatchTransactionDto result = service.applyBatch(request);
+
+        // Assert
+        assertTrue(result.committed());
+        List<BatchItemResultDto> items = result.results();
+        assertEquals(4, items.size());
+        assertEquals(BatchItemStatus.APPLIED, items.get(0).status());
+        assertEquals(Money.ofUnits(50), items.get(0).balance());
+        assertEquals(BatchItemStatus.REJECTED, items.get(1).status());
+        assertEquals("Invalid bank account", items.get(1).message());
+        assertEquals(BatchItemStatus.REJECTED, items.get(2).status());
+        assertEquals("Insufficient funds exception", items.get(2).message());
+        assertEquals(BatchItemStatus.APPLIED, items.get(3).status());
+        assertEquals(Money.ofUnits(55), items.get(3).balance());
+
+        InOrder inOrder = inOrder(dataFacade);
+        inOrder.verify(dataFacade).lockBankAccount("no.exists@gmail.com");
+        inOrder.verify(dataFacade).lockBankAccount("theodore.roosevelt@gmail.com");
+        inOrder.verify(dataFacade).applyBalanceDelta("theodore.roosevelt@gmail.com", Money.ofUnits(-45));
+        inOrder.verify(dataFacade).saveTransactions(argThat(transactions -> transactions.size() == 2));
+        verifyNoMoreInteractions(dataFacade);
+        verify(transactionManager, times(2)).commit(transactionStatus);
+    }
+
+    @Test
+    public void applyBatch_AtomicWithInsufficientFunds_WholeBatchRolledBack() {
+        // Arrange
+        BankAccountSummary franklin = summary(2L, 0, -1000, true);
+        BankAccountSummary theodore = summary(1L, 3500, 1500, true);
+        when(dataFacade.lockBankAccount("franklin.benjamin@gmail.com")).thenReturn(Optional.of(franklin));
+        when(dataFacade.lockBankAccount("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(theodore));
+        when(dataFacade.applyBalanceDelta("franklin.benjamin@gmail.com", Money.ofUnits(100)))
+                .thenReturn(Optional.of(franklin));
+
+        BatchTransactionRequest request = new BatchTransactionRequest(BatchMode.ATOMIC, List.of(
+                new BatchTransactionItem("theodore.roosevelt@gmail.com", TransactionType.WITHDRAW, Money.ofUnits(2500)),
+                new BatchTransactionItem("theodore.roosevelt@gmail.com", TransactionType.DEPOSIT, Money.ofUnits(10)),
+                new BatchTransactionItem("franklin.benjamin@gmail.com", TransactionType.DEPOSIT, Money.ofUnits(100))));
+
+        // Act
+        BatchTransactionDto result = service.applyBatch(request);
+
+        // Assert
+        assertFalse(result.committed());
+        assertEquals(BatchItemStatus.REJECTED, result.results().get(0).status());
+        assertEquals("Insufficient funds exception", result.results().get(0).message());
+        assertEquals(BatchItemStatus.NOT_APPLIED, result.results().get(1).status());
+        assertEquals(BatchItemStatus.NOT_APPLIED, result.results().get(2).status());
+        assertNull(result.results().get(2).balance());
+        assertTrue(transactionStatus.isRollbackOnly());
+        verify(dataFacade).saveTransactions(anyList());
+    }
+
+    @Test
+    public void batchTransactionRequest_NoMode_DefaultsToPerItem() {
+        BatchTransactionRequest request = new BatchTransactionRequest(null,
+                List.of(new BatchTransactionItem("theodore.roosevelt@gmail.com", TransactionType.DEPOSIT, Money.ofUnits(10))));
+
+        assertEquals(BatchMode.PER_ITEM, request.mode());
+    }
+
+    private BankAccountSummary summary(Long id, int balance, int minimumBalance, boolean active) {
+        BankAccountSummary summary = mock(BankAccountSummary.class, withSettings().strictness(Strictness.LENIENT));
+        when(summary.getId()).thenReturn(id);
+        when(summary.getBalance()).thenReturn(Money.ofUnits(balance));
+        when(summary.getMinimumBalance()).thenReturn(Money.ofUnits(minimumBalance));
+        when(summary.isActive()).thenReturn(active);
+        return summary;
+    }
+}
@@ -0,0 +1,132 @@
+package com.mlustig.bank_management.services;
+
+import com.mlustig.bank_management.dao.BankAccountRow;
+import com.mlustig.bank_management.dao.TransactionRow;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.exceptions.EmailValidationException;
+import com.mlustig.bank_management.exceptions.InactiveAccountException;
+import com.mlustig.bank_management.exceptions.InsufficientFundsException;
+import com.mlustig.bank_management.facades.ReactiveDataFacade;
+import com.mlustig.bank_management.mappers.BankAccountMapper;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoSettings;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.*;
+
+@MockitoSettings
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class ReactiveBankAccountServiceTest {
+
+    private static final String ACCOUNT_ID = "theodore.roosevelt@gmail.com";
+
+    @Mock
+    private ReactiveDataFacade dataFacade;
+
+    private ReactiveBankAccountService service;
+
+    @BeforeEach
+    public void setUp() {
+        service = new ReactiveBankAccountService(dataFacade, BankAccountMapper.INSTANCE);
+    }
+
+    @Test
+    public void getAccountInfo_WithTransactions_ReturnAccountAndHistory() {
+        BankAccountRow account = row(3500, true);
+        when(dataFacade.findBankAccountByAccountId(ACCOUNT_ID)).thenReturn(Mono.just(account));
+        when(dataFacade.findTransactions(1L)).thenReturn(Flux.just(
+                new TransactionRow(1L, 1L, Money.ofUnits(3500), TransactionType.DEPOSIT, LocalDateTime.now())));
+
+        StepVerifier.create(service.getAccountInfo(ACCOUNT_ID, true))
+                .expectNextMatches(dto -> dto.balance().equals(Money.ofUnits(3500)) && dto.transactions().size() == 1)
+                .verifyComplete();
+    }
+
+    @Test
+    public void getAccountInfo_InvalidAccountId_EmitEmailValidationException() {
+        StepVerifier.create(service.getAccountInfo("not-an-email", false))
+                .expectError(EmailValidationException.class)
+                .verify();
+
+        verifyNoInteractions(dataFacade);
+    }
+
+    @Test
+    public void getBalance_UnknownAccount_EmitEntityNotFoundException() {
+        when(dataFacade.findBankAccountByAccountId(ACCOUNT_ID)).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.getBalance(ACCOUNT_ID))
+                .expectErrorMatches(e -> e instanceof EntityNotFoundException && e.getMessage().equals("Invalid bank account"))
+                .verify();
+    }
+
+    @Test
+    public void makeDeposit_ActiveAccount_ReturnUpdatedAccount() {
+        when(dataFacade.applyTransaction(ACCOUNT_ID, Money.ofUnits(100), TransactionType.DEPOSIT))
+                .thenReturn(Mono.just(row(3600, true)));
+
+        StepVerifier.create(service.makeDeposit(ACCOUNT_ID, Money.ofUnits(100)))
+                .expectNextMatches(dto -> dto.balance().equals(Money.ofUnits(3600)))
+                .verifyComplete();
+
+        verify(dataFacade, never()).findBankAccountByAccountId(any());
+    }
+
+    @Test
+    public void makeWithdraw_BelowMinimumBalance_EmitInsufficientFundsException() {
+        when(dataFacade.applyTransaction(ACCOUNT_ID, Money.ofUnits(5000), TransactionType.WITHDRAW))
+                .thenReturn(Mono.empty());
+        when(dataFacade.findBankAccountByAccountId(ACCOUNT_ID)).thenReturn(Mono.just(row(3500, true)));
+
+        StepVerifier.create(service.makeWithdraw(ACCOUNT_ID, Money.ofUnits(5000)))
+                .expectError(InsufficientFundsException.class)
+                .verify();
+    }
+
+    @Test
+    public void makeWithdraw_InactiveAccount_EmitInactiveAccountException() {
+        when(dataFacade.applyTransaction(ACCOUNT_ID, Money.ofUnits(10), TransactionType.WITHDRAW))
+                .thenReturn(Mono.empty());
+        when(dataFacade.findBankAccountByAccountId(ACCOUNT_ID)).thenReturn(Mono.just(row(3500, false)));
+
+        StepVerifier.create(service.makeWithdraw(ACCOUNT_ID, Money.ofUnits(10)))
+                .expectError(InactiveAccountException.class)
+                .verify();
+    }
+
+    @Test
+    public void activateAccount_AlreadyActive_ReturnCurrentAccount() {
+        when(dataFacade.updateActive(ACCOUNT_ID, true)).thenReturn(Mono.empty());
+        when(dataFacade.findBankAccountByAccountId(ACCOUNT_ID)).thenReturn(Mono.just(row(3500, true)));
+
+        StepVerifier.create(service.activateAccount(ACCOUNT_ID))
+                .expectNextMatches(dto -> dto.active())
+                .verifyComplete();
+    }
+
+    @Test
+    public void deactivateAccount_UnknownAccount_EmitEntityNotFoundException() {
+        when(dataFacade.updateActive(ACCOUNT_ID, false)).thenReturn(Mono.empty());
+        when(dataFacade.findBankAccountByAccountId(ACCOUNT_ID)).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.deactivateAccount(ACCOUNT_ID))
+                .expectError(EntityNotFoundException.class)
+                .verify();
+    }
+
+    private BankAccountRow row(int balance, boolean active) {
+        LocalDateTime now = LocalDateTime.now();
+        return new BankAccountRow(1L, ACCOUNT_ID, "Theodore", "Roosevelt", Money.ofUnits(balance),
+                Money.ofUnits(1500), active, 0L, now, now);
+    }
+}
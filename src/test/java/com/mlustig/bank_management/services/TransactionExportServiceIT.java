@@ -0,0 +1,92 @@
+package com.mlustig.bank_management.services;
+
+import com.mlustig.bank_management.dao.Transaction;
+import com.mlustig.bank_management.enums.ExportFormat;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.repositories.TransactionRepository;
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("integration")
+@SpringBootTest
+@Sql(scripts = "/data/recreate-datasets-1.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/data/clean-database.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+@Timeout(value = 10)
+public class TransactionExportServiceIT {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2023, 5, 14, 10, 0);
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    public void export_Csv_HeaderAndRowsOldestFirst() throws IOException {
+        saveTransactions();
+        Long bankAccountId = transactionExportService.findBankAccountId("theodore.roosevelt@gmail.com");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        transactionExportService.export(bankAccountId, ExportFormat.CSV, false, out);
+
+        assertEquals("""
+                created_at,type,amount
+                2023-05-14T10:00:00.000000,DEPOSIT,100.00
+                2023-05-14T11:00:00.000000,WITHDRAW,25.50
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void export_GzippedNdjson_OneJsonObjectPerLine() throws IOException {
+        saveTransactions();
+        Long bankAccountId = transactionExportService.findBankAccountId("theodore.roosevelt@gmail.com");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        transactionExportService.export(bankAccountId, ExportFormat.NDJSON, true, out);
+
+        String result;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            result = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> lines = result.lines().toList();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"type\":\"DEPOSIT\""));
+        assertTrue(lines.get(1).contains("\"type\":\"WITHDRAW\""));
+        assertTrue(result.endsWith("\n"));
+    }
+
+    @Test
+    public void findBankAccountId_UnknownAccount_EntityNotFoundException() {
+        assertThrows(EntityNotFoundException.class, () -> transactionExportService.findBankAccountId("nobody@gmail.com"));
+    }
+
+    private void saveTransactions() {
+        transactionRepository.saveAllAndFlush(List.of(
+                Transaction.builder().bankAccountId(1L).amount(Money.ofUnits(100)).type(TransactionType.DEPOSIT)
+                        .createdAt(DAY).build(),
+                Transaction.builder().bankAccountId(1L).amount(Money.parse("25.50")).type(TransactionType.WITHDRAW)
+                        .createdAt(DAY.plusHours(1)).build(),
+                Transaction.builder().bankAccountId(2L).amount(Money.ofUnits(7)).type(TransactionType.DEPOSIT)
+                        .createdAt(DAY).build()));
+    }
+}
@@ -0,0 +1,105 @@
+package com.mlustig.bank_management.services;
+
+import com.mlustig.bank_management.config.HistoryProperties;
+import com.mlustig.bank_management.dao.BankAccount;
+import com.mlustig.bank_management.dao.Transaction;
+import com.mlustig.bank_management.dto.TransactionPageDto;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.facades.DataFacade;
+import com.mlustig.bank_management.mappers.TransactionMapper;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import com.mlustig.bank_management.utils.TransactionCursor;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoSettings;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@MockitoSettings
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class TransactionHistoryServiceTest {
+
+    @Mock
+    private DataFacade dataFacade;
+
+    private final HistoryProperties properties = new HistoryProperties();
+
+    private TransactionHistoryService service;
+
+    @BeforeEach
+    public void setUp() {
+        properties.setMaxPageSize(2);
+        service = new TransactionHistoryService(dataFacade, TransactionMapper.INSTANCE, properties);
+    }
+
+    @Test
+    public void getTransactions_MoreRowsThanLimit_PageTrimmedWithNextCursor() {
+        // Arrange
+        BankAccount bankAccount = BankAccount.builder().id(1L).accountId("theodore.roosevelt@gmail.com")
+                .firstName("Theodore").lastName("Roosevelt").build();
+        Transaction newest = transaction(30L, LocalDateTime.of(2023, 5, 3, 0, 0));
+        Transaction middle = transaction(20L, LocalDateTime.of(2023, 5, 2, 0, 0));
+        Transaction oldest = transaction(10L, LocalDateTime.of(2023, 5, 1, 0, 0));
+        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(bankAccount));
+        when(dataFacade.findTransactions(eq(1L), eq("DEPOSIT"), any(), any(), eq(TransactionCursor.START.createdAt()),
+                eq(Long.MAX_VALUE), eq(3))).thenReturn(List.of(newest, middle, oldest));
+
+        // Act
+        TransactionPageDto result = service.getTransactions("theodore.roosevelt@gmail.com", null, 10,
+                TransactionType.DEPOSIT, null, null);
+
+        // Assert
+        assertEquals(2, result.transactions().size());
+        assertEquals(new TransactionCursor(middle.getCreatedAt(), 20L), TransactionCursor.decode(result.nextCursor()));
+        assertFalse(result.immutable());
+    }
+
+    @Test
+    public void getTransactions_CursorInThePast_PageImmutable() {
+        // Arrange
+        BankAccount bankAccount = BankAccount.builder().id(1L).accountId("theodore.roosevelt@gmail.com")
+                .firstName("Theodore").lastName("Roosevelt").build();
+        TransactionCursor cursor = new TransactionCursor(LocalDateTime.of(2023, 5, 2, 0, 0), 20L);
+        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(bankAccount));
+        when(dataFacade.findTransactions(eq(1L), eq(""), any(), any(), eq(cursor.createdAt()), eq(20L), eq(3)))
+                .thenReturn(List.of(transaction(10L, LocalDateTime.of(2023, 5, 1, 0, 0))));
+
+        // Act
+        TransactionPageDto result = service.getTransactions("theodore.roosevelt@gmail.com", cursor.encode(), null,
+                null, null, null);
+
+        // Assert
+        assertEquals(1, result.transactions().size());
+        assertNull(result.nextCursor());
+        assertTrue(result.immutable());
+    }
+
+    @Test
+    public void getTransactions_UnknownAccount_EntityNotFoundException() {
+        when(dataFacade.findBankAccountByAccountId("fake@gmail.com")).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> service.getTransactions("fake@gmail.com", null, null,
+                null, null, null));
+        verify(dataFacade).findBankAccountByAccountId("fake@gmail.com");
+        verifyNoMoreInteractions(dataFacade);
+    }
+
+    private Transaction transaction(Long id, LocalDateTime createdAt) {
+        return Transaction.builder()
+                .id(id)
+                .bankAccountId(1L)
+                .amount(Money.ofUnits(10))
+                .type(TransactionType.DEPOSIT)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.mlustig.bank_management.services;
+
+import com.mlustig.bank_management.dao.Transaction;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.facades.DataFacade;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.repositories.TransactionRepository;
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("integration")
+@SpringBootTest
+@Sql(scripts = "/data/recreate-datasets-1.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/data/clean-database.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+@Timeout(value = 20)
+public class TransferServiceIT {
+
+    private static final String THEODORE = "theodore.roosevelt@gmail.com";
+    private static final String FRANKLIN = "franklin.benjamin@gmail.com";
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private BankAccountService bankAccountService;
+
+    @Autowired
+    private DataFacade dataFacade;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    public void transfer_CrossingConcurrentTransfers_NoDeadlockAndMoneyConserved() throws Exception {
+        bankAccountService.activateAccount(FRANKLIN);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<Void>> transfers = IntStream.range(0, 200)
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                        if (i % 2 == 0) {
+                            transferService.transfer(THEODORE, FRANKLIN, Money.ofUnits(3));
+                        } else {
+                            transferService.transfer(FRANKLIN, THEODORE, Money.ofUnits(1));
+                        }
+                    }, executor))
+                    .toList();
+            CompletableFuture.allOf(transfers.toArray(CompletableFuture[]::new)).get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(Money.ofUnits(3500 - 200), dataFacade.findBankAccountByAccountId(THEODORE).get().getBalance());
+        assertEquals(Money.ofUnits(200), dataFacade.findBankAccountByAccountId(FRANKLIN).get().getBalance());
+        List<Transaction> legs = transactionRepository.findAll();
+        assertEquals(400, legs.size());
+        assertEquals(200, legs.stream().map(Transaction::getTransferId).distinct().count());
+    }
+
+    @Test
+    public void transfer_Committed_HistoricalBalancesSeeBothLegs() {
+        bankAccountService.activateAccount(FRANKLIN);
+        LocalDateTime before = LocalDateTime.now();
+
+        transferService.transfer(THEODORE, FRANKLIN, Money.ofUnits(500));
+
+        assertEquals(Money.ofUnits(3500), dataFacade.findBalanceAsOf(THEODORE, before).get());
+        assertEquals(Money.ofUnits(0), dataFacade.findBalanceAsOf(FRANKLIN, before).get());
+        assertEquals(List.of(TransactionType.TRANSFER_OUT, TransactionType.TRANSFER_IN),
+                transactionRepository.findAll().stream().map(Transaction::getType).sorted().toList());
+    }
+}
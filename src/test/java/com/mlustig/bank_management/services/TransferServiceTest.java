@@ -0,0 +1,132 @@
+package com.mlustig.bank_management.services;
+
+import com.mlustig.bank_management.dto.TransferDto;
+import com.mlustig.bank_management.enums.TransactionType;
+import com.mlustig.bank_management.exceptions.InactiveAccountException;
+import com.mlustig.bank_management.exceptions.InsufficientFundsException;
+import com.mlustig.bank_management.exceptions.SameAccountTransferException;
+import com.mlustig.bank_management.facades.DataFacade;
+import com.mlustig.bank_management.mappers.BankAccountMapper;
+import com.mlustig.bank_management.metrics.BankAccountMeterRegistry;
+import com.mlustig.bank_management.money.Money;
+import com.mlustig.bank_management.projections.BankAccountSummary;
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import com.mlustig.bank_management.utils.MeterRegistries;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@MockitoSettings
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class TransferServiceTest {
+
+    private static final String THEODORE = "theodore.roosevelt@gmail.com";
+    private static final String FRANKLIN = "franklin.benjamin@gmail.com";
+
+    @Mock
+    private DataFacade dataFacade;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleTransactionStatus transactionStatus;
+
+    private BankAccountMeterRegistry meterRegistry;
+
+    private TransferService service;
+
+    @BeforeEach
+    public void setUp() {
+        transactionStatus = new SimpleTransactionStatus();
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        meterRegistry = MeterRegistries.simple();
+        service = new TransferService(dataFacade, BankAccountMapper.INSTANCE, new TransactionTemplate(transactionManager),
+                meterRegistry);
+    }
+
+    @Test
+    public void transfer_ValidAccounts_LockedInAccountIdOrderAndBothLegsLinked() {
+        // Arrange
+        BankAccountSummary theodore = summary(1L, THEODORE, 3500, 1500, true);
+        BankAccountSummary franklin = summary(2L, FRANKLIN, 0, -1000, true);
+        when(dataFacade.lockBankAccount(THEODORE)).thenReturn(Optional.of(theodore));
+        when(dataFacade.lockBankAccount(FRANKLIN)).thenReturn(Optional.of(franklin));
+        when(dataFacade.applyBalanceDelta(THEODORE, Money.ofUnits(-500))).thenReturn(Optional.of(summary(1L, THEODORE, 3000, 1500, true)));
+        when(dataFacade.applyBalanceDelta(FRANKLIN, Money.ofUnits(500))).thenReturn(Optional.of(summary(2L, FRANKLIN, 500, -1000, true)));
+
+        // Act
+        TransferDto result = service.transfer(THEODORE, FRANKLIN, Money.ofUnits(500));
+
+        // Assert
+        assertEquals(Money.ofUnits(500), result.amount());
+        assertEquals(Money.ofUnits(3000), result.from().balance());
+        assertEquals(Money.ofUnits(500), result.to().balance());
+
+        InOrder inOrder = inOrder(dataFacade);
+        inOrder.verify(dataFacade).lockBankAccount(FRANKLIN);
+        inOrder.verify(dataFacade).lockBankAccount(THEODORE);
+        inOrder.verify(dataFacade).applyBalanceDelta(THEODORE, Money.ofUnits(-500));
+        inOrder.verify(dataFacade).applyBalanceDelta(FRANKLIN, Money.ofUnits(500));
+        inOrder.verify(dataFacade).saveTransactions(argThat(transactions -> transactions.size() == 2
+                && transactions.get(0).getType() == TransactionType.TRANSFER_OUT
+                && transactions.get(0).getBankAccountId() == 1L
+                && transactions.get(1).getType() == TransactionType.TRANSFER_IN
+                && transactions.get(1).getBankAccountId() == 2L
+                && result.transferId().equals(transactions.get(0).getTransferId())
+                && result.transferId().equals(transactions.get(1).getTransferId())));
+        verify(transactionManager).commit(transactionStatus);
+        assertEquals(1, meterRegistry.getTransferLockWaitTimer().count());
+    }
+
+    @Test
+    public void transfer_BelowMinimumBalance_InsufficientFundsExceptionAndNothingWritten() {
+        // Arrange
+        when(dataFacade.lockBankAccount(THEODORE)).thenReturn(Optional.of(summary(1L, THEODORE, 3500, 1500, true)));
+        when(dataFacade.lockBankAccount(FRANKLIN)).thenReturn(Optional.of(summary(2L, FRANKLIN, 0, -1000, true)));
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class, () -> service.transfer(THEODORE, FRANKLIN, Money.ofUnits(2001)));
+        verify(dataFacade, never()).applyBalanceDelta(any(), any());
+        verify(dataFacade, never()).saveTransactions(any());
+        verify(transactionManager).rollback(transactionStatus);
+    }
+
+    @Test
+    public void transfer_InactiveRecipient_InactiveAccountException() {
+        // Arrange
+        when(dataFacade.lockBankAccount(THEODORE)).thenReturn(Optional.of(summary(1L, THEODORE, 3500, 1500, true)));
+        when(dataFacade.lockBankAccount(FRANKLIN)).thenReturn(Optional.of(summary(2L, FRANKLIN, 0, -1000, false)));
+
+        // Act & Assert
+        assertThrows(InactiveAccountException.class, () -> service.transfer(THEODORE, FRANKLIN, Money.ofUnits(10)));
+        verify(dataFacade, never()).applyBalanceDelta(any(), any());
+    }
+
+    @Test
+    public void transfer_SameAccount_SameAccountTransferException() {
+        assertThrows(SameAccountTransferException.class, () -> service.transfer(THEODORE, THEODORE, Money.ofUnits(10)));
+        verifyNoInteractions(dataFacade, transactionManager);
+    }
+
+    private BankAccountSummary summary(Long id, String accountId, int balance, int minimumBalance, boolean active) {
+        BankAccountSummary summary = mock(BankAccountSummary.class, withSettings().strictness(Strictness.LENIENT));
+        when(summary.getId()).thenReturn(id);
+        when(summary.getAccountId()).thenReturn(accountId);
+        when(summary.getBalance()).thenReturn(Money.ofUnits(balance));
+        when(summary.getMinimumBalance()).thenReturn(Money.ofUnits(minimumBalance));
+        when(summary.isActive()).thenReturn(active);
+        return summary;
+    }
+}
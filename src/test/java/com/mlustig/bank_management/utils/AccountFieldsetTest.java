@@ -0,0 +1,57 @@
+package com.mlustig.bank_management.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mlustig.bank_management.dto.BankAccountDto;
+import com.mlustig.bank_management.exceptions.UnknownFieldException;
+import com.mlustig.bank_management.money.Money;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class AccountFieldsetTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final BankAccountDto bankAccountDto = new BankAccountDto("theodore.roosevelt@gmail.com", "Theodore",
+            "Roosevelt", Money.ofUnits(3500), Money.ofUnits(1500), true, List.of());
+
+    @Test
+    public void of_NoParameters_FullRepresentationWithTransactions() {
+        AccountFieldset fieldset = AccountFieldset.of(null, null);
+
+        assertTrue(fieldset.includesTransactions());
+        assertSame(bankAccountDto, fieldset.render(bankAccountDto, objectMapper));
+    }
+
+    @Test
+    public void of_SelectedFields_OnlySelectedFieldsRendered() {
+        AccountFieldset fieldset = AccountFieldset.of(Set.of("balance", "active"), null);
+
+        ObjectNode result = (ObjectNode) fieldset.render(bankAccountDto, objectMapper);
+
+        assertFalse(fieldset.includesTransactions());
+        assertEquals(2, result.size());
+        assertTrue(result.has("active"));
+        assertEquals(3500, result.get("balance").intValue());
+    }
+
+    @Test
+    public void of_SelectedFieldsWithIncludedTransactions_TransactionsRequested() {
+        AccountFieldset fieldset = AccountFieldset.of(Set.of("balance"), Set.of("transactions"));
+
+        assertTrue(fieldset.includesTransactions());
+        assertEquals(2, ((ObjectNode) fieldset.render(bankAccountDto, objectMapper)).size());
+    }
+
+    @Test
+    public void of_UnknownField_UnknownFieldException() {
+        assertThrows(UnknownFieldException.class, () -> AccountFieldset.of(Set.of("password"), null));
+        assertThrows(UnknownFieldException.class, () -> AccountFieldset.of(null, Set.of("owner")));
+    }
+}
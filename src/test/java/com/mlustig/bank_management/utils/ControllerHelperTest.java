@@ -0,0 +1,27 @@
+package com.mlustig.bank_management.utils;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class ControllerHelperTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip", "GZIP", "deflate, gzip", "gzip;q=0.5", "gzip; q=1.0, br", "x-gzip", "*", "br, *;q=0.1",
+            "gzip;q=0.2, *;q=0"})
+    public void acceptsGzip_GzipAcceptable_True(String acceptEncoding) {
+        assertTrue(ControllerHelper.acceptsGzip(acceptEncoding));
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {"", "identity", "br, deflate", "gzip;q=0", "gzip;q=0.000", "*;q=0", "gzip;q=0, *",
+            "gzip;q=abc", "gzipped"})
+    public void acceptsGzip_GzipNotAcceptable_False(String acceptEncoding) {
+        assertFalse(ControllerHelper.acceptsGzip(acceptEncoding));
+    }
+}
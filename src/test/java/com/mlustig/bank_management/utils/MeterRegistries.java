@@ -0,0 +1,12 @@
+package com.mlustig.bank_management.utils;
+
+import com.mlustig.bank_management.metrics.BankAccountMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MeterRegistries {
+    public static BankAccountMeterRegistry simple() {
+        BankAccountMeterRegistry meterRegistry = new BankAccountMeterRegistry(new SimpleMeterRegistry());
+        meterRegistry.init();
+        return meterRegistry;
+    }
+}
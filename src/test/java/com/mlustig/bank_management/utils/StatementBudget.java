@@ -0,0 +1,33 @@
+package com.mlustig.bank_management.utils;
+
+import com.mlustig.bank_management.metrics.RequestDbStatistics;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// MockMvc matchers over the database work RequestDbStatisticsFilter recorded for the request, so a change that adds
+// a round trip to an endpoint fails its test instead of only showing up in show-sql output.
+public class StatementBudget {
+
+    public static ResultMatcher atMost(int statements) {
+        return result -> {
+            RequestDbStatistics statistics = statisticsOf(result.getRequest().getAttribute(RequestDbStatistics.REQUEST_ATTRIBUTE));
+            assertTrue(statistics.getStatements() <= statements, () -> "Expected at most " + statements
+                    + " SQL statements, but the request executed " + statistics.getStatements());
+        };
+    }
+
+    public static ResultMatcher entitiesLoadedAtMost(int entities) {
+        return result -> {
+            RequestDbStatistics statistics = statisticsOf(result.getRequest().getAttribute(RequestDbStatistics.REQUEST_ATTRIBUTE));
+            assertTrue(statistics.getEntitiesLoaded() <= entities, () -> "Expected at most " + entities
+                    + " loaded entities, but the request loaded " + statistics.getEntitiesLoaded());
+        };
+    }
+
+    private static RequestDbStatistics statisticsOf(Object attribute) {
+        assertNotNull(attribute, "No database statistics were recorded for the request");
+        return (RequestDbStatistics) attribute;
+    }
+}
@@ -0,0 +1,34 @@
+package com.mlustig.bank_management.utils;
+
+import com.mlustig.bank_management.exceptions.InvalidCursorException;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class TransactionCursorTest {
+
+    @Test
+    public void decode_EncodedCursor_SamePosition() {
+        TransactionCursor cursor = new TransactionCursor(LocalDateTime.of(2023, 5, 14, 10, 15, 30, 123456000), 42L);
+
+        TransactionCursor result = TransactionCursor.decode(cursor.encode());
+
+        assertEquals(cursor, result);
+    }
+
+    @Test
+    public void decode_MissingCursor_StartOfHistory() {
+        assertEquals(TransactionCursor.START, TransactionCursor.decode(null));
+        assertEquals(TransactionCursor.START, TransactionCursor.decode(""));
+    }
+
+    @Test
+    public void decode_MalformedCursor_InvalidCursorException() {
+        assertThrows(InvalidCursorException.class, () -> TransactionCursor.decode("not-a-cursor"));
+        assertThrows(InvalidCursorException.class, () -> TransactionCursor.decode("%%%"));
+    }
+}
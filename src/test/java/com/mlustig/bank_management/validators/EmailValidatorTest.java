@@ -0,0 +1,71 @@
+package com.mlustig.bank_management.validators;
+
+import com.mlustig.bank_management.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.SplittableRandom;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class EmailValidatorTest {
+
+    private static final Pattern REFERENCE = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
+
+    // Weighted towards the characters that decide the outcome: separators, class boundaries and near misses.
+    private static final char[] ALPHABET = ("aZz09+_.-@@@ \t\n" + "/:[`{~é İK").toCharArray();
+
+    @Test
+    public void isWellFormed_RandomInputs_SameAsReferenceRegex() {
+        long seed = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < 200_000; i++) {
+            String candidate = randomCandidate(random);
+            assertEquals(REFERENCE.matcher(candidate).matches(), EmailValidator.isWellFormed(candidate),
+                    () -> "Mismatch for \"" + candidate + "\" (seed " + seed + ")");
+        }
+    }
+
+    @Test
+    public void isWellFormed_AsciiSingleCharacterMutations_SameAsReferenceRegex() {
+        for (char c = 0; c < 256; c++) {
+            for (String candidate : new String[]{c + "a@b", "a" + c + "@b", "a@" + c + "b", "a@b" + c, "a@b" + c + c}) {
+                assertEquals(REFERENCE.matcher(candidate).matches(), EmailValidator.isWellFormed(candidate),
+                        "Mismatch for \"" + candidate + "\"");
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"theodore.roosevelt@gmail.com", "a@b", "first+tag@sub-domain.example", "a_b@-", "...@..."})
+    public void isValid_WellFormedAccountId_ReturnFalse(String accountId) {
+        assertFalse(EmailValidator.isValid(accountId));
+        assertTrue(new AccountIdValidator().isValid(accountId, null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "@", "john.doegmail.com", "@gmail.com", "john@", "a@b@c", "john doe@gmail.com",
+            "john@gmail.com\n", "john@gmail_com", "jöhn@gmail.com"})
+    public void isValid_MalformedAccountId_ReturnTrue(String accountId) {
+        assertTrue(EmailValidator.isValid(accountId));
+        assertFalse(new AccountIdValidator().isValid(accountId, null));
+    }
+
+    @Test
+    public void accountIdValidator_Null_Valid() {
+        assertTrue(new AccountIdValidator().isValid(null, null));
+    }
+
+    private String randomCandidate(SplittableRandom random) {
+        int length = random.nextInt(12);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+        }
+        return builder.toString();
+    }
+}
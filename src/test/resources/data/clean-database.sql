@@ -1,4 +1,6 @@
 DEALLOCATE ALL;
+DELETE FROM idempotency_record;
+DELETE FROM balance_snapshot;
 DROP TABLE IF EXISTS transaction;
 DROP TABLE IF EXISTS bank_account;
 
@@ -11,6 +13,7 @@ CREATE TABLE IF NOT EXISTS bank_account
     balance         NUMERIC(10, 2),
     minimum_balance NUMERIC(10, 2),
     active          BOOLEAN,
+    version         BIGINT NOT NULL DEFAULT 0,
     created_at      TIMESTAMP DEFAULT NOW(),
     updated_at      TIMESTAMP DEFAULT NOW()
 );
@@ -20,6 +23,9 @@ CREATE TABLE IF NOT EXISTS transaction
     id              SERIAL PRIMARY KEY,
     bank_account_id INT REFERENCES bank_account (id),
     amount          NUMERIC(10, 2),
-    type            VARCHAR(255) NOT NULL CHECK (type IN ('DEPOSIT', 'WITHDRAW')),
+    type            VARCHAR(255) NOT NULL CHECK (type IN ('DEPOSIT', 'WITHDRAW', 'TRANSFER_OUT', 'TRANSFER_IN')),
+    transfer_id     UUID,
     created_at      TIMESTAMP DEFAULT NOW()
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS transaction_account_created_at_id_idx ON transaction (bank_account_id, created_at DESC, id DESC);
\ No newline at end of file